@@ -0,0 +1,7 @@
+package com.challenge.ecommerce.authentication.services;
+
+public interface IPasswordHashingService {
+  String encode(String rawPassword);
+
+  boolean matches(String rawPassword, String encodedPassword);
+}
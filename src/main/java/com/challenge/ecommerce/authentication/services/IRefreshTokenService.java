@@ -0,0 +1,11 @@
+package com.challenge.ecommerce.authentication.services;
+
+import com.challenge.ecommerce.users.models.UserEntity;
+
+public interface IRefreshTokenService {
+  void store(UserEntity user, String jwtId, String refreshToken);
+
+  void verifyAndRotate(UserEntity user, String jwtId, String refreshToken);
+
+  void revoke(UserEntity user);
+}
@@ -2,6 +2,8 @@ package com.challenge.ecommerce.authentication.services.impl;
 
 import com.challenge.ecommerce.authentication.controllers.dtos.*;
 import com.challenge.ecommerce.authentication.services.IAuthenticationService;
+import com.challenge.ecommerce.authentication.services.IPasswordHashingService;
+import com.challenge.ecommerce.authentication.services.IRefreshTokenService;
 import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
 import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
 import com.challenge.ecommerce.users.models.UserEntity;
@@ -15,14 +17,13 @@ import com.nimbusds.jose.crypto.MACSigner;
 import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
+import jakarta.annotation.PostConstruct;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.text.ParseException;
@@ -39,8 +40,9 @@ import java.util.UUID;
 public class AuthenticationService implements IAuthenticationService {
 
   UserRepository userRepository;
+  IRefreshTokenService refreshTokenService;
 
-  PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(10);
+  IPasswordHashingService passwordHashingService;
 
   @NonFinal
   @Value("${jwt.signerKeyAccess}")
@@ -58,6 +60,16 @@ public class AuthenticationService implements IAuthenticationService {
   @Value("${jwt.refreshable-duration}")
   protected String REFRESHABLE_DURATION;
 
+  // verifiers are immutable and thread-safe, so they are built once
+  @NonFinal JWSVerifier accessTokenVerifier;
+  @NonFinal JWSVerifier refreshTokenVerifier;
+
+  @PostConstruct
+  void initVerifiers() throws JOSEException {
+    accessTokenVerifier = new MACVerifier(SIGNER_KEY_ACCESS_KEY);
+    refreshTokenVerifier = new MACVerifier(SIGNER_KEY_REFRESH_KEY);
+  }
+
   @Override
   public ApiResponse<AuthenticationResponse> authenticate(
       AuthenticationRequest authenticationRequest) {
@@ -65,11 +77,11 @@ public class AuthenticationService implements IAuthenticationService {
         userRepository
             .findByEmailAndNotDeleted(authenticationRequest.getEmail())
             .orElseThrow(() -> new CustomRuntimeException(ErrorCode.USER_NOT_FOUND));
-    if (!passwordEncoder.matches(authenticationRequest.getPassword(), user.getPassword())) {
+    var password = authenticationRequest.getPassword();
+    if (!passwordHashingService.matches(password, user.getPassword())) {
       throw new CustomRuntimeException(ErrorCode.PASSWORD_INCORRECT);
     }
-    var refreshToken = generateToken(user, TokenType.refresh_token);
-    user.setRefresh_token(passwordEncoder.encode(refreshToken));
+    var refreshToken = issueRefreshToken(user);
     userRepository.save(user);
     var authenticationResponse =
         AuthenticationResponse.builder()
@@ -90,7 +102,7 @@ public class AuthenticationService implements IAuthenticationService {
         userRepository
             .findByEmailAndNotDeleted(AuthUtils.getUserCurrent())
             .orElseThrow(() -> new CustomRuntimeException(ErrorCode.USER_NOT_FOUND));
-    user.setRefresh_token(null);
+    refreshTokenService.revoke(user);
     userRepository.save(user);
     return ApiResponse.<Void>builder().message(ResponseStatus.SUCCESS.getMessage()).build();
   }
@@ -112,15 +124,16 @@ public class AuthenticationService implements IAuthenticationService {
     SignedJWT signedJWT = verifyToken(request.getRefreshToken(), TokenType.refresh_token);
     try {
       var email = signedJWT.getJWTClaimsSet().getSubject();
+      var jwtId = signedJWT.getJWTClaimsSet().getJWTID();
+      if (jwtId == null) {
+        throw new CustomRuntimeException(ErrorCode.REFRESH_TOKEN_FAILED);
+      }
       var user =
           userRepository
               .findByEmailAndNotDeleted(email)
               .orElseThrow(() -> new CustomRuntimeException(ErrorCode.USER_NOT_FOUND));
-      if (!passwordEncoder.matches(request.getRefreshToken(), user.getRefresh_token())) {
-        throw new CustomRuntimeException(ErrorCode.REFRESH_TOKEN_FAILED);
-      }
-      var refreshToken = generateToken(user, TokenType.refresh_token);
-      user.setRefresh_token(passwordEncoder.encode(refreshToken));
+      refreshTokenService.verifyAndRotate(user, jwtId, request.getRefreshToken());
+      var refreshToken = issueRefreshToken(user);
       userRepository.save(user);
       var authenticationResponse =
           AuthenticationResponse.builder()
@@ -135,7 +148,18 @@ public class AuthenticationService implements IAuthenticationService {
     }
   }
 
+  private String issueRefreshToken(UserEntity userEntity) {
+    var jwtId = UUID.randomUUID().toString();
+    var refreshToken = generateToken(userEntity, TokenType.refresh_token, jwtId);
+    refreshTokenService.store(userEntity, jwtId, refreshToken);
+    return refreshToken;
+  }
+
   private String generateToken(UserEntity userEntity, TokenType type) {
+    return generateToken(userEntity, type, UUID.randomUUID().toString());
+  }
+
+  private String generateToken(UserEntity userEntity, TokenType type, String jwtId) {
     var time = VALID_DURATION;
     var key = SIGNER_KEY_ACCESS_KEY;
     if (type.equals(TokenType.refresh_token)) {
@@ -150,7 +174,7 @@ public class AuthenticationService implements IAuthenticationService {
             .expirationTime(
                 new Date(
                     Instant.now().plus(Long.parseLong(time), ChronoUnit.SECONDS).toEpochMilli()))
-            .jwtID(UUID.randomUUID().toString())
+            .jwtID(jwtId)
             .claim("scope", buildScope(userEntity))
             .build();
     Payload payload = new Payload(jwtClaimsSet.toJSONObject());
@@ -173,9 +197,7 @@ public class AuthenticationService implements IAuthenticationService {
   private SignedJWT verifyToken(String token, TokenType type) {
     try {
       JWSVerifier verifier =
-          type.equals(TokenType.access_token)
-              ? new MACVerifier(SIGNER_KEY_ACCESS_KEY)
-              : new MACVerifier(SIGNER_KEY_REFRESH_KEY);
+          type.equals(TokenType.access_token) ? accessTokenVerifier : refreshTokenVerifier;
       SignedJWT signedJWT = SignedJWT.parse(token);
       Date expirationDate = signedJWT.getJWTClaimsSet().getExpirationTime();
       var verify = signedJWT.verify(verifier);
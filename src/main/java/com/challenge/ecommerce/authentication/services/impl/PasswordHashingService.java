@@ -0,0 +1,71 @@
+package com.challenge.ecommerce.authentication.services.impl;
+
+import com.challenge.ecommerce.authentication.services.IPasswordHashingService;
+import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
+import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
+import com.challenge.ecommerce.utils.concurrent.BoundedVirtualThreadExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs BCrypt off the request threads with a concurrency limit, so a burst of logins fails fast
+ * with 503 instead of using every core and worker thread.
+ */
+@Service
+@Slf4j
+public class PasswordHashingService implements IPasswordHashingService {
+
+  private final PasswordEncoder passwordEncoder;
+  private final BoundedVirtualThreadExecutor executor;
+
+  public PasswordHashingService(
+      PasswordEncoder passwordEncoder,
+      MeterRegistry meterRegistry,
+      @Value("${app.security.hashing.max-concurrency}") int maxConcurrency,
+      @Value("${app.security.hashing.queue-capacity}") int queueCapacity,
+      @Value("${app.security.hashing.deadline-millis}") long deadlineMillis) {
+    this.passwordEncoder = passwordEncoder;
+    // 0 means one hash per core
+    var concurrency =
+        maxConcurrency > 0 ? maxConcurrency : Runtime.getRuntime().availableProcessors();
+    this.executor =
+        new BoundedVirtualThreadExecutor(
+            "security.password.hashing",
+            concurrency,
+            queueCapacity,
+            Duration.ofMillis(deadlineMillis),
+            meterRegistry);
+  }
+
+  @Override
+  public String encode(String rawPassword) {
+    return call(() -> passwordEncoder.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(String rawPassword, String encodedPassword) {
+    return call(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+  }
+
+  <T> T call(Callable<T> task) {
+    try {
+      return executor.call(task);
+    } catch (RejectedExecutionException e) {
+      log.warn("Password hashing rejected: {}", e.getMessage());
+      throw new CustomRuntimeException(ErrorCode.SERVICE_BUSY);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.close();
+  }
+}
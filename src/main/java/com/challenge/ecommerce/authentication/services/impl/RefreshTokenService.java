@@ -0,0 +1,165 @@
+package com.challenge.ecommerce.authentication.services.impl;
+
+import com.challenge.ecommerce.authentication.services.IRefreshTokenService;
+import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
+import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
+import com.challenge.ecommerce.users.models.UserEntity;
+import com.challenge.ecommerce.users.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Refresh tokens are looked up by their {@code jti} and compared through an HMAC-SHA256 of the
+ * token in constant time. Redis holds {@code refresh_token:{jti}} with the refreshable duration as
+ * ttl; the {@code users.refresh_token} column keeps {@code jti:hash} of the current token and is
+ * used when Redis is unavailable. A rotated token is kept as a marker until it expires, so
+ * presenting it again revokes the session.
+ */
+@Service
+@Slf4j
+public class RefreshTokenService implements IRefreshTokenService {
+
+  static final String KEY_PREFIX = "refresh_token:";
+  static final String ROTATED = "ROTATED";
+  static final String COLUMN_SEPARATOR = ":";
+
+  // swaps the stored hash for the rotated marker only if nobody rotated it first
+  static final RedisScript<Long> ROTATE_SCRIPT =
+      RedisScript.of(
+          "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+              + "redis.call('SET', KEYS[1], ARGV[2], 'KEEPTTL') return 1 end return 0",
+          Long.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final UserRepository userRepository;
+  private final SecretKeySpec hmacKey;
+  private final Duration ttl;
+
+  public RefreshTokenService(
+      StringRedisTemplate redisTemplate,
+      UserRepository userRepository,
+      @Value("${jwt.signerKeyRefresh}") String signerKeyRefresh,
+      @Value("${jwt.refreshable-duration}") long refreshableDurationSeconds) {
+    this.redisTemplate = redisTemplate;
+    this.userRepository = userRepository;
+    this.hmacKey =
+        new SecretKeySpec(signerKeyRefresh.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    this.ttl = Duration.ofSeconds(refreshableDurationSeconds);
+  }
+
+  // the caller saves the user
+  @Override
+  public void store(UserEntity user, String jwtId, String refreshToken) {
+    var hash = hash(refreshToken);
+    user.setRefresh_token(jwtId + COLUMN_SEPARATOR + hash);
+    try {
+      redisTemplate.opsForValue().set(KEY_PREFIX + jwtId, hash, ttl);
+    } catch (RuntimeException e) {
+      log.warn("Failed to store refresh token {} in redis: {}", jwtId, e.getMessage());
+    }
+  }
+
+  // on success the token is marked as rotated; the caller stores the new one and saves the user
+  @Override
+  public void verifyAndRotate(UserEntity user, String jwtId, String refreshToken) {
+    if (user.getRefresh_token() == null) {
+      throw new CustomRuntimeException(ErrorCode.REFRESH_TOKEN_FAILED);
+    }
+    var hash = hash(refreshToken);
+    var key = KEY_PREFIX + jwtId;
+    String stored;
+    try {
+      stored = redisTemplate.opsForValue().get(key);
+    } catch (RuntimeException e) {
+      log.warn("Failed to read refresh token {} from redis: {}", jwtId, e.getMessage());
+      verifyAgainstColumn(user, jwtId, hash);
+      return;
+    }
+    if (stored == null) {
+      verifyAgainstColumn(user, jwtId, hash);
+      return;
+    }
+    if (ROTATED.equals(stored)) {
+      reuseDetected(user, jwtId);
+    }
+    if (!constantTimeEquals(stored, hash)) {
+      throw new CustomRuntimeException(ErrorCode.REFRESH_TOKEN_FAILED);
+    }
+    Long swapped;
+    try {
+      swapped = redisTemplate.execute(ROTATE_SCRIPT, List.of(key), hash, ROTATED);
+    } catch (RuntimeException e) {
+      log.warn("Failed to rotate refresh token {} in redis: {}", jwtId, e.getMessage());
+      verifyAgainstColumn(user, jwtId, hash);
+      return;
+    }
+    // a concurrent refresh with the same token won the swap
+    if (swapped == null || swapped == 0) {
+      reuseDetected(user, jwtId);
+    }
+  }
+
+  @Override
+  public void revoke(UserEntity user) {
+    var current = user.getRefresh_token();
+    user.setRefresh_token(null);
+    if (current == null) {
+      return;
+    }
+    var separator = current.indexOf(COLUMN_SEPARATOR);
+    if (separator <= 0) {
+      return;
+    }
+    try {
+      redisTemplate.delete(KEY_PREFIX + current.substring(0, separator));
+    } catch (RuntimeException e) {
+      log.warn("Failed to revoke refresh token of {} in redis: {}", user.getId(), e.getMessage());
+    }
+  }
+
+  // the column only knows the current token, any other valid token of the user was rotated
+  void verifyAgainstColumn(UserEntity user, String jwtId, String hash) {
+    var expected = jwtId + COLUMN_SEPARATOR + hash;
+    var current = user.getRefresh_token();
+    if (!current.startsWith(jwtId + COLUMN_SEPARATOR)) {
+      reuseDetected(user, jwtId);
+    }
+    if (!constantTimeEquals(current, expected)) {
+      throw new CustomRuntimeException(ErrorCode.REFRESH_TOKEN_FAILED);
+    }
+  }
+
+  void reuseDetected(UserEntity user, String jwtId) {
+    log.warn("Refresh token {} of user {} was reused, revoking the session", jwtId, user.getId());
+    revoke(user);
+    userRepository.save(user);
+    throw new CustomRuntimeException(ErrorCode.REFRESH_TOKEN_REUSED);
+  }
+
+  String hash(String refreshToken) {
+    try {
+      var mac = Mac.getInstance("HmacSHA256");
+      mac.init(hmacKey);
+      return HexFormat.of().formatHex(mac.doFinal(refreshToken.getBytes(StandardCharsets.UTF_8)));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  static boolean constantTimeEquals(String a, String b) {
+    return MessageDigest.isEqual(
+        a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -7,6 +7,7 @@ import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
 import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
 import com.challenge.ecommerce.utils.ApiResponse;
 import com.challenge.ecommerce.utils.StringHelper;
+import com.challenge.ecommerce.utils.enums.ChildCategoryAction;
 import jakarta.validation.Valid;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -73,10 +74,13 @@ public class CategoryController {
     return ResponseEntity.ok(resp);
   }
 
+  // children=DETACH (default), REPARENT to move them up, or DELETE to remove the whole subtree
   @DeleteMapping("/{categorySlug}")
-  public ResponseEntity<?> deleteCategory(@PathVariable("categorySlug") String categorySlug) {
+  public ResponseEntity<?> deleteCategory(
+      @PathVariable("categorySlug") String categorySlug,
+      @RequestParam(required = false, defaultValue = "DETACH") ChildCategoryAction children) {
     String formattedSlug = StringHelper.toSlug(categorySlug);
-    categoryService.deleteCategory(formattedSlug);
+    categoryService.deleteCategory(formattedSlug, children);
     var resp = ApiResponse.builder().message("Category deleted successfully").build();
     return ResponseEntity.ok(resp);
   }
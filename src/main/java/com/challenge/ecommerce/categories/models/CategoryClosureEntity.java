@@ -0,0 +1,28 @@
+package com.challenge.ecommerce.categories.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+// one row per ancestor of an active category, itself included at depth 0
+@Entity(name = "category_closure")
+@Table(
+    indexes =
+        @Index(
+            name = "idx_category_closure_descendant",
+            columnList = "descendantId, ancestorId, depth"))
+@IdClass(CategoryClosureId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Builder
+public class CategoryClosureEntity {
+  @Id String ancestorId;
+
+  @Id String descendantId;
+
+  @Column(nullable = false)
+  int depth;
+}
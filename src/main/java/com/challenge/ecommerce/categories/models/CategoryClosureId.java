@@ -0,0 +1,17 @@
+package com.challenge.ecommerce.categories.models;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CategoryClosureId implements Serializable {
+  String ancestorId;
+  String descendantId;
+}
@@ -13,7 +13,12 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity(name = "categories")
-@Table
+@Table(
+    indexes = {
+      @Index(name = "idx_categories_slug_deleted", columnList = "slug, deletedAt"),
+      @Index(name = "idx_categories_name_deleted", columnList = "name, deletedAt"),
+      @Index(name = "idx_categories_parent_deleted", columnList = "parent_category_id, deletedAt")
+    })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,64 @@
+package com.challenge.ecommerce.categories.repositories;
+
+import com.challenge.ecommerce.categories.models.CategoryClosureEntity;
+import com.challenge.ecommerce.categories.models.CategoryClosureId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CategoryClosureRepository
+    extends JpaRepository<CategoryClosureEntity, CategoryClosureId> {
+
+  // depth 0 included, so a category counts as being inside its own subtree
+  boolean existsByAncestorIdAndDescendantId(String ancestorId, String descendantId);
+
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO category_closure (ancestor_id, descendant_id, depth) VALUES (:categoryId, :categoryId, 0)",
+      nativeQuery = true)
+  int insertSelf(@Param("categoryId") String categoryId);
+
+  // links every ancestor of the parent, the parent included, to every node of the subtree
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO category_closure (ancestor_id, descendant_id, depth) SELECT a.ancestor_id, d.descendant_id, a.depth + d.depth + 1 FROM category_closure a JOIN category_closure d ON d.ancestor_id = :categoryId WHERE a.descendant_id = :parentId",
+      nativeQuery = true)
+  int attachSubtree(@Param("categoryId") String categoryId, @Param("parentId") String parentId);
+
+  // unlinks the subtree from the ancestors of its root, keeping the links inside it
+  @Modifying
+  @Query(
+      value =
+          "DELETE cc FROM category_closure cc JOIN category_closure d ON d.descendant_id = cc.descendant_id JOIN category_closure a ON a.ancestor_id = cc.ancestor_id WHERE d.ancestor_id = :categoryId AND a.descendant_id = :categoryId AND a.ancestor_id <> :categoryId",
+      nativeQuery = true)
+  int detachSubtree(@Param("categoryId") String categoryId);
+
+  // drops a category, its children becoming the roots of their subtrees
+  @Modifying
+  @Query(
+      value =
+          "DELETE FROM category_closure WHERE ancestor_id = :categoryId OR descendant_id = :categoryId",
+      nativeQuery = true)
+  int deleteLinksOf(@Param("categoryId") String categoryId);
+
+  // takes the category out of the paths running through it, its children moving up one level
+  @Modifying
+  @Query(
+      value =
+          "UPDATE category_closure cc JOIN category_closure a ON a.ancestor_id = cc.ancestor_id AND a.descendant_id = :categoryId JOIN category_closure d ON d.descendant_id = cc.descendant_id AND d.ancestor_id = :categoryId SET cc.depth = cc.depth - 1 WHERE a.ancestor_id <> :categoryId AND d.descendant_id <> :categoryId",
+      nativeQuery = true)
+  int liftSubtree(@Param("categoryId") String categoryId);
+
+  // every link into the subtree, from above it and inside it
+  @Modifying
+  @Query(
+      value =
+          "DELETE cc FROM category_closure cc JOIN category_closure s ON s.descendant_id = cc.descendant_id WHERE s.ancestor_id = :categoryId",
+      nativeQuery = true)
+  int deleteSubtree(@Param("categoryId") String categoryId);
+}
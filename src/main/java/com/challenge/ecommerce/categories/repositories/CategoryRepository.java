@@ -1,8 +1,6 @@
 package com.challenge.ecommerce.categories.repositories;
 
 import com.challenge.ecommerce.categories.models.CategoryEntity;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -10,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,9 +17,6 @@ public interface CategoryRepository extends JpaRepository<CategoryEntity, String
   @Query("SELECT COUNT(c) > 0 FROM categories c WHERE c.name = :name AND c.deletedAt IS NULL")
   Boolean existsByNameAndDeletedAtIsNull(@Param("name") String name);
 
-  @Query("SELECT b FROM categories b WHERE b.deletedAt IS NULL")
-  Page<CategoryEntity> findAllByDeletedAtIsNull(Pageable pageable);
-
   @Query("SELECT b FROM categories b WHERE b.id = :categoryId AND b.deletedAt IS NULL")
   Optional<CategoryEntity> findByIdAndDeletedAt(@Param("categoryId") String categoryId);
 
@@ -28,11 +24,31 @@ public interface CategoryRepository extends JpaRepository<CategoryEntity, String
   Optional<CategoryEntity> findBySlugAndDeletedAt(@Param("categorySlug") String categorySlug);
 
   @Query(
-      "SELECT b FROM categories b WHERE b.parentCategory.slug = :categoryParentSlug AND b.deletedAt IS NULL")
-  Page<CategoryEntity> findByParentSlugAndDeletedAt(
-      @Param("categoryParentSlug") String categoryParentSlug, Pageable pageable);
+      "SELECT new com.challenge.ecommerce.categories.repositories.CategoryRow("
+          + "b.id, b.name, b.category_img, b.slug, p.id, b.createdAt) "
+          + "FROM categories b LEFT JOIN b.parentCategory p WHERE b.deletedAt IS NULL")
+  List<CategoryRow> findActiveRows();
+
+  @Query(
+      "SELECT new com.challenge.ecommerce.categories.repositories.CategoryTableVersion("
+          + "COUNT(b), MAX(b.updatedAt)) FROM categories b")
+  CategoryTableVersion findTableVersion();
 
+  // updated_at is set by hand, bulk statements skip auditing and the tree watches that column
+  @Modifying
+  @Query(
+      value =
+          "UPDATE categories SET parent_category_id = :parentId, updated_at = :now WHERE parent_category_id = :categoryId",
+      nativeQuery = true)
+  int moveChildren(
+      @Param("categoryId") String categoryId,
+      @Param("parentId") String parentId,
+      @Param("now") LocalDateTime now);
+
+  @Modifying
   @Query(
-      "SELECT b FROM categories b WHERE b.parentCategory.id = :categoryId AND b.deletedAt IS NULL")
-  List<CategoryEntity> findByParentIdAndDeletedAt(@Param("categoryId") String categoryId);
+      value =
+          "UPDATE categories SET deleted_at = :now, updated_at = :now WHERE deleted_at IS NULL AND id IN (SELECT descendant_id FROM category_closure WHERE ancestor_id = :categoryId)",
+      nativeQuery = true)
+  int softDeleteSubtree(@Param("categoryId") String categoryId, @Param("now") LocalDateTime now);
 }
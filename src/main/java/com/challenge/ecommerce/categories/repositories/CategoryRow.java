@@ -0,0 +1,12 @@
+package com.challenge.ecommerce.categories.repositories;
+
+import java.time.LocalDateTime;
+
+/** Columns of an active category needed to place it in the category tree. */
+public record CategoryRow(
+    String id,
+    String name,
+    String categoryImg,
+    String slug,
+    String parentId,
+    LocalDateTime createdAt) {}
@@ -0,0 +1,9 @@
+package com.challenge.ecommerce.categories.repositories;
+
+import java.time.LocalDateTime;
+
+/**
+ * Changes whenever a category is inserted, updated or soft deleted, since every write moves the
+ * row count or the latest update time.
+ */
+public record CategoryTableVersion(Long rows, LocalDateTime lastUpdatedAt) {}
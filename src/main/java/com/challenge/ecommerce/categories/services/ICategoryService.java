@@ -4,6 +4,7 @@ import com.challenge.ecommerce.categories.controllers.dto.CategoryCreateDto;
 import com.challenge.ecommerce.categories.controllers.dto.CategoryResponse;
 import com.challenge.ecommerce.categories.controllers.dto.CategoryUpdateDto;
 import com.challenge.ecommerce.utils.ApiResponse;
+import com.challenge.ecommerce.utils.enums.ChildCategoryAction;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -16,7 +17,7 @@ public interface ICategoryService {
 
   CategoryResponse updateCategory(CategoryUpdateDto request, String categorySlug);
 
-  void deleteCategory(String id);
+  void deleteCategory(String categorySlug, ChildCategoryAction children);
 
   ApiResponse<?> getListCategoriesByParentSlug(Pageable pageable, String categoryParentSlug);
 }
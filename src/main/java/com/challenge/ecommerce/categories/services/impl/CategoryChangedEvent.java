@@ -0,0 +1,4 @@
+package com.challenge.ecommerce.categories.services.impl;
+
+/** Published when a category is created, updated or deleted. */
+public record CategoryChangedEvent(String categoryId) {}
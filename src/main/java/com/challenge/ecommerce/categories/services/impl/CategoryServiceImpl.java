@@ -1,22 +1,28 @@
 package com.challenge.ecommerce.categories.services.impl;
 
 import com.challenge.ecommerce.categories.controllers.dto.CategoryCreateDto;
+import com.challenge.ecommerce.categories.controllers.dto.CategoryParentResponse;
 import com.challenge.ecommerce.categories.controllers.dto.CategoryResponse;
 import com.challenge.ecommerce.categories.controllers.dto.CategoryUpdateDto;
 import com.challenge.ecommerce.categories.mappers.ICategoryMapper;
-import com.challenge.ecommerce.categories.models.CategoryEntity;
+import com.challenge.ecommerce.categories.repositories.CategoryClosureRepository;
 import com.challenge.ecommerce.categories.repositories.CategoryRepository;
 import com.challenge.ecommerce.categories.services.ICategoryService;
 import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
 import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
 import com.challenge.ecommerce.utils.ApiResponse;
 import com.challenge.ecommerce.utils.StringHelper;
+import com.challenge.ecommerce.utils.enums.ChildCategoryAction;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -29,6 +35,10 @@ public class CategoryServiceImpl implements ICategoryService {
 
   CategoryRepository categoryRepository;
   final ICategoryMapper mapper;
+  ApplicationEventPublisher eventPublisher;
+  CategoryClosureRepository categoryClosureRepository;
+  CategoryTreeCache categoryTree;
+  TransactionTemplate transactionTemplate;
 
   @Override
   public CategoryResponse addCategory(CategoryCreateDto request) {
@@ -49,23 +59,27 @@ public class CategoryServiceImpl implements ICategoryService {
     if (request.getImageUrl() != null && !request.getImageUrl().isEmpty()) {
       category.setCategory_img(request.getImageUrl());
     }
-    categoryRepository.save(category);
-    // mapper entity to dto
-    return mapper.categoryEntityToDto(category);
+    // the closure rows are written with the category; the tree is rebuilt once both committed
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          categoryRepository.saveAndFlush(category);
+          categoryClosureRepository.insertSelf(category.getId());
+          if (category.getParentCategory() != null) {
+            categoryClosureRepository.attachSubtree(
+                category.getId(), category.getParentCategory().getId());
+          }
+        });
+    var tree = categoryTree.rebuild();
+    eventPublisher.publishEvent(new CategoryChangedEvent(category.getId()));
+    return toResponse(tree.byId(category.getId()));
   }
 
+  // reads are served from the in-memory tree
   @Override
   public ApiResponse<?> getListCategories(Pageable pageable) {
-    var categories = categoryRepository.findAllByDeletedAtIsNull(pageable);
+    var categories = page(categoryTree.get().all(), pageable);
     List<CategoryResponse> categoryResponses =
-        categories.stream()
-            .map(
-                category -> {
-                  var resp = mapper.categoryEntityToDto(category);
-                  setListCategoryParent(resp, category);
-                  return resp;
-                })
-            .toList();
+        categories.stream().map(CategoryServiceImpl::toResponse).toList();
     return ApiResponse.builder()
         .totalPages(categories.getTotalPages())
         .result(categoryResponses)
@@ -78,18 +92,11 @@ public class CategoryServiceImpl implements ICategoryService {
 
   @Override
   public CategoryResponse getCategoryBySlug(String categorySlug) {
-    var category =
-        categoryRepository
-            .findBySlugAndDeletedAt(categorySlug)
-            .orElseThrow(() -> new CustomRuntimeException(ErrorCode.CATEGORY_NOT_FOUND));
-    var resp = mapper.categoryEntityToDto(category);
-    if (category.getParentCategory() != null) {
-      var parentCategory =
-          categoryRepository.findByIdAndDeletedAt(category.getParentCategory().getId());
-      resp.setParentCategory(mapper.categoryEntityToParentDto(parentCategory.get()));
+    var category = categoryTree.get().bySlug(categorySlug);
+    if (category == null) {
+      throw new CustomRuntimeException(ErrorCode.CATEGORY_NOT_FOUND);
     }
-    setListCategoryParent(resp, category);
-    return resp;
+    return toResponse(category);
   }
 
   @Override
@@ -103,6 +110,8 @@ public class CategoryServiceImpl implements ICategoryService {
         && !request.getName().equals(oldCategory.getName())) {
       throw new CustomRuntimeException(ErrorCode.CATEGORY_EXISTED);
     }
+    var oldParentId =
+        oldCategory.getParentCategory() == null ? null : oldCategory.getParentCategory().getId();
     var newCategory = mapper.updateCategoryFromDto(request, oldCategory);
     if (request.getParentCategoryId() != null && !request.getParentCategoryId().isEmpty()) {
       if (request.getParentCategoryId().equals(oldCategory.getId()))
@@ -111,8 +120,9 @@ public class CategoryServiceImpl implements ICategoryService {
           categoryRepository
               .findByIdAndDeletedAt(request.getParentCategoryId())
               .orElseThrow(() -> new CustomRuntimeException(ErrorCode.CATEGORY_PARENT_NOT_FOUND));
-      if (parentCategory.getParentCategory() != null
-          && parentCategory.getParentCategory().getId().equals(oldCategory.getId())) {
+      // the new parent must not sit anywhere below the category, which would close a cycle
+      if (categoryClosureRepository.existsByAncestorIdAndDescendantId(
+          oldCategory.getId(), parentCategory.getId())) {
         throw new CustomRuntimeException(ErrorCode.CATEGORY_PARENT_FAILED);
       }
       newCategory.setParentCategory(parentCategory);
@@ -121,32 +131,65 @@ public class CategoryServiceImpl implements ICategoryService {
     if (request.getImageUrl() != null && !request.getImageUrl().isEmpty()) {
       newCategory.setCategory_img(request.getImageUrl());
     }
-    categoryRepository.save(newCategory);
-    var resp = mapper.categoryEntityToDto(newCategory);
-    setListCategoryParent(resp, newCategory);
-    return resp;
+    var newParent = newCategory.getParentCategory();
+    var moved = newParent != null && !newParent.getId().equals(oldParentId);
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          categoryRepository.save(newCategory);
+          if (moved) {
+            categoryClosureRepository.detachSubtree(newCategory.getId());
+            categoryClosureRepository.attachSubtree(newCategory.getId(), newParent.getId());
+          }
+        });
+    var tree = categoryTree.rebuild();
+    eventPublisher.publishEvent(new CategoryChangedEvent(newCategory.getId()));
+    return toResponse(tree.byId(newCategory.getId()));
   }
 
+  // a fixed number of statements whatever the size of the subtree, and one rebuild of the tree
   @Override
-  public void deleteCategory(String categorySlug) {
+  public void deleteCategory(String categorySlug, ChildCategoryAction children) {
     var category =
         categoryRepository
             .findBySlugAndDeletedAt(categorySlug)
             .orElseThrow(() -> new CustomRuntimeException(ErrorCode.CATEGORY_NOT_FOUND));
-    category.setDeletedAt(LocalDateTime.now());
-    for (CategoryEntity child : category.getChildCategories()) {
-      child.setParentCategory(null);
-      categoryRepository.save(child);
-    }
-    categoryRepository.save(category);
+    var categoryId = category.getId();
+    var parentId =
+        category.getParentCategory() == null ? null : category.getParentCategory().getId();
+    var now = LocalDateTime.now();
+    category.setDeletedAt(now);
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          categoryRepository.save(category);
+          switch (children) {
+            case DETACH -> {
+              categoryRepository.moveChildren(categoryId, null, now);
+              categoryClosureRepository.detachSubtree(categoryId);
+              categoryClosureRepository.deleteLinksOf(categoryId);
+            }
+            case REPARENT -> {
+              categoryRepository.moveChildren(categoryId, parentId, now);
+              categoryClosureRepository.liftSubtree(categoryId);
+              categoryClosureRepository.deleteLinksOf(categoryId);
+            }
+            case DELETE -> {
+              // the closure rows find the subtree, so they go last
+              categoryRepository.softDeleteSubtree(categoryId, now);
+              categoryClosureRepository.deleteSubtree(categoryId);
+            }
+          }
+        });
+    categoryTree.rebuild();
+    eventPublisher.publishEvent(new CategoryChangedEvent(categoryId));
   }
 
   @Override
   public ApiResponse<?> getListCategoriesByParentSlug(
       Pageable pageable, String categoryParentSlug) {
-    var categories = categoryRepository.findByParentSlugAndDeletedAt(categoryParentSlug, pageable);
+    var parent = categoryTree.get().bySlug(categoryParentSlug);
+    var categories = page(parent == null ? List.of() : parent.children(), pageable);
     List<CategoryResponse> categoryResponses =
-        categories.stream().map(mapper::categoryEntityToDto).toList();
+        categories.stream().map(CategoryServiceImpl::toResponse).toList();
     return ApiResponse.builder()
         .totalPages(categories.getTotalPages())
         .result(categoryResponses)
@@ -157,12 +200,33 @@ public class CategoryServiceImpl implements ICategoryService {
         .build();
   }
 
-  void setListCategoryParent(CategoryResponse resp, CategoryEntity newCategory) {
-    if (newCategory.getChildCategories() != null) {
-      var listCategoryParent = categoryRepository.findByParentIdAndDeletedAt(newCategory.getId());
-      List<CategoryResponse> categoryResponses =
-          listCategoryParent.stream().map(mapper::categoryEntityToDto).toList();
-      resp.setChildCategories(categoryResponses);
-    }
+  // nodes are kept oldest first; newest first unless the page asks for ascending creation time
+  static Page<CategoryTree.Node> page(List<CategoryTree.Node> nodes, Pageable pageable) {
+    var order = pageable.getSort().getOrderFor("createdAt");
+    var sorted = order != null && order.isAscending() ? nodes : nodes.reversed();
+    var from = (int) Math.min(pageable.getOffset(), sorted.size());
+    var to = Math.min(from + pageable.getPageSize(), sorted.size());
+    return new PageImpl<>(sorted.subList(from, to), pageable, sorted.size());
+  }
+
+  // the category with its parent and its whole subtree
+  static CategoryResponse toResponse(CategoryTree.Node node) {
+    var parent = node.parent();
+    return CategoryResponse.builder()
+        .id(node.id())
+        .name(node.name())
+        .category_img(node.categoryImg())
+        .slug(node.slug())
+        .parentCategory(
+            parent == null
+                ? null
+                : CategoryParentResponse.builder()
+                    .id(parent.id())
+                    .name(parent.name())
+                    .category_img(parent.categoryImg())
+                    .slug(parent.slug())
+                    .build())
+        .childCategories(node.children().stream().map(CategoryServiceImpl::toResponse).toList())
+        .build();
   }
 }
@@ -0,0 +1,202 @@
+package com.challenge.ecommerce.categories.services.impl;
+
+import com.challenge.ecommerce.categories.repositories.CategoryRow;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Immutable snapshot of the active categories, indexed by id and by slug. Every node keeps its
+ * children and its path from the root; nodes are also laid out in pre-order, so the descendants
+ * of a node are one contiguous range and an ancestor test is two comparisons. A new snapshot is
+ * built for every change and swapped in whole.
+ */
+final class CategoryTree {
+
+  static final Comparator<Node> BY_CREATED =
+      Comparator.comparing(Node::createdAt).thenComparing(Node::id);
+
+  static final CategoryTree EMPTY = build(0, List.of());
+
+  static final class Node {
+    private final String id;
+    private final String name;
+    private final String categoryImg;
+    private final String slug;
+    private final LocalDateTime createdAt;
+    // set while the tree is built, never changed once it is published
+    private Node parent;
+    private List<Node> children = new ArrayList<>();
+    private List<Node> ancestors;
+    private int enter;
+    private int exit;
+
+    Node(CategoryRow row) {
+      this.id = row.id();
+      this.name = row.name();
+      this.categoryImg = row.categoryImg();
+      this.slug = row.slug();
+      this.createdAt = row.createdAt();
+    }
+
+    String id() {
+      return id;
+    }
+
+    String name() {
+      return name;
+    }
+
+    String categoryImg() {
+      return categoryImg;
+    }
+
+    String slug() {
+      return slug;
+    }
+
+    LocalDateTime createdAt() {
+      return createdAt;
+    }
+
+    Node parent() {
+      return parent;
+    }
+
+    // oldest first
+    List<Node> children() {
+      return children;
+    }
+
+    // from the root down to the parent
+    List<Node> ancestors() {
+      return ancestors;
+    }
+  }
+
+  private final long version;
+  private final Map<String, Node> byId;
+  private final Map<String, Node> bySlug;
+  private final List<Node> roots;
+  private final List<Node> preOrder;
+  private final List<Node> byCreated;
+
+  private CategoryTree(
+      long version,
+      Map<String, Node> byId,
+      Map<String, Node> bySlug,
+      List<Node> roots,
+      List<Node> preOrder) {
+    this.version = version;
+    this.byId = byId;
+    this.bySlug = bySlug;
+    this.roots = roots;
+    this.preOrder = preOrder;
+    var sorted = new ArrayList<>(preOrder);
+    sorted.sort(BY_CREATED);
+    this.byCreated = List.copyOf(sorted);
+  }
+
+  static CategoryTree build(long version, List<CategoryRow> rows) {
+    Map<String, Node> byId = new HashMap<>();
+    Map<String, String> parentIds = new HashMap<>();
+    for (var row : rows) {
+      byId.put(row.id(), new Node(row));
+      if (row.parentId() != null) {
+        parentIds.put(row.id(), row.parentId());
+      }
+    }
+    // a child of a deleted category is a root
+    List<Node> roots = new ArrayList<>();
+    for (var node : byId.values()) {
+      node.parent = byId.get(parentIds.get(node.id));
+      (node.parent == null ? roots : node.parent.children).add(node);
+    }
+    roots.sort(BY_CREATED);
+    byId.values().forEach(node -> node.children.sort(BY_CREATED));
+
+    List<Node> preOrder = new ArrayList<>(byId.size());
+    for (var root : roots) {
+      walk(root, preOrder);
+    }
+    // categories left over are on a parent cycle, which has no root: cut it at the oldest one
+    if (preOrder.size() < byId.size()) {
+      var orphans = byId.values().stream().filter(node -> node.ancestors == null);
+      for (var node : orphans.sorted(BY_CREATED).toList()) {
+        if (node.ancestors == null) {
+          node.parent.children.remove(node);
+          node.parent = null;
+          roots.add(node);
+          walk(node, preOrder);
+        }
+      }
+    }
+    // a subtree ends where its last child's subtree ends
+    for (int i = preOrder.size() - 1; i >= 0; i--) {
+      var node = preOrder.get(i);
+      node.exit = node.children.isEmpty() ? node.enter : node.children.getLast().exit;
+    }
+
+    Map<String, Node> bySlug = new HashMap<>();
+    for (var node : preOrder) {
+      node.children = List.copyOf(node.children);
+      bySlug.putIfAbsent(node.slug, node);
+    }
+    return new CategoryTree(
+        version, Map.copyOf(byId), Map.copyOf(bySlug), List.copyOf(roots), List.copyOf(preOrder));
+  }
+
+  // iterative, so a deep chain of categories cannot overflow the stack
+  private static void walk(Node root, List<Node> preOrder) {
+    Deque<Node> stack = new ArrayDeque<>();
+    root.ancestors = List.of();
+    stack.push(root);
+    while (!stack.isEmpty()) {
+      var node = stack.pop();
+      node.enter = preOrder.size();
+      preOrder.add(node);
+      List<Node> path = new ArrayList<>(node.ancestors);
+      path.add(node);
+      var childAncestors = List.copyOf(path);
+      for (var child : node.children.reversed()) {
+        child.ancestors = childAncestors;
+        stack.push(child);
+      }
+    }
+  }
+
+  long version() {
+    return version;
+  }
+
+  int size() {
+    return preOrder.size();
+  }
+
+  Node byId(String id) {
+    return id == null ? null : byId.get(id);
+  }
+
+  Node bySlug(String slug) {
+    return slug == null ? null : bySlug.get(slug);
+  }
+
+  List<Node> roots() {
+    return roots;
+  }
+
+  // every category, oldest first
+  List<Node> all() {
+    return byCreated;
+  }
+
+  /** Whether {@code node} sits below {@code ancestor}; a node is not its own descendant. */
+  boolean isDescendant(Node node, Node ancestor) {
+    return node != ancestor && ancestor.enter <= node.enter && node.exit <= ancestor.exit;
+  }
+
+  // the whole subtree below the node, in pre-order
+  List<Node> descendants(Node node) {
+    return preOrder.subList(node.enter + 1, node.exit + 1);
+  }
+}
@@ -0,0 +1,67 @@
+package com.challenge.ecommerce.categories.services.impl;
+
+import com.challenge.ecommerce.categories.repositories.CategoryRepository;
+import com.challenge.ecommerce.categories.repositories.CategoryTableVersion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the current {@link CategoryTree}, so category reads run no query. The category service
+ * rebuilds it after each of its writes; writes made by other instances are noticed by polling a
+ * cheap version of the table and rebuilding when it moved.
+ */
+@Component
+@Slf4j
+class CategoryTreeCache {
+
+  private final CategoryRepository categoryRepository;
+
+  private volatile CategoryTree tree;
+  // guarded by this
+  private CategoryTableVersion builtFrom;
+
+  CategoryTreeCache(CategoryRepository categoryRepository) {
+    this.categoryRepository = categoryRepository;
+  }
+
+  CategoryTree get() {
+    var current = tree;
+    return current != null ? current : refresh(false);
+  }
+
+  // after a write of this instance, whatever the table version says
+  CategoryTree rebuild() {
+    return refresh(true);
+  }
+
+  @Scheduled(fixedDelayString = "${app.categories.tree-refresh-millis}")
+  public void refreshIfChanged() {
+    try {
+      refresh(false);
+    } catch (RuntimeException e) {
+      log.error("Failed to refresh the category tree: {}", e.getMessage());
+    }
+  }
+
+  // serialized, so a rebuild never replaces the tree with one read before it
+  synchronized CategoryTree refresh(boolean force) {
+    var version = categoryRepository.findTableVersion();
+    if (!force && tree != null && version.equals(builtFrom)) {
+      return tree;
+    }
+    var start = System.nanoTime();
+    var previous = tree == null ? 0 : tree.version();
+    var rebuilt = CategoryTree.build(previous + 1, categoryRepository.findActiveRows());
+    tree = rebuilt;
+    builtFrom = version;
+    log.debug(
+        "Built category tree v{} with {} categories in {} ms",
+        rebuilt.version(),
+        rebuilt.size(),
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    return rebuilt;
+  }
+}
@@ -4,10 +4,12 @@ package com.challenge.ecommerce.configs;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@ConditionalOnProperty(name = "app.files.storage", havingValue = "cloudinary", matchIfMissing = true)
 public class CloudinaryConfig {
   @Value("${cloudinary.cloud-name}")
   private String cloudName;
@@ -1,39 +1,83 @@
 package com.challenge.ecommerce.configs.security;
 
-import com.challenge.ecommerce.authentication.controllers.dtos.IntrospectRequest;
-import com.challenge.ecommerce.authentication.services.IAuthenticationService;
-import lombok.experimental.NonFinal;
+import com.challenge.ecommerce.utils.cache.BoundedLocalCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
 import org.springframework.security.oauth2.jwt.*;
 import org.springframework.stereotype.Component;
+
 import javax.crypto.spec.SecretKeySpec;
-import java.util.Objects;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 
+/**
+ * Verifies access tokens once with Nimbus and keeps the decoded {@link Jwt} in a bounded cache
+ * keyed by the SHA-256 digest of the token, until the token expires or the cache ttl elapses.
+ */
 @Component
 public class CustomJwtDecoder implements JwtDecoder {
-  @Value("${jwt.signerKeyAccess}")
-  @NonFinal
-  String SIGNER_KEY_ACCESS;
 
-  private final IAuthenticationService authenticationService;
+  private final NimbusJwtDecoder nimbusJwtDecoder;
+  private final BoundedLocalCache<String, Jwt> cache;
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Timer verification;
 
-  private NimbusJwtDecoder nimbusJwtDecoder = null;
+  public CustomJwtDecoder(
+      @Value("${jwt.signerKeyAccess}") String signerKeyAccess,
+      @Value("${app.security.jwt-cache.max-size}") int cacheMaxSize,
+      @Value("${app.security.jwt-cache.ttl-seconds}") long cacheTtlSeconds,
+      MeterRegistry meterRegistry) {
+    SecretKeySpec secretKeySpec = new SecretKeySpec(signerKeyAccess.getBytes(), "HS512");
+    this.nimbusJwtDecoder =
+        NimbusJwtDecoder.withSecretKey(secretKeySpec).macAlgorithm(MacAlgorithm.HS512).build();
+    // expired tokens are rejected without clock skew, as the former introspection did
+    this.nimbusJwtDecoder.setJwtValidator(new JwtTimestampValidator(Duration.ZERO));
+    this.cache = new BoundedLocalCache<>(cacheMaxSize, Duration.ofSeconds(cacheTtlSeconds));
 
-  public CustomJwtDecoder(IAuthenticationService authenticationService) {
-    this.authenticationService = authenticationService;
+    this.hits = meterRegistry.counter("security.jwt.cache.requests", "result", "hit");
+    this.misses = meterRegistry.counter("security.jwt.cache.requests", "result", "miss");
+    this.verification = meterRegistry.timer("security.jwt.verification");
+    Gauge.builder("security.jwt.cache.size", cache, BoundedLocalCache::size)
+        .register(meterRegistry);
   }
 
   @Override
   public Jwt decode(String token) {
-    var response =
-        authenticationService.introspect(IntrospectRequest.builder().accessToken(token).build());
-    if (!response.isValid()) throw new BadJwtException("Invalid token");
-    if (Objects.isNull(nimbusJwtDecoder)) {
-      SecretKeySpec secretKeySpec = new SecretKeySpec(SIGNER_KEY_ACCESS.getBytes(), "HS512");
-      nimbusJwtDecoder =
-          NimbusJwtDecoder.withSecretKey(secretKeySpec).macAlgorithm(MacAlgorithm.HS512).build();
+    var key = digest(token);
+    var cached = cache.get(key);
+    if (cached != null && isNotExpired(cached)) {
+      hits.increment();
+      return cached;
+    }
+    misses.increment();
+    var jwt = verification.record(() -> nimbusJwtDecoder.decode(token));
+    if (jwt.getExpiresAt() != null) {
+      cache.put(key, jwt, Duration.between(Instant.now(), jwt.getExpiresAt()));
+    }
+    return jwt;
+  }
+
+  static boolean isNotExpired(Jwt jwt) {
+    return jwt.getExpiresAt() == null || Instant.now().isBefore(jwt.getExpiresAt());
+  }
+
+  static String digest(String token) {
+    try {
+      var hash =
+          MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(hash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
     }
-    return nimbusJwtDecoder.decode(token);
   }
 }
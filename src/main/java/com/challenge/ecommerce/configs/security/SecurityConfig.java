@@ -30,16 +30,25 @@ public class SecurityConfig {
   static final String[] PUBLIC_POST_ENDPOINT = {
     "/api/auth/signup", "/api/auth/login", "/api/auth/refresh"
   };
+  static final String[] PUBLIC_GET_ENDPOINT = {"/api/files/*"};
   static final String[] PRIVATE_PUT_ENDPOINT = {"/api/users/me", "/api/address/{id}"};
   static final String[] PRIVATE_GET_ENDPOINT = {
     "/api/users/me", "/api/location/**", "/api/address/{id}", "/api/address"
   };
-  static final String[] PRIVATE_ADMIN_POST_ENDPOINT = {"/api/users/register"};
-  static final String[] PRIVATE_ADMIN_PUT_ENDPOINT = {"/api/users/*"};
+  static final String[] PRIVATE_ADMIN_POST_ENDPOINT = {
+    "/api/users/register", "/api/location/snapshot", "/api/variants/*/hot-stock"
+  };
+  static final String[] PRIVATE_ADMIN_PUT_ENDPOINT = {"/api/users/*", "/api/orders/*/status"};
   static final String[] PRIVATE_ADMIN_GET_ENDPOINT = {"/api/users/*", "/api/users/{id}/address"};
-  static final String[] PRIVATE_ADMIN_DELETE_ENDPOINT = {"/api/users", "/api/address/{id}"};
-  static final String[] PRIVATE_DELETE_ENDPOINT = {"/api/address/users/{id}"};
-  static final String[] PRIVATE_POST_ENDPOINT = {"/api/address"};
+  static final String[] PRIVATE_ADMIN_DELETE_ENDPOINT = {
+    "/api/users", "/api/address/{id}", "/api/variants/*/hot-stock"
+  };
+  static final String[] PRIVATE_DELETE_ENDPOINT = {
+    "/api/address/users/{id}", "/api/products/*/favorites"
+  };
+  static final String[] PRIVATE_POST_ENDPOINT = {
+    "/api/address", "/api/orders", "/api/products/*/favorites"
+  };
   static final String[] SWAGGER_WHITELIST = {
     "/swagger-ui/**", "/v3/api-docs/**", "/swagger-resources/**", "/swagger-resources"
   };
@@ -51,6 +60,8 @@ public class SecurityConfig {
             request
                 .requestMatchers(HttpMethod.POST, PUBLIC_POST_ENDPOINT)
                 .permitAll()
+                .requestMatchers(HttpMethod.GET, PUBLIC_GET_ENDPOINT)
+                .permitAll()
                 .requestMatchers(HttpMethod.POST, PRIVATE_POST_ENDPOINT)
                 .hasAnyAuthority(Role.ADMIN.name(), Role.USER.name())
                 .requestMatchers(HttpMethod.DELETE, PRIVATE_DELETE_ENDPOINT)
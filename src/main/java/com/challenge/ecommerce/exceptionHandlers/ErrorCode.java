@@ -10,6 +10,8 @@ public enum ErrorCode {
   REFRESH_TOKEN_FAILED("Refresh token failed.", HttpStatus.BAD_REQUEST),
   TOKEN_CREATION_FAILED("Token creation failed: bad request", HttpStatus.BAD_REQUEST),
   REFRESH_TOKEN_INVALID("Refresh token is invalid or expired.", HttpStatus.UNAUTHORIZED),
+  REFRESH_TOKEN_REUSED(
+      "Refresh token was already used, please log in again.", HttpStatus.UNAUTHORIZED),
   // user detail error .
   USER_NOT_FOUND("User not found !", HttpStatus.NOT_FOUND),
   USERNAME_ALREADY_EXISTS("User Name already exists!", HttpStatus.BAD_REQUEST),
@@ -26,7 +28,16 @@ public enum ErrorCode {
       "New password should not be the same as the old password", HttpStatus.BAD_REQUEST),
   // another error
   URL_NOT_EXIST("The requested URL does not exist.", HttpStatus.NOT_FOUND),
+  LOCATION_NOT_READY(
+      "Location data is still loading, please try again later", HttpStatus.SERVICE_UNAVAILABLE),
+  LOCATION_API_UNAVAILABLE("Location API returned no data", HttpStatus.BAD_GATEWAY),
+  LOCATION_SNAPSHOT_FAILED("Failed to write location snapshot", HttpStatus.INTERNAL_SERVER_ERROR),
+  SEARCH_INDEX_NOT_READY(
+      "Product search is still loading, please try again later", HttpStatus.SERVICE_UNAVAILABLE),
+  SERVICE_BUSY("Server is busy, please try again later", HttpStatus.SERVICE_UNAVAILABLE),
   PAGE_SIZE_POSITIVE("The page size must be greater than 0", HttpStatus.BAD_REQUEST),
+  PAGE_NUMBER_NEGATIVE("The page number must not be negative", HttpStatus.BAD_REQUEST),
+  INVALID_CURSOR("The page cursor is invalid", HttpStatus.BAD_REQUEST),
   CATEGORY_EXISTED("Category name already existed", HttpStatus.BAD_REQUEST),
   CATEGORY_NOT_FOUND("Category not found", HttpStatus.NOT_FOUND),
   SET_IMAGE_NOT_SUCCESS("Failed to upload category image", HttpStatus.BAD_REQUEST),
@@ -36,6 +47,7 @@ public enum ErrorCode {
   IMAGE_NOT_FOUND("Image not found", HttpStatus.NOT_FOUND),
   SORT_NOT_SUPPORTED("Sort not supported", HttpStatus.BAD_REQUEST),
   FAILED_UPLOAD("Failed to upload image", HttpStatus.BAD_REQUEST),
+  FILE_TOO_LARGE("The file is larger than the upload limit", HttpStatus.PAYLOAD_TOO_LARGE),
   FAILED_DELETE("Failed to delete image", HttpStatus.BAD_REQUEST),
   CATEGORY_PARENT_NOT_FOUND("Category parent not found", HttpStatus.NOT_FOUND),
   CATEGORY_PARENT_FAILED_ITSELF("Category parent must not itself", HttpStatus.BAD_REQUEST),
@@ -64,12 +76,19 @@ public enum ErrorCode {
   ORDER_ITEM_ALREADY_REVIEWED("You have already reviewed this order item", HttpStatus.BAD_REQUEST),
   // order
   ORDER_NOT_FOUND("Order not found", HttpStatus.NOT_FOUND),
+  INVALID_ORDER_QUANTITY(
+      "Quantity of a variant must be between 1 and 1000", HttpStatus.BAD_REQUEST),
+  INVALID_ORDER_STATUS_TRANSITION(
+      "The order cannot move from its current status to this one", HttpStatus.CONFLICT),
+  OUT_OF_STOCK("Not enough stock for the requested quantity", HttpStatus.CONFLICT),
+  HOT_STOCK_DISABLED("Hot stock inventory mode is disabled", HttpStatus.BAD_REQUEST),
   NO_PERMISSION_TO_REVIEW("You do not have permission to review", HttpStatus.FORBIDDEN),
   // review
   REVIEW_NOT_FOUND("Review not found", HttpStatus.NOT_FOUND),
   EMPTY_UPDATE_REVIEW_CONTENT("Review content cannot be empty!", HttpStatus.BAD_REQUEST),
   NOT_YOUR_REVIEW("This review does not belong to you!", HttpStatus.FORBIDDEN),
   PRODUCT_NOT_FOUND("Product not found", HttpStatus.NOT_FOUND),
+  FAVORITE_NOT_FOUND("This product is not in your favorites", HttpStatus.NOT_FOUND),
   DESCRIPTION_CANNOT_BE_NULL("Description cannot be null", HttpStatus.BAD_REQUEST),
   INVALID_OPTION_VALUE_FOR_OPTION("Invalid option value for option", HttpStatus.BAD_REQUEST),
   AVATAR_PRODUCT_IMAGE_ONLY_ONE("Avatar product image only one", HttpStatus.BAD_REQUEST),
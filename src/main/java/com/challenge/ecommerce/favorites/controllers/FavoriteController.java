@@ -0,0 +1,30 @@
+package com.challenge.ecommerce.favorites.controllers;
+
+import com.challenge.ecommerce.favorites.services.IFavoriteService;
+import com.challenge.ecommerce.utils.ApiResponse;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/products/{productSlug}/favorites")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class FavoriteController {
+
+  IFavoriteService favoriteService;
+
+  @PostMapping
+  public ResponseEntity<?> addFavorite(@PathVariable String productSlug) {
+    favoriteService.addFavorite(productSlug);
+    return ResponseEntity.ok(ApiResponse.builder().message("Add favorite successfully").build());
+  }
+
+  @DeleteMapping
+  public ResponseEntity<?> removeFavorite(@PathVariable String productSlug) {
+    favoriteService.removeFavorite(productSlug);
+    return ResponseEntity.ok(ApiResponse.builder().message("Remove favorite successfully").build());
+  }
+}
@@ -0,0 +1,37 @@
+package com.challenge.ecommerce.favorites.repositories;
+
+import com.challenge.ecommerce.favorites.models.FavoriteEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+// each method reports whether it changed the favorite, so concurrent requests count it once
+@Repository
+public interface FavoriteRepository extends JpaRepository<FavoriteEntity, String> {
+  @Modifying
+  @Query(
+      value =
+          "INSERT IGNORE INTO favorites (id, created_at, updated_at, user_id, product_id) VALUES (UUID(), NOW(6), NOW(6), :userId, :productId)",
+      nativeQuery = true)
+  int insertIgnore(@Param("userId") String userId, @Param("productId") String productId);
+
+  @Modifying
+  @Query(
+      "UPDATE favorites f SET f.deletedAt = NULL, f.updatedAt = :now WHERE f.user.id = :userId AND f.product.id = :productId AND f.deletedAt IS NOT NULL")
+  int restore(
+      @Param("userId") String userId,
+      @Param("productId") String productId,
+      @Param("now") LocalDateTime now);
+
+  @Modifying
+  @Query(
+      "UPDATE favorites f SET f.deletedAt = :now, f.updatedAt = :now WHERE f.user.id = :userId AND f.product.id = :productId AND f.deletedAt IS NULL")
+  int softDelete(
+      @Param("userId") String userId,
+      @Param("productId") String productId,
+      @Param("now") LocalDateTime now);
+}
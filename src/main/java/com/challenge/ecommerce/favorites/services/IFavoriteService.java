@@ -0,0 +1,7 @@
+package com.challenge.ecommerce.favorites.services;
+
+public interface IFavoriteService {
+  void addFavorite(String productSlug);
+
+  void removeFavorite(String productSlug);
+}
@@ -0,0 +1,65 @@
+package com.challenge.ecommerce.favorites.services.impl;
+
+import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
+import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
+import com.challenge.ecommerce.favorites.repositories.FavoriteRepository;
+import com.challenge.ecommerce.favorites.services.IFavoriteService;
+import com.challenge.ecommerce.products.models.ProductEntity;
+import com.challenge.ecommerce.products.repositories.ProductRepository;
+import com.challenge.ecommerce.products.services.IProductStatsService;
+import com.challenge.ecommerce.users.models.UserEntity;
+import com.challenge.ecommerce.users.repositories.UserRepository;
+import com.challenge.ecommerce.utils.AuthUtils;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class FavoriteServiceImpl implements IFavoriteService {
+
+  FavoriteRepository favoriteRepository;
+  ProductRepository productRepository;
+  UserRepository userRepository;
+  IProductStatsService productStatsService;
+
+  // adding a favorite twice is a no-op
+  @Transactional
+  @Override
+  public void addFavorite(String productSlug) {
+    var user = getCurrentUser();
+    var product = getProduct(productSlug);
+    if (favoriteRepository.insertIgnore(user.getId(), product.getId()) == 1
+        || favoriteRepository.restore(user.getId(), product.getId(), LocalDateTime.now()) == 1) {
+      productStatsService.addFavorites(product.getId(), 1);
+    }
+  }
+
+  @Transactional
+  @Override
+  public void removeFavorite(String productSlug) {
+    var user = getCurrentUser();
+    var product = getProduct(productSlug);
+    if (favoriteRepository.softDelete(user.getId(), product.getId(), LocalDateTime.now()) == 0) {
+      throw new CustomRuntimeException(ErrorCode.FAVORITE_NOT_FOUND);
+    }
+    productStatsService.addFavorites(product.getId(), -1);
+  }
+
+  UserEntity getCurrentUser() {
+    return userRepository
+        .findByEmailAndNotDeleted(AuthUtils.getUserCurrent())
+        .orElseThrow(() -> new CustomRuntimeException(ErrorCode.USER_NOT_FOUND));
+  }
+
+  ProductEntity getProduct(String productSlug) {
+    return productRepository
+        .findBySlugAndDeletedAtIsNull(productSlug)
+        .orElseThrow(() -> new CustomRuntimeException(ErrorCode.PRODUCT_NOT_FOUND));
+  }
+}
@@ -8,14 +8,21 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.nio.channels.Channels;
+
 @RestController
 @RequestMapping("/api/files")
 @RequiredArgsConstructor
@@ -33,4 +40,15 @@ public class FileController {
     var resp = ApiResponse.builder().result(imageUrl).message("Update Image successfully").build();
     return ResponseEntity.ok(resp);
   }
+
+  // only for a backend that serves its own files; names are content hashes, so never stale
+  @GetMapping("/{name}")
+  public void getFile(@PathVariable String name, HttpServletResponse response) throws IOException {
+    try (var file = fileService.openFile(name)) {
+      response.setContentType(file.contentType());
+      response.setContentLengthLong(file.size());
+      response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable");
+      file.transferTo(Channels.newChannel(response.getOutputStream()));
+    }
+  }
 }
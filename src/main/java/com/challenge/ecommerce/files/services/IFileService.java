@@ -4,4 +4,6 @@ import org.springframework.web.multipart.MultipartFile;
 
 public interface IFileService {
     String uploadFile(MultipartFile file);
+
+    StoredFile openFile(String name);
 }
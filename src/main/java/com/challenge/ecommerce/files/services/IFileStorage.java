@@ -0,0 +1,20 @@
+package com.challenge.ecommerce.files.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Where uploaded files end up. The backend is picked with {@code app.files.storage}: {@code
+ * cloudinary} (the default) or {@code local}.
+ */
+public interface IFileStorage {
+
+  /** Reads the content to its end and returns the public url of the stored file. */
+  String store(InputStream content, String extension) throws IOException;
+
+  /**
+   * Opens a file this backend serves itself, by the last segment of its url; null when there is
+   * no such file or the files are served by someone else.
+   */
+  StoredFile open(String name) throws IOException;
+}
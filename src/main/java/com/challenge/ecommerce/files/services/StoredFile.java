@@ -0,0 +1,27 @@
+package com.challenge.ecommerce.files.services;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+public record StoredFile(FileChannel channel, long size, String contentType) implements Closeable {
+
+  // lets the kernel copy straight from the page cache when the target allows it
+  public long transferTo(WritableByteChannel target) throws IOException {
+    long position = 0;
+    while (position < size) {
+      var sent = channel.transferTo(position, size - position, target);
+      if (sent <= 0) {
+        break;
+      }
+      position += sent;
+    }
+    return position;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
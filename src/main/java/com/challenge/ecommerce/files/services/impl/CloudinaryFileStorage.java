@@ -0,0 +1,36 @@
+package com.challenge.ecommerce.files.services.impl;
+
+import com.challenge.ecommerce.files.services.IFileStorage;
+import com.challenge.ecommerce.files.services.StoredFile;
+import com.challenge.ecommerce.utils.CloudUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/** Uploads to Cloudinary in chunks; the files are served by Cloudinary at the returned url. */
+@Service
+@ConditionalOnProperty(name = "app.files.storage", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryFileStorage implements IFileStorage {
+
+  private final CloudUtils cloudUtils;
+  private final int chunkBytes;
+
+  public CloudinaryFileStorage(
+      CloudUtils cloudUtils, @Value("${app.files.cloudinary.chunk-bytes}") int chunkBytes) {
+    this.cloudUtils = cloudUtils;
+    this.chunkBytes = chunkBytes;
+  }
+
+  @Override
+  public String store(InputStream content, String extension) throws IOException {
+    return cloudUtils.uploadStream(content, chunkBytes);
+  }
+
+  @Override
+  public StoredFile open(String name) {
+    return null;
+  }
+}
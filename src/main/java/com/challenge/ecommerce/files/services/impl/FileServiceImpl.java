@@ -3,24 +3,61 @@ package com.challenge.ecommerce.files.services.impl;
 import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
 import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
 import com.challenge.ecommerce.files.services.IFileService;
-import com.challenge.ecommerce.utils.CloudUtils;
-import lombok.AccessLevel;
-import lombok.RequiredArgsConstructor;
-import lombok.experimental.FieldDefaults;
+import com.challenge.ecommerce.files.services.IFileStorage;
+import com.challenge.ecommerce.files.services.StoredFile;
+import com.challenge.ecommerce.utils.concurrent.BoundedVirtualThreadExecutor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Streams uploads from the multipart part to the {@link IFileStorage} backend, on a bounded
+ * virtual-thread executor, so an upload holds at most one chunk in memory and a burst of uploads
+ * fails fast with 503 instead of queueing without limit. The size limit is enforced on the bytes
+ * actually read.
+ */
 @Service
-@RequiredArgsConstructor
-@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Slf4j
 public class FileServiceImpl implements IFileService {
 
-  CloudUtils cloudUtils;
+  private final IFileStorage fileStorage;
+  private final BoundedVirtualThreadExecutor executor;
+  private final long maxBytes;
+
+  private final Counter uploadedBytes;
+  private final AtomicLong inFlightBytes = new AtomicLong();
+
+  public FileServiceImpl(
+      IFileStorage fileStorage,
+      MeterRegistry meterRegistry,
+      @Value("${app.files.upload.max-bytes}") long maxBytes,
+      @Value("${app.files.upload.max-concurrency}") int maxConcurrency,
+      @Value("${app.files.upload.queue-capacity}") int queueCapacity,
+      @Value("${app.files.upload.deadline-millis}") long deadlineMillis) {
+    this.fileStorage = fileStorage;
+    this.maxBytes = maxBytes;
+    this.executor =
+        new BoundedVirtualThreadExecutor(
+            "files.upload",
+            maxConcurrency,
+            queueCapacity,
+            Duration.ofMillis(deadlineMillis),
+            meterRegistry);
+    this.uploadedBytes = meterRegistry.counter("files.upload.bytes");
+    Gauge.builder("files.upload.in_flight.bytes", inFlightBytes, AtomicLong::get)
+        .register(meterRegistry);
+  }
 
   @Override
   public String uploadFile(MultipartFile file) {
@@ -32,13 +69,63 @@ public class FileServiceImpl implements IFileService {
         && !fileName.endsWith(".jfif")) {
       throw new CustomRuntimeException(ErrorCode.IMAGE_NOT_SUPPORT);
     }
-
-    CompletableFuture<String> uploadFuture = cloudUtils.uploadFileAsync(file);
+    // declared by the client, so only a shortcut: the stream enforces the limit
+    if (file.getSize() > maxBytes) {
+      throw new CustomRuntimeException(ErrorCode.FILE_TOO_LARGE);
+    }
 
     try {
-      return uploadFuture.get();
-    } catch (Exception e) {
+      return executor.call(() -> stream(file));
+    } catch (RejectedExecutionException e) {
+      log.warn("Upload of {} rejected: {}", fileName, e.getMessage());
+      throw new CustomRuntimeException(ErrorCode.SERVICE_BUSY);
+    }
+  }
+
+  String stream(MultipartFile file) {
+    SizeLimitedInputStream input = null;
+    try (var part = file.getInputStream()) {
+      input = new SizeLimitedInputStream(part, maxBytes, this::read);
+      return fileStorage.store(input, extensionOf(file.getOriginalFilename()));
+    } catch (IOException | RuntimeException e) {
+      if (input != null && input.exceeded()) {
+        throw new CustomRuntimeException(ErrorCode.FILE_TOO_LARGE);
+      }
+      log.error("Failed to upload {}: {}", file.getOriginalFilename(), e.getMessage());
       throw new CustomRuntimeException(ErrorCode.SET_IMAGE_NOT_SUCCESS);
+    } finally {
+      if (input != null) {
+        inFlightBytes.addAndGet(-input.count());
+      }
     }
   }
+
+  @Override
+  public StoredFile openFile(String name) {
+    try {
+      var file = fileStorage.open(name);
+      if (file == null) {
+        throw new CustomRuntimeException(ErrorCode.IMAGE_NOT_FOUND);
+      }
+      return file;
+    } catch (IOException e) {
+      log.error("Failed to open {}: {}", name, e.getMessage());
+      throw new CustomRuntimeException(ErrorCode.IMAGE_NOT_FOUND);
+    }
+  }
+
+  static String extensionOf(String fileName) {
+    return fileName.substring(fileName.lastIndexOf('.') + 1);
+  }
+
+  // counted in flight until the upload they belong to ends
+  void read(long bytes) {
+    uploadedBytes.increment(bytes);
+    inFlightBytes.addAndGet(bytes);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.close();
+  }
 }
@@ -0,0 +1,114 @@
+package com.challenge.ecommerce.files.services.impl;
+
+import com.challenge.ecommerce.files.services.IFileStorage;
+import com.challenge.ecommerce.files.services.StoredFile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps files on the local disk under their SHA-256, {@code root/ab/ab12...ef.png}, so the same
+ * image uploaded twice is stored once and a stored file never changes. Uploads are written with
+ * {@link FileChannel#transferFrom} to a temporary file and moved into place once complete; files
+ * are served with {@link FileChannel#transferTo}.
+ */
+@Service
+@ConditionalOnProperty(name = "app.files.storage", havingValue = "local")
+public class LocalFileStorage implements IFileStorage {
+
+  static final long TRANSFER_BYTES = 1 << 20;
+  static final Pattern NAME = Pattern.compile("[0-9a-f]{64}\\.[a-z]+");
+  static final Map<String, String> CONTENT_TYPES =
+      Map.of(
+          "jpg", "image/jpeg",
+          "jfif", "image/jpeg",
+          "png", "image/png",
+          "tiff", "image/tiff",
+          "webp", "image/webp");
+
+  private final Path root;
+  private final String publicUrl;
+
+  public LocalFileStorage(
+      @Value("${app.files.local.root}") String root,
+      @Value("${app.files.local.public-url}") String publicUrl)
+      throws IOException {
+    this.root = Files.createDirectories(Path.of(root).toAbsolutePath());
+    this.publicUrl = publicUrl.endsWith("/") ? publicUrl : publicUrl + "/";
+  }
+
+  @Override
+  public String store(InputStream content, String extension) throws IOException {
+    var digest = sha256();
+    var tmp = Files.createTempFile(root, "upload-", ".tmp");
+    try {
+      try (var source = Channels.newChannel(new DigestInputStream(content, digest));
+          var target = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+        long position = 0;
+        long written;
+        // a blocking source only returns 0 at its end
+        while ((written = target.transferFrom(source, position, TRANSFER_BYTES)) > 0) {
+          position += written;
+        }
+        target.force(true);
+      }
+      var name = HexFormat.of().formatHex(digest.digest()) + "." + extension;
+      var path = pathOf(name);
+      if (!Files.exists(path)) {
+        Files.createDirectories(path.getParent());
+        // same name, same bytes: losing a race to a concurrent upload of the file is harmless
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      }
+      return publicUrl + name;
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  @Override
+  public StoredFile open(String name) throws IOException {
+    if (name == null || !NAME.matcher(name).matches()) {
+      return null;
+    }
+    var contentType = CONTENT_TYPES.get(name.substring(name.lastIndexOf('.') + 1));
+    if (contentType == null) {
+      return null;
+    }
+    FileChannel channel;
+    try {
+      channel = FileChannel.open(pathOf(name), StandardOpenOption.READ);
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+    try {
+      return new StoredFile(channel, channel.size(), contentType);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  Path pathOf(String name) {
+    return root.resolve(name.substring(0, 2)).resolve(name);
+  }
+
+  static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.challenge.ecommerce.files.services.impl;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * Counts the bytes read through it and fails the read that goes past {@code maxBytes}, so an
+ * upload is cut off while it streams instead of after it was fully received. Every successful
+ * read is reported to {@code onRead}.
+ */
+class SizeLimitedInputStream extends FilterInputStream {
+
+  static class LimitExceededException extends IOException {
+    LimitExceededException(long maxBytes) {
+      super("Upload is larger than " + maxBytes + " bytes");
+    }
+  }
+
+  private final long maxBytes;
+  private final LongConsumer onRead;
+  private long count;
+  private boolean exceeded;
+
+  SizeLimitedInputStream(InputStream in, long maxBytes, LongConsumer onRead) {
+    super(in);
+    this.maxBytes = maxBytes;
+    this.onRead = onRead;
+  }
+
+  @Override
+  public int read() throws IOException {
+    var b = super.read();
+    if (b != -1) {
+      counted(1);
+    }
+    return b;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    var n = super.read(b, off, len);
+    if (n > 0) {
+      counted(n);
+    }
+    return n;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    var skipped = super.skip(n);
+    if (skipped > 0) {
+      counted(skipped);
+    }
+    return skipped;
+  }
+
+  // marking would let the same bytes be counted twice
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+
+  @Override
+  public synchronized void mark(int readlimit) {}
+
+  @Override
+  public synchronized void reset() throws IOException {
+    throw new IOException("mark/reset not supported");
+  }
+
+  private void counted(long n) throws LimitExceededException {
+    count += n;
+    onRead.accept(n);
+    if (count > maxBytes) {
+      exceeded = true;
+      throw new LimitExceededException(maxBytes);
+    }
+  }
+
+  long count() {
+    return count;
+  }
+
+  // the storage client may wrap the exception, so the flag is what callers check
+  boolean exceeded() {
+    return exceeded;
+  }
+}
@@ -0,0 +1,39 @@
+package com.challenge.ecommerce.orders.controllers;
+
+import com.challenge.ecommerce.orders.controllers.dto.OrderCreateDto;
+import com.challenge.ecommerce.orders.controllers.dto.OrderStatusUpdateRequest;
+import com.challenge.ecommerce.orders.services.IOrderService;
+import com.challenge.ecommerce.utils.ApiResponse;
+import jakarta.validation.Valid;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/orders")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class OrderController {
+
+  IOrderService orderService;
+
+  @PostMapping
+  public ResponseEntity<?> checkout(@RequestBody @Valid OrderCreateDto request) {
+    var order = orderService.checkout(request);
+    var resp = ApiResponse.builder().result(order).message("Create order successfully").build();
+    return ResponseEntity.ok(resp);
+  }
+
+  @PutMapping("/{orderId}/status")
+  public ResponseEntity<?> updateStatus(
+      @PathVariable String orderId, @RequestBody @Valid OrderStatusUpdateRequest request) {
+    var order = orderService.updateStatus(orderId, request);
+    var resp =
+        ApiResponse.builder().result(order).message("Update order status successfully").build();
+    return ResponseEntity.ok(resp);
+  }
+}
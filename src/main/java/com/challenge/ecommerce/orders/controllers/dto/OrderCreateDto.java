@@ -0,0 +1,29 @@
+package com.challenge.ecommerce.orders.controllers.dto;
+
+import com.challenge.ecommerce.utils.enums.PaymentMethod;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OrderCreateDto {
+  @NotBlank(message = "Delivery address Id must not be null")
+  String deliveryAddressId;
+
+  @NotNull(message = "Payment method must not be null")
+  PaymentMethod paymentMethod;
+
+  @NotEmpty(message = "Order must contain at least one item")
+  @Valid
+  List<OrderItemCreateDto> items;
+}
@@ -0,0 +1,26 @@
+package com.challenge.ecommerce.orders.controllers.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OrderItemCreateDto {
+  public static final int MAX_QUANTITY = 1000;
+
+  @NotBlank(message = "Variant Id must not be null")
+  String variantId;
+
+  @NotNull(message = "Quantity must not be null")
+  @Min(value = 1, message = "Quantity must be at least 1")
+  @Max(value = MAX_QUANTITY, message = "Quantity must be at most 1000")
+  Integer quantity;
+}
@@ -0,0 +1,24 @@
+package com.challenge.ecommerce.orders.controllers.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OrderItemResponse {
+  String id;
+
+  String variantId;
+
+  String skuId;
+
+  Integer quantity;
+
+  BigDecimal itemTotalPrice;
+}
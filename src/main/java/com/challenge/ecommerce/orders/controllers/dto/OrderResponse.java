@@ -0,0 +1,35 @@
+package com.challenge.ecommerce.orders.controllers.dto;
+
+import com.challenge.ecommerce.utils.enums.OrderStatus;
+import com.challenge.ecommerce.utils.enums.PaymentMethod;
+import com.challenge.ecommerce.utils.enums.PaymentStatus;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OrderResponse {
+  String id;
+
+  OrderStatus status;
+
+  PaymentMethod paymentMethod;
+
+  PaymentStatus paymentStatus;
+
+  BigDecimal totalPrice;
+
+  String deliveryAddressId;
+
+  LocalDateTime createdAt;
+
+  List<OrderItemResponse> items;
+}
@@ -0,0 +1,16 @@
+package com.challenge.ecommerce.orders.controllers.dto;
+
+import com.challenge.ecommerce.utils.enums.OrderStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class OrderStatusUpdateRequest {
+  @NotNull OrderStatus status;
+}
@@ -14,6 +14,7 @@ import lombok.experimental.FieldDefaults;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -27,21 +28,24 @@ import java.util.Set;
 @Builder
 @EntityListeners(AuditingEntityListener.class)
 public class OrderEntity extends BaseEntity {
-    @Column(nullable = false)
+    @Column(nullable = false, columnDefinition = "VARCHAR(255)")
     @Enumerated(EnumType.STRING)
     OrderStatus status;
 
     @Column(nullable = false)
     BigDecimal total_price;
 
-    @Column(nullable = false)
+    @Column(nullable = false, columnDefinition = "VARCHAR(255)")
     @Enumerated(EnumType.STRING)
     PaymentMethod payment_method;
 
-    @Column(nullable = false)
+    @Column(nullable = false, columnDefinition = "VARCHAR(255)")
     @Enumerated(EnumType.STRING)
     PaymentStatus payment_status;
 
+    // stamped when the delivery event is handled, reviews are open for a week from then
+    LocalDateTime deliveredAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(nullable = false)
     @JsonBackReference
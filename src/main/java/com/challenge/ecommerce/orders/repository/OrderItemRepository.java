@@ -5,10 +5,15 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItemEntity, String> {
   @Query("SELECT oi FROM order_items oi WHERE oi.id = :orderId AND oi.deletedAt IS NULL")
   Optional<OrderItemEntity> findActiveOrderItemByOrderId(@Param("orderId") String orderId);
+
+  @Query(
+      "SELECT oi FROM order_items oi JOIN FETCH oi.variant v JOIN FETCH v.product WHERE oi.order.id = :orderId AND oi.deletedAt IS NULL ORDER BY v.id")
+  List<OrderItemEntity> findByOrderIdWithVariant(@Param("orderId") String orderId);
 }
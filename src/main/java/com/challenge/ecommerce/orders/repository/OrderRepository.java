@@ -1,15 +1,30 @@
 package com.challenge.ecommerce.orders.repository;
 
 import com.challenge.ecommerce.orders.models.OrderEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<OrderEntity, String> {
   @Query("select od from orders od where od.id=:orderId and od.deletedAt is null ")
   Optional<OrderEntity> findOrderActiveByOrderId(@Param("orderId") String orderId);
+
+  // serializes status changes of one order, so each transition is published once
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select od from orders od where od.id=:orderId and od.deletedAt is null")
+  Optional<OrderEntity> findActiveForUpdate(@Param("orderId") String orderId);
+
+  @Modifying
+  @Query(
+      "update orders od set od.deliveredAt = :deliveredAt where od.id = :orderId and od.deliveredAt is null")
+  int markDelivered(
+      @Param("orderId") String orderId, @Param("deliveredAt") LocalDateTime deliveredAt);
 }
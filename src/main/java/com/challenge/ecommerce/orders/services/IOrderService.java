@@ -0,0 +1,11 @@
+package com.challenge.ecommerce.orders.services;
+
+import com.challenge.ecommerce.orders.controllers.dto.OrderCreateDto;
+import com.challenge.ecommerce.orders.controllers.dto.OrderResponse;
+import com.challenge.ecommerce.orders.controllers.dto.OrderStatusUpdateRequest;
+
+public interface IOrderService {
+  OrderResponse checkout(OrderCreateDto request);
+
+  OrderResponse updateStatus(String orderId, OrderStatusUpdateRequest request);
+}
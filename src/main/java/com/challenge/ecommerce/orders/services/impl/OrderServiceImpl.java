@@ -0,0 +1,372 @@
+package com.challenge.ecommerce.orders.services.impl;
+
+import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
+import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
+import com.challenge.ecommerce.orders.controllers.dto.OrderCreateDto;
+import com.challenge.ecommerce.orders.controllers.dto.OrderItemCreateDto;
+import com.challenge.ecommerce.orders.controllers.dto.OrderItemResponse;
+import com.challenge.ecommerce.orders.controllers.dto.OrderResponse;
+import com.challenge.ecommerce.orders.controllers.dto.OrderStatusUpdateRequest;
+import com.challenge.ecommerce.orders.models.OrderEntity;
+import com.challenge.ecommerce.orders.models.OrderItemEntity;
+import com.challenge.ecommerce.orders.repository.OrderItemRepository;
+import com.challenge.ecommerce.orders.repository.OrderRepository;
+import com.challenge.ecommerce.orders.services.IOrderService;
+import com.challenge.ecommerce.outbox.services.IOutboxService;
+import com.challenge.ecommerce.products.models.VariantEntity;
+import com.challenge.ecommerce.products.repositories.ProductRepository;
+import com.challenge.ecommerce.products.repositories.VariantRepository;
+import com.challenge.ecommerce.products.services.IHotStockService;
+import com.challenge.ecommerce.users.models.DeliveryAddressEntity;
+import com.challenge.ecommerce.users.models.UserEntity;
+import com.challenge.ecommerce.users.repositories.UserDeliveryAddressRepository;
+import com.challenge.ecommerce.users.repositories.UserRepository;
+import com.challenge.ecommerce.utils.AuthUtils;
+import com.challenge.ecommerce.utils.cache.AfterCommit;
+import com.challenge.ecommerce.utils.concurrent.GroupCommitQueue;
+import com.challenge.ecommerce.utils.enums.OrderStatus;
+import com.challenge.ecommerce.utils.enums.PaymentMethod;
+import com.challenge.ecommerce.utils.enums.PaymentStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class OrderServiceImpl implements IOrderService {
+
+  static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS =
+      Map.of(
+          OrderStatus.PENDING, Set.of(OrderStatus.SHIPPED, OrderStatus.CANCELED),
+          OrderStatus.SHIPPED, Set.of(OrderStatus.DELIVERED),
+          OrderStatus.DELIVERED, Set.of(),
+          OrderStatus.CANCELED, Set.of());
+
+  private final OrderRepository orderRepository;
+  private final OrderItemRepository orderItemRepository;
+  private final VariantRepository variantRepository;
+  private final ProductRepository productRepository;
+  private final UserRepository userRepository;
+  private final UserDeliveryAddressRepository userDeliveryAddressRepository;
+  private final IHotStockService hotStockService;
+  private final IOutboxService outboxService;
+  private final TransactionTemplate transactionTemplate;
+  private final GroupCommitQueue<Checkout, OrderResponse> writeQueue;
+  private final long writeTimeoutMillis;
+
+  // a validated checkout waiting for the writer
+  record Checkout(
+      UserEntity user,
+      DeliveryAddressEntity deliveryAddress,
+      PaymentMethod paymentMethod,
+      Map<String, Integer> quantities,
+      Map<String, VariantEntity> variants) {}
+
+  public OrderServiceImpl(
+      OrderRepository orderRepository,
+      OrderItemRepository orderItemRepository,
+      VariantRepository variantRepository,
+      ProductRepository productRepository,
+      UserRepository userRepository,
+      UserDeliveryAddressRepository userDeliveryAddressRepository,
+      IHotStockService hotStockService,
+      IOutboxService outboxService,
+      TransactionTemplate transactionTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${app.orders.write-behind.queue-capacity}") int queueCapacity,
+      @Value("${app.orders.write-behind.max-batch-size}") int maxBatchSize,
+      @Value("${app.orders.write-behind.timeout-millis}") long writeTimeoutMillis) {
+    this.orderRepository = orderRepository;
+    this.orderItemRepository = orderItemRepository;
+    this.variantRepository = variantRepository;
+    this.productRepository = productRepository;
+    this.userRepository = userRepository;
+    this.userDeliveryAddressRepository = userDeliveryAddressRepository;
+    this.hotStockService = hotStockService;
+    this.outboxService = outboxService;
+    this.transactionTemplate = transactionTemplate;
+    this.writeQueue =
+        new GroupCommitQueue<>(
+            "orders.write", queueCapacity, maxBatchSize, this::writeOrders, meterRegistry);
+    this.writeTimeoutMillis = writeTimeoutMillis;
+  }
+
+  @PreDestroy
+  void close() {
+    writeQueue.close();
+  }
+
+  // Validation runs on the caller's thread; the stock reservation and the inserts are queued for
+  // the writer, which commits everything waiting in one transaction.
+  @Override
+  public OrderResponse checkout(OrderCreateDto request) {
+    var user =
+        userRepository
+            .findByEmailAndNotDeleted(AuthUtils.getUserCurrent())
+            .orElseThrow(() -> new CustomRuntimeException(ErrorCode.USER_NOT_FOUND));
+    var deliveryAddress =
+        userDeliveryAddressRepository
+            .findDeliveryAddressActive(request.getDeliveryAddressId())
+            .filter(address -> address.getUser().getId().equals(user.getId()))
+            .orElseThrow(() -> new CustomRuntimeException(ErrorCode.ADDRESS_NOT_FOUND));
+
+    // one line per variant, in id order so concurrent checkouts lock rows in the same order
+    Map<String, Integer> quantities = new TreeMap<>();
+    try {
+      for (var item : request.getItems()) {
+        quantities.merge(item.getVariantId(), item.getQuantity(), Math::addExact);
+      }
+    } catch (ArithmeticException e) {
+      throw new CustomRuntimeException(ErrorCode.INVALID_ORDER_QUANTITY);
+    }
+    // the lines are validated one by one, their sum per variant is checked here
+    for (var quantity : quantities.values()) {
+      if (quantity < 1 || quantity > OrderItemCreateDto.MAX_QUANTITY) {
+        throw new CustomRuntimeException(ErrorCode.INVALID_ORDER_QUANTITY);
+      }
+    }
+    Map<String, VariantEntity> variants =
+        variantRepository.findByIdsWithProductAndDeletedAtIsNull(quantities.keySet()).stream()
+            .collect(Collectors.toMap(VariantEntity::getId, Function.identity()));
+    if (variants.size() != quantities.size()) {
+      throw new CustomRuntimeException(ErrorCode.VARIANT_NOT_FOUND);
+    }
+
+    var checkout =
+        new Checkout(user, deliveryAddress, request.getPaymentMethod(), quantities, variants);
+    CompletableFuture<OrderResponse> future;
+    try {
+      future = writeQueue.submit(checkout);
+    } catch (RejectedExecutionException e) {
+      throw new CustomRuntimeException(ErrorCode.SERVICE_BUSY);
+    }
+    // bounded, so a writer stuck on a lock does not hold every caller with it
+    try {
+      return future.get(writeTimeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      future.cancel(false);
+      throw new CustomRuntimeException(ErrorCode.SERVICE_BUSY);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      future.cancel(false);
+      throw new CustomRuntimeException(ErrorCode.SERVICE_BUSY);
+    } catch (ExecutionException e) {
+      // the queue closed before the checkout was written
+      if (e.getCause() instanceof RejectedExecutionException) {
+        throw new CustomRuntimeException(ErrorCode.SERVICE_BUSY);
+      }
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException("Order write failed", e.getCause());
+    }
+  }
+
+  // Runs on the writer thread. A checkout that fails is rolled back to its savepoint and reported
+  // on its own; the others still commit. The orders and items are inserted after every stock
+  // update of the batch, grouped into JDBC batches by Hibernate.
+  List<GroupCommitQueue.Result<OrderResponse>> writeOrders(List<Checkout> batch) {
+    List<Map<String, Integer>> reservedInRedis = new ArrayList<>();
+    try {
+      return transactionTemplate.execute(
+          status -> {
+            List<GroupCommitQueue.Result<OrderResponse>> results = new ArrayList<>();
+            Map<Integer, OrderEntity> orders = new TreeMap<>();
+            Map<Integer, List<OrderItemEntity>> items = new TreeMap<>();
+            for (var checkout : batch) {
+              var savepoint = status.createSavepoint();
+              try {
+                reservedInRedis.add(reserveStock(checkout.quantities(), checkout.variants()));
+              } catch (CustomRuntimeException e) {
+                status.rollbackToSavepoint(savepoint);
+                results.add(GroupCommitQueue.Result.failure(e));
+                continue;
+              }
+              status.releaseSavepoint(savepoint);
+              var order = toOrder(checkout);
+              orders.put(results.size(), order);
+              items.put(results.size(), toOrderItems(checkout, order));
+              results.add(null);
+            }
+            orderRepository.saveAll(orders.values());
+            orderItemRepository.saveAll(items.values().stream().flatMap(List::stream).toList());
+            for (var entry : orders.entrySet()) {
+              var order = entry.getValue();
+              var orderItems = items.get(entry.getKey());
+              publish(order, null, orderItems);
+              results.set(
+                  entry.getKey(), GroupCommitQueue.Result.success(toResponse(order, orderItems)));
+            }
+            return results;
+          });
+    } catch (RuntimeException e) {
+      reservedInRedis.forEach(hotStockService::release);
+      throw e;
+    }
+  }
+
+  @Transactional
+  @Override
+  public OrderResponse updateStatus(String orderId, OrderStatusUpdateRequest request) {
+    var order =
+        orderRepository
+            .findActiveForUpdate(orderId)
+            .orElseThrow(() -> new CustomRuntimeException(ErrorCode.ORDER_NOT_FOUND));
+    var from = order.getStatus();
+    if (!TRANSITIONS.get(from).contains(request.getStatus())) {
+      throw new CustomRuntimeException(ErrorCode.INVALID_ORDER_STATUS_TRANSITION);
+    }
+    order.setStatus(request.getStatus());
+    orderRepository.save(order);
+    var items = orderItemRepository.findByOrderIdWithVariant(orderId);
+    if (request.getStatus() == OrderStatus.CANCELED) {
+      restoreStock(items);
+    }
+    publish(order, from, items);
+    return toResponse(order, items);
+  }
+
+  // the listeners run after the commit, from the outbox
+  void publish(OrderEntity order, OrderStatus from, List<OrderItemEntity> items) {
+    var lines =
+        items.stream()
+            .map(
+                item ->
+                    new OrderStatusChangedEvent.Line(
+                        item.getVariant().getProduct().getId(),
+                        item.getVariant().getId(),
+                        item.getQuantity()))
+            .toList();
+    outboxService.append(
+        OrderStatusChangedEvent.TYPE,
+        order.getId(),
+        new OrderStatusChangedEvent(
+            order.getId(),
+            order.getUser().getId(),
+            from,
+            order.getStatus(),
+            LocalDateTime.now(),
+            lines));
+  }
+
+  // Each conditional UPDATE locks only its own row, until the commit. The items are inserted
+  // afterwards, as their foreign key checks would take shared locks that the UPDATE must upgrade.
+  // Flagged variants are taken from their Redis counters first, their MySQL stock is written back
+  // later. Returns what was reserved in Redis, which is given back if a later line is short.
+  Map<String, Integer> reserveStock(
+      Map<String, Integer> quantities, Map<String, VariantEntity> variants) {
+    Map<String, Integer> reservedInRedis = new TreeMap<>(quantities);
+    reservedInRedis.keySet().retainAll(hotStockService.reserve(quantities));
+    Map<String, Integer> productQuantities = new TreeMap<>();
+    try {
+      for (var entry : quantities.entrySet()) {
+        if (reservedInRedis.containsKey(entry.getKey())) {
+          continue;
+        }
+        if (variantRepository.reserveStock(entry.getKey(), entry.getValue()) == 0) {
+          // the caller rolls back the rows reserved so far
+          throw new CustomRuntimeException(ErrorCode.OUT_OF_STOCK);
+        }
+        var productId = variants.get(entry.getKey()).getProduct().getId();
+        productQuantities.merge(productId, entry.getValue(), Integer::sum);
+      }
+      productQuantities.forEach(productRepository::decreaseTotalStock);
+    } catch (RuntimeException e) {
+      hotStockService.release(reservedInRedis);
+      throw e;
+    }
+    return reservedInRedis;
+  }
+
+  // The mirror of reserveStock, in the transaction of the cancellation and in the same row order.
+  // Every line goes back to MySQL: the units of a flagged variant that were not written back yet
+  // are still pending and come off again on the next flush. Its Redis counter gets them back once
+  // the cancellation has committed.
+  void restoreStock(List<OrderItemEntity> items) {
+    Map<String, Integer> quantities = new TreeMap<>();
+    Map<String, Integer> productQuantities = new TreeMap<>();
+    for (var item : items) {
+      quantities.merge(item.getVariant().getId(), item.getQuantity(), Integer::sum);
+      productQuantities.merge(
+          item.getVariant().getProduct().getId(), item.getQuantity(), Integer::sum);
+    }
+    quantities.forEach(variantRepository::increaseStock);
+    productQuantities.forEach(productRepository::increaseTotalStock);
+    AfterCommit.run(() -> hotStockService.restock(quantities));
+  }
+
+  OrderEntity toOrder(Checkout checkout) {
+    var totalPrice = BigDecimal.ZERO;
+    for (var entry : checkout.quantities().entrySet()) {
+      var price = checkout.variants().get(entry.getKey()).getPrice();
+      totalPrice = totalPrice.add(price.multiply(BigDecimal.valueOf(entry.getValue())));
+    }
+    return OrderEntity.builder()
+        .status(OrderStatus.PENDING)
+        .payment_method(checkout.paymentMethod())
+        .payment_status(PaymentStatus.PENDING)
+        .total_price(totalPrice)
+        .user(checkout.user())
+        .deliveryAddress(checkout.deliveryAddress())
+        .build();
+  }
+
+  List<OrderItemEntity> toOrderItems(Checkout checkout, OrderEntity order) {
+    List<OrderItemEntity> items = new ArrayList<>();
+    for (var entry : checkout.quantities().entrySet()) {
+      var variant = checkout.variants().get(entry.getKey());
+      items.add(
+          OrderItemEntity.builder()
+              .order(order)
+              .variant(variant)
+              .quantity(entry.getValue())
+              .item_total_price(variant.getPrice().multiply(BigDecimal.valueOf(entry.getValue())))
+              .build());
+    }
+    return items;
+  }
+
+  OrderResponse toResponse(OrderEntity order, List<OrderItemEntity> orderItems) {
+    var items =
+        orderItems.stream()
+            .map(
+                item ->
+                    OrderItemResponse.builder()
+                        .id(item.getId())
+                        .variantId(item.getVariant().getId())
+                        .skuId(item.getVariant().getSku_id())
+                        .quantity(item.getQuantity())
+                        .itemTotalPrice(item.getItem_total_price())
+                        .build())
+            .toList();
+    return OrderResponse.builder()
+        .id(order.getId())
+        .status(order.getStatus())
+        .paymentMethod(order.getPayment_method())
+        .paymentStatus(order.getPayment_status())
+        .totalPrice(order.getTotal_price())
+        .deliveryAddressId(order.getDeliveryAddress().getId())
+        .createdAt(order.getCreatedAt())
+        .items(items)
+        .build();
+  }
+}
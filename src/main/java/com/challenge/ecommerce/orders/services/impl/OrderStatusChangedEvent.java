@@ -0,0 +1,20 @@
+package com.challenge.ecommerce.orders.services.impl;
+
+import com.challenge.ecommerce.utils.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** Outbox payload written when an order is placed ({@code from} is null) or changes status. */
+public record OrderStatusChangedEvent(
+    String orderId,
+    String userId,
+    OrderStatus from,
+    OrderStatus to,
+    LocalDateTime occurredAt,
+    List<Line> items) {
+
+  public static final String TYPE = "order.status-changed";
+
+  public record Line(String productId, String variantId, int quantity) {}
+}
@@ -0,0 +1,40 @@
+package com.challenge.ecommerce.outbox.models;
+
+import com.challenge.ecommerce.utils.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+@Entity(name = "outbox_events")
+@Table(
+    indexes = {
+      @Index(name = "idx_outbox_events_due", columnList = "dispatchedAt, nextAttemptAt")
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+public class OutboxEventEntity extends BaseEntity {
+  @Column(nullable = false, length = 100)
+  String eventType;
+
+  @Column(nullable = false)
+  String aggregateId;
+
+  @Column(nullable = false, columnDefinition = "TEXT")
+  String payload;
+
+  @Column(nullable = false)
+  int attempts;
+
+  @Column(nullable = false)
+  LocalDateTime nextAttemptAt;
+
+  LocalDateTime dispatchedAt;
+}
@@ -0,0 +1,42 @@
+package com.challenge.ecommerce.outbox.repositories;
+
+import com.challenge.ecommerce.outbox.models.OutboxEventEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity, String> {
+  // rows claimed by another instance are skipped rather than waited for
+  @Query(
+      value =
+          "SELECT * FROM outbox_events WHERE dispatched_at IS NULL AND next_attempt_at <= :now ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+      nativeQuery = true)
+  List<OutboxEventEntity> findDueForUpdate(
+      @Param("now") LocalDateTime now, @Param("limit") int limit);
+
+  // 0 when the consumer has already handled the event
+  @Modifying
+  @Query(
+      value =
+          "INSERT IGNORE INTO processed_events (event_id, consumer, processed_at) VALUES (:eventId, :consumer, NOW(6))",
+      nativeQuery = true)
+  int markProcessed(@Param("eventId") String eventId, @Param("consumer") String consumer);
+
+  @Modifying
+  @Query("DELETE FROM outbox_events e WHERE e.dispatchedAt < :before")
+  int deleteDispatchedBefore(@Param("before") LocalDateTime before);
+
+  // markers of events still in the outbox are kept, those events may be redelivered
+  @Modifying
+  @Query(
+      value =
+          "DELETE FROM processed_events p WHERE p.processed_at < :before AND NOT EXISTS (SELECT 1 FROM outbox_events e WHERE e.id = p.event_id)",
+      nativeQuery = true)
+  int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
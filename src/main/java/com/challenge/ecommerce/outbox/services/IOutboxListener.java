@@ -0,0 +1,17 @@
+package com.challenge.ecommerce.outbox.services;
+
+/**
+ * In-process consumer of outbox events. Delivery is at least once: an event is marked as handled
+ * by {@link #consumer()} in the same transaction as {@link #handle}, so a redelivered event is
+ * skipped, but side effects outside the database must be idempotent themselves.
+ */
+public interface IOutboxListener<T> {
+  // idempotency key of this consumer, stored with every event it handles
+  String consumer();
+
+  String eventType();
+
+  Class<T> payloadType();
+
+  void handle(T payload);
+}
@@ -0,0 +1,6 @@
+package com.challenge.ecommerce.outbox.services;
+
+public interface IOutboxService {
+  // stores the event in the caller's transaction, it is dispatched once that commits
+  void append(String eventType, String aggregateId, Object payload);
+}
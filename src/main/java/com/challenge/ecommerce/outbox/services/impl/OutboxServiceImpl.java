@@ -0,0 +1,162 @@
+package com.challenge.ecommerce.outbox.services.impl;
+
+import com.challenge.ecommerce.outbox.models.OutboxEventEntity;
+import com.challenge.ecommerce.outbox.repositories.OutboxEventRepository;
+import com.challenge.ecommerce.outbox.services.IOutboxListener;
+import com.challenge.ecommerce.outbox.services.IOutboxService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Transactional outbox. Events are stored with the change that caused them and delivered to the
+ * {@link IOutboxListener}s by a poller, off the request path. A batch is claimed by pushing its
+ * next attempt past a lease, so several instances can poll without handing out the same rows; an
+ * instance that dies mid-batch leaves them to be claimed again once the lease expires.
+ */
+@Service
+@Slf4j
+public class OutboxServiceImpl implements IOutboxService {
+
+  static final Duration FIRST_RETRY = Duration.ofSeconds(5);
+  static final Duration MAX_RETRY = Duration.ofMinutes(10);
+
+  private final OutboxEventRepository outboxEventRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectMapper objectMapper;
+  private final List<IOutboxListener<?>> listeners;
+  private final int batchSize;
+  private final Duration lease;
+  private final Duration retention;
+  private final Counter dispatched;
+  private final Counter failures;
+
+  public OutboxServiceImpl(
+      OutboxEventRepository outboxEventRepository,
+      TransactionTemplate transactionTemplate,
+      ObjectMapper objectMapper,
+      List<IOutboxListener<?>> listeners,
+      MeterRegistry meterRegistry,
+      @Value("${app.outbox.batch-size}") int batchSize,
+      @Value("${app.outbox.lease-seconds}") long leaseSeconds,
+      @Value("${app.outbox.retention-days}") long retentionDays) {
+    this.outboxEventRepository = outboxEventRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.objectMapper = objectMapper;
+    this.listeners = listeners;
+    this.batchSize = batchSize;
+    this.lease = Duration.ofSeconds(leaseSeconds);
+    this.retention = Duration.ofDays(retentionDays);
+    this.dispatched = meterRegistry.counter("outbox.dispatched");
+    this.failures = meterRegistry.counter("outbox.failures");
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void append(String eventType, String aggregateId, Object payload) {
+    String json;
+    try {
+      json = objectMapper.writeValueAsString(payload);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Cannot serialize " + eventType + " payload", e);
+    }
+    outboxEventRepository.save(
+        OutboxEventEntity.builder()
+            .eventType(eventType)
+            .aggregateId(aggregateId)
+            .payload(json)
+            .attempts(0)
+            .nextAttemptAt(LocalDateTime.now())
+            .build());
+  }
+
+  @Scheduled(fixedDelayString = "${app.outbox.poll-millis}")
+  public void dispatch() {
+    List<OutboxEventEntity> events;
+    do {
+      events = claim();
+      events.forEach(this::deliver);
+    } while (events.size() == batchSize);
+  }
+
+  List<OutboxEventEntity> claim() {
+    return transactionTemplate.execute(
+        status -> {
+          var now = LocalDateTime.now();
+          var events = outboxEventRepository.findDueForUpdate(now, batchSize);
+          events.forEach(event -> event.setNextAttemptAt(now.plus(lease)));
+          return events;
+        });
+  }
+
+  // Every listener gets its own transaction, so one failing consumer does not undo the others;
+  // the event is retried with backoff and the consumers that already handled it skip it.
+  void deliver(OutboxEventEntity event) {
+    var failed = false;
+    for (var listener : listeners) {
+      if (!listener.eventType().equals(event.getEventType())) {
+        continue;
+      }
+      try {
+        transactionTemplate.executeWithoutResult(
+            status -> {
+              if (outboxEventRepository.markProcessed(event.getId(), listener.consumer()) == 1) {
+                handle(listener, event.getPayload());
+              }
+            });
+      } catch (RuntimeException e) {
+        failed = true;
+        log.warn(
+            "Outbox event {} failed in {}: {}", event.getId(), listener.consumer(), e.getMessage());
+      }
+    }
+    var now = LocalDateTime.now();
+    if (failed) {
+      event.setAttempts(event.getAttempts() + 1);
+      event.setNextAttemptAt(now.plus(backoff(event.getAttempts())));
+      failures.increment();
+    } else {
+      event.setDispatchedAt(now);
+      dispatched.increment();
+    }
+    outboxEventRepository.save(event);
+  }
+
+  <T> void handle(IOutboxListener<T> listener, String payload) {
+    T value;
+    try {
+      value = objectMapper.readValue(payload, listener.payloadType());
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Unreadable " + listener.eventType() + " payload", e);
+    }
+    listener.handle(value);
+  }
+
+  static Duration backoff(int attempts) {
+    var seconds = FIRST_RETRY.toSeconds() << Math.min(attempts - 1, 16);
+    return Duration.ofSeconds(Math.min(seconds, MAX_RETRY.toSeconds()));
+  }
+
+  @Scheduled(fixedDelayString = "${app.outbox.purge-millis}")
+  public void purge() {
+    var before = LocalDateTime.now().minus(retention);
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          var events = outboxEventRepository.deleteDispatchedBefore(before);
+          var markers = outboxEventRepository.deleteProcessedBefore(before);
+          log.info("Purged {} outbox events and {} processed markers", events, markers);
+        });
+  }
+}
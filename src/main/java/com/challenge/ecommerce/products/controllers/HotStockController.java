@@ -0,0 +1,34 @@
+package com.challenge.ecommerce.products.controllers;
+
+import com.challenge.ecommerce.products.services.IHotStockService;
+import com.challenge.ecommerce.utils.ApiResponse;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/variants")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class HotStockController {
+
+  IHotStockService hotStockService;
+
+  @PostMapping("/{variantId}/hot-stock")
+  public ResponseEntity<?> flagHotStock(@PathVariable String variantId) {
+    hotStockService.flag(variantId);
+    var resp = ApiResponse.builder().message("Variant stock is now held in Redis").build();
+    return ResponseEntity.ok(resp);
+  }
+
+  @DeleteMapping("/{variantId}/hot-stock")
+  public ResponseEntity<?> unflagHotStock(@PathVariable String variantId) {
+    hotStockService.unflag(variantId);
+    var resp = ApiResponse.builder().message("Variant stock is back in MySQL").build();
+    return ResponseEntity.ok(resp);
+  }
+}
@@ -4,7 +4,9 @@ import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
 import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
 import com.challenge.ecommerce.products.controllers.dto.ProductCreateDto;
 import com.challenge.ecommerce.products.controllers.dto.ProductUpdateDto;
+import com.challenge.ecommerce.products.services.IProductSearchService;
 import com.challenge.ecommerce.products.services.IProductService;
+import com.challenge.ecommerce.products.services.IProductSuggestService;
 import com.challenge.ecommerce.utils.ApiResponse;
 import com.challenge.ecommerce.utils.StringHelper;
 import jakarta.validation.Valid;
@@ -27,11 +29,15 @@ import org.springframework.web.bind.annotation.*;
 public class ProductController {
 
   IProductService productService;
+  IProductSearchService productSearchService;
+  IProductSuggestService productSuggestService;
 
   static final String DEFAULT_FILTER_PAGE = "0";
   static final String DEFAULT_FILTER_SIZE = "10";
+  static final String DEFAULT_SUGGEST_SIZE = "8";
   static final Sort DEFAULT_FILTER_SORT = Sort.by(Sort.Direction.DESC, "createdAt");
   static final Sort DEFAULT_FILTER_SORT_ASC = Sort.by(Sort.Direction.ASC, "createdAt");
+  static final String SORT_BY_RATING = "rating";
 
   @PostMapping
   public ResponseEntity<?> addProduct(@RequestBody @Valid ProductCreateDto request) {
@@ -46,21 +52,66 @@ public class ProductController {
       @RequestParam(required = false, defaultValue = DEFAULT_FILTER_PAGE) @Min(0) int page,
       @RequestParam(required = false, defaultValue = DEFAULT_FILTER_SIZE) @Min(0) int size,
       @RequestParam(required = false) String sortParam,
+      @RequestParam(required = false) String sortBy,
       @RequestParam(required = false) String category,
       @RequestParam(required = false) @Min(0) Integer minPrice,
-      @RequestParam(required = false) @Min(0) Integer maxPrice) {
+      @RequestParam(required = false) @Min(0) Integer maxPrice,
+      @RequestParam(required = false) String cursor) {
     if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
       throw new CustomRuntimeException(ErrorCode.MIN_PRICE_GREATER_MAX_PRICE);
     }
+    var byRating = sortBy != null && sortBy.equalsIgnoreCase(SORT_BY_RATING);
+    if (sortBy != null && !byRating) {
+      throw new CustomRuntimeException(ErrorCode.SORT_NOT_SUPPORTED);
+    }
+    // keyset mode: an empty cursor asks for the first page, then pass back nextCursor
+    if (cursor != null) {
+      // the cursor only encodes the creation date
+      if (byRating) {
+        throw new CustomRuntimeException(ErrorCode.SORT_NOT_SUPPORTED);
+      }
+      var ascending = sortParam != null && sortParam.equalsIgnoreCase("ASC");
+      var listProducts =
+          productService.getListProductsByCursor(
+              cursor, size, ascending, category, minPrice, maxPrice);
+      return ResponseEntity.ok(listProducts);
+    }
     Sort sort = DEFAULT_FILTER_SORT;
     if (sortParam != null && sortParam.equalsIgnoreCase("ASC")) {
       sort = DEFAULT_FILTER_SORT_ASC;
     }
+    // by the average copied onto products, unrated products last when descending
+    if (byRating) {
+      var direction = sort.getOrderFor("createdAt").getDirection();
+      sort = Sort.by(direction, "avgRating").and(sort);
+    }
     Pageable pageable = PageRequest.of(page, size, sort);
     var listProducts = productService.getListProducts(pageable, category, minPrice, maxPrice);
     return ResponseEntity.ok(listProducts);
   }
 
+  @GetMapping("/search")
+  public ResponseEntity<?> searchProducts(
+      @RequestParam String q,
+      @RequestParam(required = false, defaultValue = DEFAULT_FILTER_PAGE) @Min(0) int page,
+      @RequestParam(required = false, defaultValue = DEFAULT_FILTER_SIZE) @Min(0) int size,
+      @RequestParam(required = false) String category,
+      @RequestParam(required = false) @Min(0) Integer minPrice,
+      @RequestParam(required = false) @Min(0) Integer maxPrice) {
+    if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+      throw new CustomRuntimeException(ErrorCode.MIN_PRICE_GREATER_MAX_PRICE);
+    }
+    var resp = productSearchService.search(q, category, minPrice, maxPrice, page, size);
+    return ResponseEntity.ok(resp);
+  }
+
+  @GetMapping("/suggest")
+  public ResponseEntity<?> suggestProducts(
+      @RequestParam String q,
+      @RequestParam(required = false, defaultValue = DEFAULT_SUGGEST_SIZE) @Min(0) int size) {
+    return ResponseEntity.ok(productSuggestService.suggest(q, size));
+  }
+
   @GetMapping("/{productSlug}")
   public ResponseEntity<?> getProductBySlug(@PathVariable String productSlug) {
     String formattedSlug = StringHelper.toSlug(productSlug);
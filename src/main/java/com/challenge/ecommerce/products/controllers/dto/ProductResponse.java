@@ -4,9 +4,12 @@ import com.challenge.ecommerce.categories.controllers.dto.CategoryResponse;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Getter
 @Setter
@@ -28,10 +31,21 @@ public class ProductResponse {
 
   int totalRates;
 
+  Double averageRating;
+
+  // number of reviews per star, from 1 to 5
+  Map<Integer, Long> ratingDistribution = new LinkedHashMap<>();
+
   int totalSold;
 
   String slug;
 
+  BigDecimal minPrice;
+
+  BigDecimal maxPrice;
+
+  int totalStock;
+
   CategoryResponse category;
 
   List<ProductImageResponse> images = new ArrayList<>();
@@ -0,0 +1,23 @@
+package com.challenge.ecommerce.products.controllers.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ProductSearchResponse {
+  List<ProductResponse> products;
+
+  // matching products per category slug
+  Map<String, Long> categories;
+
+  // matching products per price bucket, keyed "lower-upper" or "lower+"
+  Map<String, Long> priceRanges;
+}
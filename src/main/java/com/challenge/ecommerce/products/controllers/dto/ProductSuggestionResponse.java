@@ -0,0 +1,17 @@
+package com.challenge.ecommerce.products.controllers.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ProductSuggestionResponse {
+  String text;
+
+  // "product" or "category"
+  String type;
+}
@@ -4,10 +4,14 @@ import com.challenge.ecommerce.products.controllers.dto.OptionCreateDto;
 import com.challenge.ecommerce.products.controllers.dto.OptionResponse;
 import com.challenge.ecommerce.products.models.OptionEntity;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface IOptionMapper {
   OptionEntity optionCreateDtoToEntity(OptionCreateDto request);
 
   OptionResponse optionEntityToDto(OptionEntity entity);
+
+  @Mapping(target = "optionValues", ignore = true)
+  OptionResponse optionEntityToShortDto(OptionEntity entity);
 }
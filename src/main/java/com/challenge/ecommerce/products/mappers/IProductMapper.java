@@ -5,6 +5,7 @@ import com.challenge.ecommerce.products.controllers.dto.ProductResponse;
 import com.challenge.ecommerce.products.controllers.dto.ProductUpdateDto;
 import com.challenge.ecommerce.products.models.ProductEntity;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
@@ -14,6 +15,10 @@ import org.mapstruct.NullValuePropertyMappingStrategy;
 public interface IProductMapper {
   ProductEntity productCreateDtoToEntity(ProductCreateDto request);
 
+  // images and variants are stitched by ProductResponseAssembler in batch
+  @Mapping(target = "images", ignore = true)
+  @Mapping(target = "variants", ignore = true)
+  @Mapping(target = "category.childCategories", ignore = true)
   ProductResponse productEntityToDto(ProductEntity entity);
 
   ProductEntity updateProductFromDto(
@@ -9,7 +9,11 @@ import lombok.experimental.FieldDefaults;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 @Entity(name = "images")
-@Table
+@Table(
+    indexes =
+        @Index(
+            name = "idx_images_product_deleted_type",
+            columnList = "product_id, deletedAt, type_image"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,7 +25,7 @@ public class ImageEntity extends BaseEntity {
     @Column(nullable = false, columnDefinition = "VARCHAR(2083)")
     String images_url;
 
-    @Column(nullable = false)
+    @Column(nullable = false, columnDefinition = "VARCHAR(255)")
     @Enumerated(EnumType.STRING)
     TypeImage type_image;
 
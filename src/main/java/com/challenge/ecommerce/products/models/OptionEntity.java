@@ -11,7 +11,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity(name = "options")
-@Table
+@Table(indexes = @Index(name = "idx_options_name_deleted", columnList = "option_name, deletedAt"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -12,7 +12,11 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity(name = "option_values")
-@Table
+@Table(
+    indexes = {
+      @Index(name = "idx_option_values_option_deleted", columnList = "option_id, deletedAt"),
+      @Index(name = "idx_option_values_name_deleted", columnList = "value_name, deletedAt")
+    })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -11,11 +11,21 @@ import lombok.*;
 import lombok.experimental.FieldDefaults;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity(name = "products")
-@Table
+@Table(
+    indexes = {
+      @Index(name = "idx_products_slug_deleted", columnList = "slug, deletedAt"),
+      @Index(name = "idx_products_title_deleted", columnList = "title, deletedAt"),
+      @Index(name = "idx_products_deleted_created", columnList = "deletedAt, createdAt, id"),
+      @Index(name = "idx_products_deleted_rating", columnList = "deletedAt, avgRating, createdAt"),
+      @Index(
+          name = "idx_products_category_list",
+          columnList = "category_id, deletedAt, createdAt, id, minPrice")
+    })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -39,6 +49,22 @@ public class ProductEntity extends BaseEntity {
   @JsonBackReference
   CategoryEntity category;
 
+  // copy of the category slug for the search documents, lists filter through category_closure
+  String categorySlug;
+
+  // denormalized from the active variants, so price filters need no join
+  @Column(precision = 19, scale = 2)
+  BigDecimal minPrice;
+
+  @Column(precision = 19, scale = 2)
+  BigDecimal maxPrice;
+
+  int totalStock;
+
+  // copied from product_stats with every rating change, never written through the entity
+  @Column(precision = 3, scale = 2, insertable = false, updatable = false)
+  BigDecimal avgRating;
+
   @OneToMany(mappedBy = "product", fetch = FetchType.LAZY)
   @JsonManagedReference
   Set<ProductOptionEntity> productOptions = new HashSet<>();
@@ -8,7 +8,9 @@ import lombok.experimental.FieldDefaults;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 @Entity(name = "product_options")
-@Table
+@Table(
+    indexes =
+        @Index(name = "idx_product_options_product_deleted", columnList = "product_id, deletedAt"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,46 @@
+package com.challenge.ecommerce.products.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+// counters maintained from events, read instead of aggregating orders per product
+@Entity(name = "product_stats")
+@Table
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Builder
+public class ProductStatsEntity {
+  @Id String productId;
+
+  @Column(nullable = false)
+  long soldCount;
+
+  @Column(nullable = false)
+  long favoriteCount;
+
+  @Column(nullable = false)
+  long ratingCount;
+
+  @Column(nullable = false)
+  long ratingSum;
+
+  // reviews per star, 1 to 5
+  @Column(name = "rating_1", nullable = false)
+  long rating1;
+
+  @Column(name = "rating_2", nullable = false)
+  long rating2;
+
+  @Column(name = "rating_3", nullable = false)
+  long rating3;
+
+  @Column(name = "rating_4", nullable = false)
+  long rating4;
+
+  @Column(name = "rating_5", nullable = false)
+  long rating5;
+}
@@ -14,7 +14,13 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity(name = "variants")
-@Table
+@Table(
+    indexes = {
+      @Index(name = "idx_variants_sku_deleted", columnList = "sku_id, deletedAt"),
+      @Index(
+          name = "idx_variants_product_deleted_created",
+          columnList = "product_id, deletedAt, createdAt")
+    })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -8,7 +8,11 @@ import lombok.experimental.FieldDefaults;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 @Entity(name = "variant_values")
-@Table
+@Table(
+    indexes =
+        @Index(
+            name = "idx_variant_values_variant_option_deleted",
+            columnList = "variant_id, option_id, deletedAt"))
 @Getter
 @Setter
 @NoArgsConstructor
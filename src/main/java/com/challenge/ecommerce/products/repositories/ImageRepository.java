@@ -9,6 +9,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,6 +17,9 @@ public interface ImageRepository extends JpaRepository<ImageEntity, String> {
   @Query("SELECT b FROM images b WHERE b.product.id =:id AND b.deletedAt IS NULL")
   List<ImageEntity> findByIdProductAndDeletedAtIsNull(@Param("id") String id);
 
+  @Query("SELECT b FROM images b WHERE b.product.id IN :ids AND b.deletedAt IS NULL")
+  List<ImageEntity> findByProductIdsAndDeletedAtIsNull(@Param("ids") Collection<String> ids);
+
   @Query(
       "SELECT b FROM images b WHERE b.product.id =:id AND b.type_image = 'AVATAR' AND b.deletedAt IS NULL")
   ImageEntity findByIdProductAvatarAndDeletedAtIsNull(@Param("id") String id);
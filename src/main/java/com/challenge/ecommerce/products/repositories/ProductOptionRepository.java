@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -17,4 +18,9 @@ public interface ProductOptionRepository extends JpaRepository<ProductOptionEnti
   @Query(
       "SELECT b.option FROM product_options b inner join options c on b.option.id=c.id WHERE b.product.id = :productId AND b.deletedAt IS NULL AND c.deletedAt IS NULL")
   List<OptionEntity> findByProductIdAndDeletedAtIsNull(@Param("productId") String productId);
+
+  @Query(
+      "SELECT b FROM product_options b JOIN FETCH b.option c WHERE b.product.id IN :productIds AND b.deletedAt IS NULL AND c.deletedAt IS NULL")
+  List<ProductOptionEntity> findByProductIdsAndDeletedAtIsNull(
+      @Param("productIds") Collection<String> productIds);
 }
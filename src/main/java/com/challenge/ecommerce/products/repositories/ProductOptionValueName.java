@@ -0,0 +1,4 @@
+package com.challenge.ecommerce.products.repositories;
+
+/** Name of an option value used by one of the active variants of a product. */
+public record ProductOptionValueName(String productId, String valueName) {}
@@ -1,12 +1,16 @@
 package com.challenge.ecommerce.products.repositories;
 
 import com.challenge.ecommerce.products.models.ProductEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,4 +22,49 @@ public interface ProductRepository
 
   @Query("SELECT b FROM products b WHERE b.slug=:productSlug AND b.deletedAt IS NULL")
   Optional<ProductEntity> findBySlugAndDeletedAtIsNull(@Param("productSlug") String productSlug);
+
+  @Query("SELECT b.slug FROM products b WHERE b.id IN :productIds")
+  List<String> findSlugsByIds(@Param("productIds") Collection<String> productIds);
+
+  @Query(
+      "SELECT b FROM products b JOIN FETCH b.category WHERE b.id IN :productIds AND b.deletedAt IS NULL")
+  List<ProductEntity> findSearchableByIds(@Param("productIds") Collection<String> productIds);
+
+  @Query(
+      "SELECT b FROM products b JOIN FETCH b.category WHERE b.id > :afterId AND b.deletedAt IS NULL ORDER BY b.id")
+  List<ProductEntity> findSearchableAfter(@Param("afterId") String afterId, Limit limit);
+
+  @Query("SELECT b.id FROM products b WHERE b.category.id = :categoryId AND b.deletedAt IS NULL")
+  List<String> findIdsByCategoryId(@Param("categoryId") String categoryId);
+
+  // popularity of a product is its number of active favorites
+  @Query(
+      "SELECT new com.challenge.ecommerce.products.repositories.SuggestionSource("
+          + "b.title, COUNT(f)) "
+          + "FROM products b LEFT JOIN favorites f ON f.product = b AND f.deletedAt IS NULL "
+          + "WHERE b.deletedAt IS NULL GROUP BY b.id, b.title")
+  List<SuggestionSource> findTitleSuggestions();
+
+  // popularity of a category is its number of active products
+  @Query(
+      "SELECT new com.challenge.ecommerce.products.repositories.SuggestionSource("
+          + "c.name, COUNT(b)) "
+          + "FROM products b JOIN b.category c "
+          + "WHERE b.deletedAt IS NULL AND c.deletedAt IS NULL GROUP BY c.id, c.name")
+  List<SuggestionSource> findCategorySuggestions();
+
+  @Modifying
+  @Query("UPDATE products b SET b.totalStock = b.totalStock - :quantity WHERE b.id = :productId")
+  int decreaseTotalStock(@Param("productId") String productId, @Param("quantity") int quantity);
+
+  @Modifying
+  @Query("UPDATE products b SET b.totalStock = b.totalStock + :quantity WHERE b.id = :productId")
+  int increaseTotalStock(@Param("productId") String productId, @Param("quantity") int quantity);
+
+  @Modifying
+  @Query(
+      value =
+          "UPDATE products p JOIN product_stats s ON s.product_id = p.id SET p.avg_rating = IF(s.rating_count > 0, s.rating_sum / s.rating_count, NULL) WHERE p.id = :productId",
+      nativeQuery = true)
+  int refreshAverageRating(@Param("productId") String productId);
 }
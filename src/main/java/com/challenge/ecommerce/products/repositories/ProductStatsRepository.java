@@ -0,0 +1,36 @@
+package com.challenge.ecommerce.products.repositories;
+
+import com.challenge.ecommerce.products.models.ProductStatsEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductStatsRepository extends JpaRepository<ProductStatsEntity, String> {
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO product_stats (product_id, sold_count) VALUES (:productId, :quantity) ON DUPLICATE KEY UPDATE sold_count = sold_count + :quantity",
+      nativeQuery = true)
+  int addSold(@Param("productId") String productId, @Param("quantity") long quantity);
+
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO product_stats (product_id, favorite_count) VALUES (:productId, :favorites) ON DUPLICATE KEY UPDATE favorite_count = favorite_count + :favorites",
+      nativeQuery = true)
+  int addFavorites(@Param("productId") String productId, @Param("favorites") long favorites);
+
+  // moves one review from the "removed" star to the "added" one, 0 standing for no rating
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO product_stats (product_id, rating_count, rating_sum, rating_1, rating_2, rating_3, rating_4, rating_5) VALUES (:productId, (:added > 0) - (:removed > 0), :added - :removed, (:added = 1) - (:removed = 1), (:added = 2) - (:removed = 2), (:added = 3) - (:removed = 3), (:added = 4) - (:removed = 4), (:added = 5) - (:removed = 5)) ON DUPLICATE KEY UPDATE rating_count = rating_count + VALUES(rating_count), rating_sum = rating_sum + VALUES(rating_sum), rating_1 = rating_1 + VALUES(rating_1), rating_2 = rating_2 + VALUES(rating_2), rating_3 = rating_3 + VALUES(rating_3), rating_4 = rating_4 + VALUES(rating_4), rating_5 = rating_5 + VALUES(rating_5)",
+      nativeQuery = true)
+  int moveRating(
+      @Param("productId") String productId,
+      @Param("removed") int removed,
+      @Param("added") int added);
+}
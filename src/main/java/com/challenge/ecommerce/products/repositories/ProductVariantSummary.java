@@ -0,0 +1,6 @@
+package com.challenge.ecommerce.products.repositories;
+
+import java.math.BigDecimal;
+
+/** Price range and stock over the active variants of a product. */
+public record ProductVariantSummary(BigDecimal minPrice, BigDecimal maxPrice, Long totalStock) {}
@@ -0,0 +1,4 @@
+package com.challenge.ecommerce.products.repositories;
+
+/** Text offered as an autocomplete suggestion with its popularity weight. */
+public record SuggestionSource(String text, Long weight) {}
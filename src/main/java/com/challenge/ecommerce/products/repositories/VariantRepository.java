@@ -1,11 +1,15 @@
 package com.challenge.ecommerce.products.repositories;
 
 import com.challenge.ecommerce.products.models.VariantEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,4 +26,42 @@ public interface VariantRepository extends JpaRepository<VariantEntity, String>
 
   @Query("SELECT b FROM variants b WHERE b.product.id =:productId AND b.deletedAt IS NULL")
   Optional<VariantEntity> findByProductIdAndDeletedAtIsNull(@Param("productId") String productId);
+
+  @Query(
+      "SELECT b FROM variants b WHERE b.product.id IN :productIds AND b.deletedAt IS NULL ORDER BY b.createdAt")
+  List<VariantEntity> findByProductIdsAndDeletedAtIsNull(
+      @Param("productIds") Collection<String> productIds);
+
+  @Query(
+      "SELECT new com.challenge.ecommerce.products.repositories.ProductVariantSummary("
+          + "MIN(b.price), MAX(b.price), COALESCE(SUM(b.stock_quantity), 0)) "
+          + "FROM variants b WHERE b.product.id = :productId AND b.deletedAt IS NULL")
+  ProductVariantSummary summarizeByProductId(@Param("productId") String productId);
+
+  @Query(
+      "SELECT b FROM variants b JOIN FETCH b.product p WHERE b.id IN :variantIds AND b.deletedAt IS NULL AND p.deletedAt IS NULL")
+  List<VariantEntity> findByIdsWithProductAndDeletedAtIsNull(
+      @Param("variantIds") Collection<String> variantIds);
+
+  // waits for the reservations already written to the row, so a hot stock counter seeds after them
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT b FROM variants b WHERE b.id = :variantId AND b.deletedAt IS NULL")
+  Optional<VariantEntity> findActiveForUpdate(@Param("variantId") String variantId);
+
+  // conditional decrement, no row is updated when the stock is too low
+  @Modifying
+  @Query(
+      "UPDATE variants b SET b.stock_quantity = b.stock_quantity - :quantity "
+          + "WHERE b.id = :variantId AND b.stock_quantity >= :quantity AND b.deletedAt IS NULL")
+  int reserveStock(@Param("variantId") String variantId, @Param("quantity") int quantity);
+
+  // applies units already reserved elsewhere, so it is not conditional
+  @Modifying
+  @Query("UPDATE variants b SET b.stock_quantity = b.stock_quantity - :quantity WHERE b.id = :variantId")
+  int decreaseStock(@Param("variantId") String variantId, @Param("quantity") int quantity);
+
+  // gives back the units of a canceled order
+  @Modifying
+  @Query("UPDATE variants b SET b.stock_quantity = b.stock_quantity + :quantity WHERE b.id = :variantId")
+  int increaseStock(@Param("variantId") String variantId, @Param("quantity") int quantity);
 }
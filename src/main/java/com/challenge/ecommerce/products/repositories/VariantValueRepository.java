@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -20,4 +21,18 @@ public interface VariantValueRepository extends JpaRepository<VariantValueEntity
       "SELECT b FROM variant_values b inner join option_values c on b.optionValue.id=c.id WHERE b.option.id=:optionId AND b.variant.id=:variantId AND b.deletedAt IS NULL AND c.deletedAt IS NULL")
   List<VariantValueEntity> findByVariantIDAndOptionIdAndDeletedAtIsNull(
       @Param("variantId") String variantId, @Param("optionId") String optionId);
+
+  @Query(
+      "SELECT b FROM variant_values b JOIN FETCH b.optionValue c WHERE b.variant.id IN :variantIds AND b.deletedAt IS NULL AND c.deletedAt IS NULL")
+  List<VariantValueEntity> findByVariantIdsAndDeletedAtIsNull(
+      @Param("variantIds") Collection<String> variantIds);
+
+  @Query(
+      "SELECT new com.challenge.ecommerce.products.repositories.ProductOptionValueName("
+          + "v.product.id, c.value_name) "
+          + "FROM variant_values b JOIN b.variant v JOIN b.optionValue c "
+          + "WHERE v.product.id IN :productIds "
+          + "AND b.deletedAt IS NULL AND v.deletedAt IS NULL AND c.deletedAt IS NULL")
+  List<ProductOptionValueName> findOptionValueNamesByProductIds(
+      @Param("productIds") Collection<String> productIds);
 }
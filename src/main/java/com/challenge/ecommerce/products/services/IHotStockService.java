@@ -0,0 +1,19 @@
+package com.challenge.ecommerce.products.services;
+
+import java.util.Map;
+import java.util.Set;
+
+public interface IHotStockService {
+  // reserves the flagged variants of a checkout, returns their ids; the rest is left to MySQL
+  Set<String> reserve(Map<String, Integer> quantities);
+
+  // gives back units reserved by a checkout that did not commit
+  void release(Map<String, Integer> reserved);
+
+  // gives the units of a canceled order, already restored in MySQL, back to the flagged counters
+  void restock(Map<String, Integer> quantities);
+
+  void flag(String variantId);
+
+  void unflag(String variantId);
+}
@@ -0,0 +1,8 @@
+package com.challenge.ecommerce.products.services;
+
+import com.challenge.ecommerce.utils.ApiResponse;
+
+public interface IProductSearchService {
+  ApiResponse<?> search(
+      String query, String category, Integer min, Integer max, int page, int size);
+}
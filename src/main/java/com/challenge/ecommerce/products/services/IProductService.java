@@ -11,6 +11,9 @@ public interface IProductService {
 
   ApiResponse<?> getListProducts(Pageable pageable, String category, Integer min, Integer max);
 
+  ApiResponse<?> getListProductsByCursor(
+      String cursor, int size, boolean ascending, String category, Integer min, Integer max);
+
   ProductResponse getProductBySlug(String productSlug);
 
   ProductResponse updateProductBySlug(ProductUpdateDto request, String productSlug);
@@ -0,0 +1,9 @@
+package com.challenge.ecommerce.products.services;
+
+public interface IProductStatsService {
+  // the deltas are applied once the caller's transaction commits, and written back in batches
+  void addFavorites(String productId, long delta);
+
+  // applied in the caller's transaction; a null rating is one that is not counted
+  void changeRating(String productId, Integer from, Integer to);
+}
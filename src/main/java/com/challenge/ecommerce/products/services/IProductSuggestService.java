@@ -0,0 +1,7 @@
+package com.challenge.ecommerce.products.services;
+
+import com.challenge.ecommerce.utils.ApiResponse;
+
+public interface IProductSuggestService {
+  ApiResponse<?> suggest(String prefix, int size);
+}
@@ -7,4 +7,6 @@ import com.challenge.ecommerce.products.models.VariantEntity;
 public interface IVariantService {
   VariantEntity addProductVariant(ProductUpdateDto request, ProductEntity product);
   void deleteByProduct(ProductEntity product);
+
+  void syncProductSummary(ProductEntity product);
 }
@@ -0,0 +1,401 @@
+package com.challenge.ecommerce.products.services.impl;
+
+import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
+import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
+import com.challenge.ecommerce.products.repositories.ProductRepository;
+import com.challenge.ecommerce.products.repositories.VariantRepository;
+import com.challenge.ecommerce.products.services.IHotStockService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Optional inventory mode for flash sales. The stock of a flagged variant is held in Redis and
+ * reserved by a Lua script, so buyers of a hot SKU never queue on its MySQL row. Reserved units
+ * are counted as pending and written back to {@code variants.stock_quantity} in batches, and a
+ * reconciliation job resets each counter to the MySQL stock minus its pending units.
+ *
+ * <p>While the mode is enabled every checkout calls the reserve script, which alone decides the
+ * flagged lines, so a flag takes effect on all instances at once. The counter is seeded under the
+ * variant's row lock, after the MySQL reservations already written to it; only a checkout that saw
+ * the variant unflagged and reaches its row after the seed still sells from MySQL, until the next
+ * reconciliation takes that unit off the counter. Flag a SKU before its sale starts.
+ */
+@Service
+@Slf4j
+public class HotStockServiceImpl implements IHotStockService {
+
+  // one hash tag keeps the multi-key scripts on a single cluster slot
+  static final String HOT_KEY = "{inventory}:hot";
+  static final String STOCK_KEY_PREFIX = "{inventory}:stock:";
+  static final String PENDING_KEY_PREFIX = "{inventory}:pending:";
+  static final String LOCK_KEY = "{inventory}:lock";
+  static final Duration LOCK_TTL = Duration.ofSeconds(30);
+
+  // KEYS: stock keys, then pending keys; ARGV: quantities. The flagged lines are all reserved or
+  // none is: {-1} on short stock, otherwise 1 per line reserved here and 0 per unflagged line.
+  @SuppressWarnings("rawtypes")
+  static final RedisScript<List> RESERVE_SCRIPT =
+      RedisScript.of(
+          """
+          local n = #ARGV
+          for i = 1, n do
+            local stock = redis.call('GET', KEYS[i])
+            if stock and tonumber(stock) < tonumber(ARGV[i]) then
+              return {-1}
+            end
+          end
+          local result = {}
+          for i = 1, n do
+            if redis.call('EXISTS', KEYS[i]) == 1 then
+              redis.call('DECRBY', KEYS[i], ARGV[i])
+              redis.call('INCRBY', KEYS[n + i], ARGV[i])
+              result[i] = 1
+            else
+              result[i] = 0
+            end
+          end
+          return result
+          """,
+          List.class);
+
+  // same layout as RESERVE_SCRIPT, gives back the units of a rolled back checkout
+  static final RedisScript<Long> RELEASE_SCRIPT =
+      RedisScript.of(
+          """
+          local n = #ARGV
+          for i = 1, n do
+            if redis.call('EXISTS', KEYS[i]) == 1 then
+              redis.call('INCRBY', KEYS[i], ARGV[i])
+              redis.call('DECRBY', KEYS[n + i], ARGV[i])
+            end
+          end
+          return n
+          """,
+          Long.class);
+
+  // KEYS: stock keys; ARGV: quantities. Leaves the pending units alone, unlike RELEASE_SCRIPT.
+  static final RedisScript<Long> RESTOCK_SCRIPT =
+      RedisScript.of(
+          """
+          for i = 1, #KEYS do
+            if redis.call('EXISTS', KEYS[i]) == 1 then
+              redis.call('INCRBY', KEYS[i], ARGV[i])
+            end
+          end
+          return #KEYS
+          """,
+          Long.class);
+
+  // KEYS: pending keys; takes and returns the pending units of each
+  @SuppressWarnings("rawtypes")
+  static final RedisScript<List> DRAIN_SCRIPT =
+      RedisScript.of(
+          """
+          local result = {}
+          for i = 1, #KEYS do
+            local pending = tonumber(redis.call('GET', KEYS[i]) or '0')
+            if pending ~= 0 then
+              redis.call('DECRBY', KEYS[i], pending)
+            end
+            result[i] = pending
+          end
+          return result
+          """,
+          List.class);
+
+  // KEYS: stock, pending; ARGV: MySQL stock. Returns the corrected drift.
+  static final RedisScript<Long> RECONCILE_SCRIPT =
+      RedisScript.of(
+          """
+          local current = redis.call('GET', KEYS[1])
+          if not current then
+            return 0
+          end
+          local expected = tonumber(ARGV[1]) - tonumber(redis.call('GET', KEYS[2]) or '0')
+          if expected < 0 then
+            expected = 0
+          end
+          local drift = tonumber(current) - expected
+          if drift ~= 0 then
+            redis.call('SET', KEYS[1], expected)
+          end
+          return drift
+          """,
+          Long.class);
+
+  // KEYS: hot set, stock, pending; ARGV: variant id. Returns the units not yet written back.
+  static final RedisScript<Long> UNFLAG_SCRIPT =
+      RedisScript.of(
+          """
+          redis.call('SREM', KEYS[1], ARGV[1])
+          redis.call('DEL', KEYS[2])
+          local pending = tonumber(redis.call('GET', KEYS[3]) or '0')
+          redis.call('DEL', KEYS[3])
+          return pending
+          """,
+          Long.class);
+
+  // same layout as UNFLAG_SCRIPT, ARGV: variant id, pending units. Undoes it when the units could
+  // not be written back; the variant is sold out until the next reconciliation sets its stock.
+  static final RedisScript<Long> REFLAG_SCRIPT =
+      RedisScript.of(
+          """
+          redis.call('SADD', KEYS[1], ARGV[1])
+          redis.call('SETNX', KEYS[2], 0)
+          return redis.call('INCRBY', KEYS[3], ARGV[2])
+          """,
+          Long.class);
+
+  static final RedisScript<Long> UNLOCK_SCRIPT =
+      RedisScript.of(
+          "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+              + "return redis.call('DEL', KEYS[1]) end return 0",
+          Long.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final VariantRepository variantRepository;
+  private final ProductRepository productRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final boolean enabled;
+  private final Counter flushedUnits;
+  private final Counter driftUnits;
+
+  public HotStockServiceImpl(
+      StringRedisTemplate redisTemplate,
+      VariantRepository variantRepository,
+      ProductRepository productRepository,
+      TransactionTemplate transactionTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${app.inventory.hot.enabled}") boolean enabled) {
+    this.redisTemplate = redisTemplate;
+    this.variantRepository = variantRepository;
+    this.productRepository = productRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.enabled = enabled;
+    this.flushedUnits = meterRegistry.counter("inventory.hot.flushed");
+    this.driftUnits = meterRegistry.counter("inventory.hot.drift");
+  }
+
+  @Override
+  public Set<String> reserve(Map<String, Integer> quantities) {
+    if (!enabled || quantities.isEmpty()) {
+      return Set.of();
+    }
+    var ids = List.copyOf(quantities.keySet());
+    List<?> result;
+    try {
+      result = redisTemplate.execute(RESERVE_SCRIPT, keys(ids), arguments(ids, quantities));
+    } catch (RuntimeException e) {
+      // MySQL is behind by the pending units, so a flagged SKU cannot fall back to it
+      log.error("Failed to reserve hot stock: {}", e.getMessage());
+      throw new CustomRuntimeException(ErrorCode.SERVICE_BUSY);
+    }
+    if (((Number) result.get(0)).longValue() < 0) {
+      throw new CustomRuntimeException(ErrorCode.OUT_OF_STOCK);
+    }
+    Map<String, Integer> reserved = new LinkedHashMap<>();
+    for (int i = 0; i < ids.size(); i++) {
+      if (((Number) result.get(i)).longValue() == 1) {
+        reserved.put(ids.get(i), quantities.get(ids.get(i)));
+      }
+    }
+    return reserved.keySet();
+  }
+
+  @Override
+  public void release(Map<String, Integer> reserved) {
+    if (reserved.isEmpty()) {
+      return;
+    }
+    var ids = List.copyOf(reserved.keySet());
+    try {
+      redisTemplate.execute(RELEASE_SCRIPT, keys(ids), arguments(ids, reserved));
+    } catch (RuntimeException e) {
+      // the next reconciliation gives the units back
+      log.warn("Failed to release hot stock {}: {}", reserved, e.getMessage());
+    }
+  }
+
+  @Override
+  public void restock(Map<String, Integer> quantities) {
+    if (!enabled || quantities.isEmpty()) {
+      return;
+    }
+    var ids = List.copyOf(quantities.keySet());
+    var stockKeys = ids.stream().map(id -> STOCK_KEY_PREFIX + id).toList();
+    try {
+      redisTemplate.execute(RESTOCK_SCRIPT, stockKeys, arguments(ids, quantities));
+    } catch (RuntimeException e) {
+      // the next reconciliation sets the counters from MySQL
+      log.warn("Failed to restock hot stock {}: {}", quantities, e.getMessage());
+    }
+  }
+
+  @Override
+  public void flag(String variantId) {
+    if (!enabled) {
+      throw new CustomRuntimeException(ErrorCode.HOT_STOCK_DISABLED);
+    }
+    // the locking read waits for MySQL reservations in flight, so the seed already counts them
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          var variant =
+              variantRepository
+                  .findActiveForUpdate(variantId)
+                  .orElseThrow(() -> new CustomRuntimeException(ErrorCode.VARIANT_NOT_FOUND));
+          redisTemplate
+              .opsForValue()
+              .setIfAbsent(
+                  STOCK_KEY_PREFIX + variantId, String.valueOf(variant.getStock_quantity()));
+          redisTemplate.opsForSet().add(HOT_KEY, variantId);
+        });
+  }
+
+  @Override
+  public void unflag(String variantId) {
+    if (!enabled) {
+      throw new CustomRuntimeException(ErrorCode.HOT_STOCK_DISABLED);
+    }
+    withLock(
+        () -> {
+          var keys =
+              List.of(HOT_KEY, STOCK_KEY_PREFIX + variantId, PENDING_KEY_PREFIX + variantId);
+          var pending = redisTemplate.execute(UNFLAG_SCRIPT, keys, variantId);
+          var amount = pending == null ? 0L : pending;
+          try {
+            writeBack(Map.of(variantId, amount));
+          } catch (RuntimeException e) {
+            log.error("Failed to write back hot stock of {}, keeping it flagged", variantId);
+            redisTemplate.execute(REFLAG_SCRIPT, keys, variantId, String.valueOf(amount));
+            throw e;
+          }
+        },
+        true);
+  }
+
+  @Scheduled(fixedDelayString = "${app.inventory.hot.flush-millis}")
+  public void flushReservations() {
+    if (enabled) {
+      withLock(this::flush, false);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${app.inventory.hot.reconcile-millis}")
+  public void reconcile() {
+    if (enabled) {
+      withLock(
+          () -> {
+            // written back first, so MySQL minus pending is the true stock
+            var ids = flush();
+            for (var variant : variantRepository.findAllById(ids)) {
+              var drift =
+                  redisTemplate.execute(
+                      RECONCILE_SCRIPT,
+                      List.of(
+                          STOCK_KEY_PREFIX + variant.getId(), PENDING_KEY_PREFIX + variant.getId()),
+                      String.valueOf(variant.getStock_quantity()));
+              if (drift != null && drift != 0) {
+                driftUnits.increment(Math.abs(drift));
+                log.warn("Corrected hot stock of variant {} by {}", variant.getId(), -drift);
+              }
+            }
+          },
+          false);
+    }
+  }
+
+  // drains the pending units of every flagged variant into MySQL, returns the flagged ids
+  List<String> flush() {
+    var members = redisTemplate.opsForSet().members(HOT_KEY);
+    var ids = members == null ? List.<String>of() : List.copyOf(members);
+    if (ids.isEmpty()) {
+      return ids;
+    }
+    var pendingKeys = ids.stream().map(id -> PENDING_KEY_PREFIX + id).toList();
+    List<?> amounts = redisTemplate.execute(DRAIN_SCRIPT, pendingKeys);
+    Map<String, Long> drained = new TreeMap<>();
+    for (int i = 0; i < ids.size(); i++) {
+      var amount = ((Number) amounts.get(i)).longValue();
+      if (amount != 0) {
+        drained.put(ids.get(i), amount);
+      }
+    }
+    try {
+      writeBack(drained);
+    } catch (RuntimeException e) {
+      log.error("Failed to write back hot stock, keeping it pending: {}", e.getMessage());
+      drained.forEach(
+          (id, amount) -> redisTemplate.opsForValue().increment(PENDING_KEY_PREFIX + id, amount));
+    }
+    return ids;
+  }
+
+  // one transaction per batch, rows in id order like the checkout
+  void writeBack(Map<String, Long> drained) {
+    if (drained.values().stream().allMatch(amount -> amount == 0)) {
+      return;
+    }
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          Map<String, Integer> productQuantities = new TreeMap<>();
+          for (var variant : variantRepository.findAllById(drained.keySet())) {
+            var amount = Math.toIntExact(drained.get(variant.getId()));
+            productQuantities.merge(variant.getProduct().getId(), amount, Integer::sum);
+          }
+          for (var entry : new TreeMap<>(drained).entrySet()) {
+            variantRepository.decreaseStock(entry.getKey(), Math.toIntExact(entry.getValue()));
+          }
+          productQuantities.forEach(productRepository::decreaseTotalStock);
+        });
+    flushedUnits.increment(drained.values().stream().mapToLong(Long::longValue).sum());
+  }
+
+  // flush, reconcile and unflag run on one instance at a time
+  void withLock(Runnable task, boolean required) {
+    var token = UUID.randomUUID().toString();
+    var locked = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, token, LOCK_TTL);
+    if (!Boolean.TRUE.equals(locked)) {
+      if (required) {
+        throw new CustomRuntimeException(ErrorCode.SERVICE_BUSY);
+      }
+      return;
+    }
+    try {
+      task.run();
+    } catch (RuntimeException e) {
+      if (required) {
+        throw e;
+      }
+      log.error("Hot stock job failed: {}", e.getMessage());
+    } finally {
+      redisTemplate.execute(UNLOCK_SCRIPT, List.of(LOCK_KEY), token);
+    }
+  }
+
+  static List<String> keys(List<String> ids) {
+    List<String> keys = new ArrayList<>(ids.size() * 2);
+    ids.forEach(id -> keys.add(STOCK_KEY_PREFIX + id));
+    ids.forEach(id -> keys.add(PENDING_KEY_PREFIX + id));
+    return keys;
+  }
+
+  static Object[] arguments(List<String> ids, Map<String, Integer> quantities) {
+    return ids.stream().map(id -> String.valueOf(quantities.get(id))).toArray();
+  }
+}
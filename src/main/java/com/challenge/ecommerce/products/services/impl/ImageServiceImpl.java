@@ -26,6 +26,7 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ImageServiceImpl implements IImageService {
   ImageRepository imageRepository;
+  ProductDetailCache productDetailCache;
 
   @Override
   public void updateImage(List<ProductImageCreateDto> list, ProductEntity product) {
@@ -77,6 +78,7 @@ public class ImageServiceImpl implements IImageService {
 
     // Save new images
     imageRepository.saveAll(imageEntities);
+    productDetailCache.evict(product.getSlug());
   }
 
   // Method to soft-delete a thumbnail by setting `deletedAt`
@@ -0,0 +1,48 @@
+package com.challenge.ecommerce.products.services.impl;
+
+import com.challenge.ecommerce.orders.services.impl.OrderStatusChangedEvent;
+import com.challenge.ecommerce.outbox.services.IOutboxListener;
+import com.challenge.ecommerce.products.repositories.ProductRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// the cached details of ordered products show the stock that an order just changed
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ProductCacheListener implements IOutboxListener<OrderStatusChangedEvent> {
+
+  ProductRepository productRepository;
+  ProductDetailCache productDetailCache;
+
+  @Override
+  public String consumer() {
+    return "product-detail-cache";
+  }
+
+  @Override
+  public String eventType() {
+    return OrderStatusChangedEvent.TYPE;
+  }
+
+  @Override
+  public Class<OrderStatusChangedEvent> payloadType() {
+    return OrderStatusChangedEvent.class;
+  }
+
+  @Override
+  public void handle(OrderStatusChangedEvent event) {
+    Set<String> productIds =
+        event.items().stream()
+            .map(OrderStatusChangedEvent.Line::productId)
+            .collect(Collectors.toSet());
+    if (!productIds.isEmpty()) {
+      productRepository.findSlugsByIds(productIds).forEach(productDetailCache::evict);
+    }
+  }
+}
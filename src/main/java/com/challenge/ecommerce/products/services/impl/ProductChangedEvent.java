@@ -0,0 +1,4 @@
+package com.challenge.ecommerce.products.services.impl;
+
+/** Published when a product is created, updated or deleted. */
+public record ProductChangedEvent(String productId) {}
@@ -0,0 +1,54 @@
+package com.challenge.ecommerce.products.services.impl;
+
+import com.challenge.ecommerce.products.controllers.dto.ProductResponse;
+import com.challenge.ecommerce.utils.cache.AfterCommit;
+import com.challenge.ecommerce.utils.cache.TwoTierCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/** Read-through cache of product detail responses keyed by slug, local LRU then Redis. */
+@Component
+public class ProductDetailCache {
+
+  static final String KEY_PREFIX = "product:detail:";
+
+  private final TwoTierCache<ProductResponse> cache;
+
+  public ProductDetailCache(
+      RedisTemplate<String, Object> redisTemplate,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${app.cache.product.local-max-size}") int localMaxSize,
+      @Value("${app.cache.product.local-ttl-seconds}") long localTtlSeconds,
+      @Value("${app.cache.product.redis-ttl-seconds}") long redisTtlSeconds) {
+    this.cache =
+        new TwoTierCache<>(
+            "product.cache",
+            redisTemplate,
+            objectMapper,
+            objectMapper.constructType(ProductResponse.class),
+            meterRegistry,
+            localMaxSize,
+            Duration.ofSeconds(localTtlSeconds),
+            Duration.ofSeconds(redisTtlSeconds));
+  }
+
+  public ProductResponse get(String slug, Supplier<ProductResponse> loader) {
+    return cache.get(KEY_PREFIX + slug, loader);
+  }
+
+  /** Drops the slug now and, when called inside a transaction, again once it has committed. */
+  public void evict(String slug) {
+    if (slug == null) {
+      return;
+    }
+    AfterCommit.runNowAndAfterCommit(() -> cache.evict(List.of(KEY_PREFIX + slug)));
+  }
+}
@@ -27,6 +27,7 @@ public class ProductOptionServiceImpl implements IProductOptionService {
   OptionRepository optionRepository;
   ProductOptionRepository productOptionRepository;
   IProductOptionValueService productOptionValueService;
+  ProductDetailCache productDetailCache;
 
   @Override
   public void updateProductOptionAndOptionValues(
@@ -57,5 +58,6 @@ public class ProductOptionServiceImpl implements IProductOptionService {
       // Update OptionValue
       productOptionValueService.updateOptionValues(optionDto, productOption, variant);
     }
+    productDetailCache.evict(product.getSlug());
   }
 }
@@ -0,0 +1,148 @@
+package com.challenge.ecommerce.products.services.impl;
+
+import com.challenge.ecommerce.products.controllers.dto.*;
+import com.challenge.ecommerce.products.mappers.*;
+import com.challenge.ecommerce.products.models.OptionEntity;
+import com.challenge.ecommerce.products.models.ProductEntity;
+import com.challenge.ecommerce.products.models.ProductStatsEntity;
+import com.challenge.ecommerce.products.models.VariantEntity;
+import com.challenge.ecommerce.products.repositories.ImageRepository;
+import com.challenge.ecommerce.products.repositories.ProductOptionRepository;
+import com.challenge.ecommerce.products.repositories.ProductStatsRepository;
+import com.challenge.ecommerce.products.repositories.VariantRepository;
+import com.challenge.ecommerce.products.repositories.VariantValueRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Builds the {@link ProductResponse} tree for a page of products. Images, variants, product
+ * options, variant values and stats are loaded with one IN-list query each, so the number of
+ * round-trips does not depend on the page size or on the number of variants and options per
+ * product.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ProductResponseAssembler {
+
+  ImageRepository imageRepository;
+  VariantRepository variantRepository;
+  ProductOptionRepository productOptionRepository;
+  VariantValueRepository variantValueRepository;
+  ProductStatsRepository productStatsRepository;
+
+  IProductMapper mapper;
+  IImageMapper imageMapper;
+  IVariantMapper variantMapper;
+  IOptionMapper optionMapper;
+  IOptionValueMapper optionValueMapper;
+
+  public ProductResponse assemble(ProductEntity product) {
+    return assemble(List.of(product)).get(0);
+  }
+
+  public List<ProductResponse> assemble(List<ProductEntity> products) {
+    if (products.isEmpty()) {
+      return new ArrayList<>();
+    }
+    var productIds = products.stream().map(ProductEntity::getId).toList();
+
+    // images by product
+    Map<String, List<ProductImageResponse>> imagesByProduct = new HashMap<>();
+    for (var image : imageRepository.findByProductIdsAndDeletedAtIsNull(productIds)) {
+      imagesByProduct
+          .computeIfAbsent(image.getProduct().getId(), k -> new ArrayList<>())
+          .add(imageMapper.imageEntityToDto(image));
+    }
+
+    // options by product, de-duplicated by option id
+    Map<String, Map<String, OptionEntity>> optionsByProduct = new HashMap<>();
+    var productOptions = productOptionRepository.findByProductIdsAndDeletedAtIsNull(productIds);
+    for (var productOption : productOptions) {
+      optionsByProduct
+          .computeIfAbsent(productOption.getProduct().getId(), k -> new LinkedHashMap<>())
+          .putIfAbsent(productOption.getOption().getId(), productOption.getOption());
+    }
+
+    // option values by variant, then by option
+    var variants = variantRepository.findByProductIdsAndDeletedAtIsNull(productIds);
+    Map<String, Map<String, List<OptionValueResponse>>> valuesByVariant = new HashMap<>();
+    if (!variants.isEmpty()) {
+      var variantIds = variants.stream().map(VariantEntity::getId).toList();
+      var variantValues = variantValueRepository.findByVariantIdsAndDeletedAtIsNull(variantIds);
+      for (var variantValue : variantValues) {
+        valuesByVariant
+            .computeIfAbsent(variantValue.getVariant().getId(), k -> new HashMap<>())
+            .computeIfAbsent(variantValue.getOption().getId(), k -> new ArrayList<>())
+            .add(optionValueMapper.optionValueEntityToDto(variantValue.getOptionValue()));
+      }
+    }
+
+    Map<String, List<VariantShortResponse>> variantsByProduct = new HashMap<>();
+    for (var variant : variants) {
+      var productId = variant.getProduct().getId();
+      var variantResponse = variantMapper.variantEntityToShortDto(variant);
+      variantResponse.setOptions(
+          buildOptions(
+              optionsByProduct.getOrDefault(productId, Map.of()).values(),
+              valuesByVariant.getOrDefault(variant.getId(), Map.of())));
+      variantsByProduct.computeIfAbsent(productId, k -> new ArrayList<>()).add(variantResponse);
+    }
+
+    Map<String, ProductStatsEntity> statsByProduct = new HashMap<>();
+    for (var stats : productStatsRepository.findAllById(productIds)) {
+      statsByProduct.put(stats.getProductId(), stats);
+    }
+
+    return products.stream()
+        .map(
+            product -> {
+              var resp = mapper.productEntityToDto(product);
+              resp.setImages(imagesByProduct.getOrDefault(product.getId(), new ArrayList<>()));
+              resp.setVariants(variantsByProduct.getOrDefault(product.getId(), new ArrayList<>()));
+              setTotals(resp, statsByProduct.get(product.getId()));
+              return resp;
+            })
+        .toList();
+  }
+
+  // products without a stats row yet have no favorites, ratings or sales
+  void setTotals(ProductResponse resp, ProductStatsEntity stats) {
+    if (stats == null) {
+      stats = new ProductStatsEntity();
+    }
+    resp.setTotalFavorites((int) Math.max(0, stats.getFavoriteCount()));
+    resp.setTotalRates((int) stats.getRatingCount());
+    resp.setTotalSold((int) stats.getSoldCount());
+    if (stats.getRatingCount() > 0) {
+      resp.setAverageRating((double) stats.getRatingSum() / stats.getRatingCount());
+    }
+    Map<Integer, Long> distribution = new LinkedHashMap<>();
+    distribution.put(1, stats.getRating1());
+    distribution.put(2, stats.getRating2());
+    distribution.put(3, stats.getRating3());
+    distribution.put(4, stats.getRating4());
+    distribution.put(5, stats.getRating5());
+    resp.setRatingDistribution(distribution);
+  }
+
+  // only options that carry at least one value for the variant are returned
+  List<OptionResponse> buildOptions(
+      Collection<OptionEntity> options, Map<String, List<OptionValueResponse>> valuesByOption) {
+    List<OptionResponse> optionResponses = new ArrayList<>();
+    for (var option : options) {
+      var values = valuesByOption.get(option.getId());
+      if (values == null || values.isEmpty()) {
+        continue;
+      }
+      var optionResp = optionMapper.optionEntityToShortDto(option);
+      optionResp.setOptionValues(values);
+      optionResponses.add(optionResp);
+    }
+    return optionResponses;
+  }
+}
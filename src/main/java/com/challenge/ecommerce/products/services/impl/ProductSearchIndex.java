@@ -0,0 +1,349 @@
+package com.challenge.ecommerce.products.services.impl;
+
+import com.challenge.ecommerce.utils.StringHelper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over active products, ranked with BM25. Title, category name, option
+ * values and description are folded to ASCII with the same normalization as product slugs and
+ * weighted into a single term frequency per product. The last query term also matches as a
+ * prefix. Every update replaces a whole product and carries the time the product was read from
+ * the database, so a slow bulk load never overwrites a newer change.
+ */
+class ProductSearchIndex {
+
+  static final double K1 = 1.2;
+  static final double B = 0.75;
+  static final double PREFIX_BOOST = 0.5;
+  static final int MAX_PREFIX_TERMS = 64;
+
+  static final int TITLE_WEIGHT = 3;
+  static final int CATEGORY_WEIGHT = 2;
+  static final int OPTION_WEIGHT = 2;
+  static final int DESCRIPTION_WEIGHT = 1;
+
+  // upper bounds of the price facet buckets, the last bucket is open-ended
+  static final long[] PRICE_BUCKETS = {100_000, 500_000, 1_000_000, 5_000_000};
+
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final TreeMap<String, Postings> terms = new TreeMap<>();
+  private final Map<Integer, Document> documents = new HashMap<>();
+  private final Map<String, Integer> docIds = new HashMap<>();
+  // load time of the latest put or remove per product, removals included
+  private final Map<String, Long> versions = new HashMap<>();
+  // document length by doc id, read for every posting while scoring
+  private int[] lengths = new int[1024];
+  private int nextDocId;
+  private long totalLength;
+
+  record Document(
+      String productId,
+      String categorySlug,
+      BigDecimal price,
+      Map<String, Integer> frequencies,
+      int length) {
+
+    static Document of(
+        String productId,
+        String title,
+        String description,
+        String categoryName,
+        String categorySlug,
+        BigDecimal price,
+        Collection<String> optionValues) {
+      Map<String, Integer> frequencies = new HashMap<>();
+      count(frequencies, title, TITLE_WEIGHT);
+      count(frequencies, categoryName, CATEGORY_WEIGHT);
+      for (var value : optionValues) {
+        count(frequencies, value, OPTION_WEIGHT);
+      }
+      count(frequencies, description, DESCRIPTION_WEIGHT);
+      var length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+      return new Document(productId, categorySlug, price, frequencies, length);
+    }
+
+    private static void count(Map<String, Integer> frequencies, String text, int weight) {
+      for (var term : tokenize(text)) {
+        frequencies.merge(term, weight, Integer::sum);
+      }
+    }
+  }
+
+  record Result(
+      List<String> productIds,
+      long total,
+      Map<String, Long> categories,
+      Map<String, Long> priceRanges) {}
+
+  // đ has no decomposition, so it is mapped before the slug normalization drops it
+  static List<String> tokenize(String text) {
+    if (text == null || text.isBlank()) {
+      return List.of();
+    }
+    var spaced = SEPARATORS.matcher(text.replace('đ', 'd').replace('Đ', 'D')).replaceAll(" ");
+    var folded = StringHelper.toSlug(spaced.strip());
+    return Arrays.stream(folded.split("-")).filter(term -> !term.isEmpty()).toList();
+  }
+
+  static String priceBucket(BigDecimal price) {
+    if (price == null) {
+      return null;
+    }
+    long lower = 0;
+    for (var upper : PRICE_BUCKETS) {
+      if (price.compareTo(BigDecimal.valueOf(upper)) < 0) {
+        return lower + "-" + upper;
+      }
+      lower = upper;
+    }
+    return lower + "+";
+  }
+
+  /** Adds or replaces a product, unless a newer version of it was already applied. */
+  boolean put(Document document, long version) {
+    lock.writeLock().lock();
+    try {
+      if (!advance(document.productId(), version)) {
+        return false;
+      }
+      unindex(document.productId());
+      var docId = nextDocId++;
+      if (docId == lengths.length) {
+        lengths = Arrays.copyOf(lengths, docId * 2);
+      }
+      lengths[docId] = document.length();
+      for (var entry : document.frequencies().entrySet()) {
+        terms.computeIfAbsent(entry.getKey(), term -> new Postings()).add(docId, entry.getValue());
+      }
+      documents.put(docId, document);
+      docIds.put(document.productId(), docId);
+      totalLength += document.length();
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  boolean remove(String productId, long version) {
+    lock.writeLock().lock();
+    try {
+      if (!advance(productId, version)) {
+        return false;
+      }
+      unindex(productId);
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  int size() {
+    lock.readLock().lock();
+    try {
+      return documents.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private boolean advance(String productId, long version) {
+    var current = versions.get(productId);
+    if (current != null && current > version) {
+      return false;
+    }
+    versions.put(productId, version);
+    return true;
+  }
+
+  private void unindex(String productId) {
+    var docId = docIds.remove(productId);
+    if (docId == null) {
+      return;
+    }
+    var document = documents.remove(docId);
+    for (var term : document.frequencies().keySet()) {
+      var postings = terms.get(term);
+      postings.remove(docId);
+      if (postings.size == 0) {
+        terms.remove(term);
+      }
+    }
+    totalLength -= document.length();
+  }
+
+  /**
+   * Finds the products containing every query term. Category counts ignore the category filter
+   * and price counts ignore the price filter, so each facet shows the alternatives to its own
+   * selection.
+   */
+  Result search(
+      String query,
+      String categorySlug,
+      BigDecimal minPrice,
+      BigDecimal maxPrice,
+      long offset,
+      int limit) {
+    var queryTerms = tokenize(query);
+    if (queryTerms.isEmpty()) {
+      return new Result(List.of(), 0, Map.of(), Map.of());
+    }
+    lock.readLock().lock();
+    try {
+      var scores = match(queryTerms);
+      Map<String, Long> categories = new TreeMap<>();
+      Map<String, Long> priceRanges = new LinkedHashMap<>();
+      List<Map.Entry<Integer, Double>> hits = new ArrayList<>();
+      for (var entry : scores.entrySet()) {
+        var document = documents.get(entry.getKey());
+        var inCategory = categorySlug == null || categorySlug.equals(document.categorySlug());
+        var inPrice = inPriceRange(document.price(), minPrice, maxPrice);
+        if (inPrice && document.categorySlug() != null) {
+          categories.merge(document.categorySlug(), 1L, Long::sum);
+        }
+        var bucket = priceBucket(document.price());
+        if (inCategory && bucket != null) {
+          priceRanges.merge(bucket, 1L, Long::sum);
+        }
+        if (inCategory && inPrice) {
+          hits.add(entry);
+        }
+      }
+      hits.sort(
+          Map.Entry.<Integer, Double>comparingByValue(Comparator.reverseOrder())
+              .thenComparing(Map.Entry.comparingByKey()));
+      var productIds =
+          hits.stream()
+              .skip(offset)
+              .limit(limit)
+              .map(hit -> documents.get(hit.getKey()).productId())
+              .toList();
+      return new Result(productIds, hits.size(), categories, sortBuckets(priceRanges));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // BM25 score per document, intersected over the query terms
+  private Map<Integer, Double> match(List<String> queryTerms) {
+    var averageLength = documents.isEmpty() ? 1.0 : (double) totalLength / documents.size();
+    Map<Integer, Double> scores = null;
+    for (int i = 0; i < queryTerms.size(); i++) {
+      var term = queryTerms.get(i);
+      Map<String, Postings> matches =
+          i == queryTerms.size() - 1 ? expand(term) : single(term, terms.get(term));
+      Map<Integer, Double> termScores = new HashMap<>();
+      for (var match : matches.entrySet()) {
+        var boost = match.getKey().equals(term) ? 1.0 : PREFIX_BOOST;
+        score(match.getValue(), boost, averageLength, termScores);
+      }
+      if (scores == null) {
+        scores = termScores;
+      } else {
+        scores.keySet().retainAll(termScores.keySet());
+        for (var entry : scores.entrySet()) {
+          entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+        }
+      }
+      if (scores.isEmpty()) {
+        break;
+      }
+    }
+    return scores;
+  }
+
+  private Map<String, Postings> expand(String prefix) {
+    Map<String, Postings> matches = new LinkedHashMap<>();
+    for (var entry : terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()) {
+      if (matches.size() == MAX_PREFIX_TERMS) {
+        break;
+      }
+      matches.put(entry.getKey(), entry.getValue());
+    }
+    return matches;
+  }
+
+  private static Map<String, Postings> single(String term, Postings postings) {
+    return postings == null ? Map.of() : Map.of(term, postings);
+  }
+
+  private void score(
+      Postings postings, double boost, double averageLength, Map<Integer, Double> termScores) {
+    var n = documents.size();
+    var idf = Math.log(1 + (n - postings.size + 0.5) / (postings.size + 0.5));
+    for (int j = 0; j < postings.size; j++) {
+      var docId = postings.docs[j];
+      double tf = postings.frequencies[j];
+      var norm = K1 * (1 - B + B * lengths[docId] / averageLength);
+      var score = boost * idf * tf * (K1 + 1) / (tf + norm);
+      termScores.merge(docId, score, Math::max);
+    }
+  }
+
+  private static boolean inPriceRange(BigDecimal price, BigDecimal min, BigDecimal max) {
+    if (min == null && max == null) {
+      return true;
+    }
+    if (price == null) {
+      return false;
+    }
+    return (min == null || price.compareTo(min) >= 0) && (max == null || price.compareTo(max) <= 0);
+  }
+
+  private static Map<String, Long> sortBuckets(Map<String, Long> counts) {
+    Map<String, Long> sorted = new LinkedHashMap<>();
+    long lower = 0;
+    for (var upper : PRICE_BUCKETS) {
+      var bucket = lower + "-" + upper;
+      if (counts.containsKey(bucket)) {
+        sorted.put(bucket, counts.get(bucket));
+      }
+      lower = upper;
+    }
+    var last = lower + "+";
+    if (counts.containsKey(last)) {
+      sorted.put(last, counts.get(last));
+    }
+    return sorted;
+  }
+
+  // doc ids are handed out in increasing order, so appending keeps every list sorted
+  static final class Postings {
+    int[] docs = new int[2];
+    int[] frequencies = new int[2];
+    int size;
+
+    void add(int docId, int frequency) {
+      if (size == docs.length) {
+        docs = Arrays.copyOf(docs, size * 2);
+        frequencies = Arrays.copyOf(frequencies, size * 2);
+      }
+      docs[size] = docId;
+      frequencies[size] = frequency;
+      size++;
+    }
+
+    void remove(int docId) {
+      var i = Arrays.binarySearch(docs, 0, size, docId);
+      if (i < 0) {
+        return;
+      }
+      System.arraycopy(docs, i + 1, docs, i, size - i - 1);
+      System.arraycopy(frequencies, i + 1, frequencies, i, size - i - 1);
+      size--;
+    }
+  }
+}
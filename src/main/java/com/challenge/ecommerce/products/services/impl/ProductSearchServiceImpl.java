@@ -0,0 +1,188 @@
+package com.challenge.ecommerce.products.services.impl;
+
+import com.challenge.ecommerce.categories.services.impl.CategoryChangedEvent;
+import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
+import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
+import com.challenge.ecommerce.products.controllers.dto.ProductSearchResponse;
+import com.challenge.ecommerce.products.models.ProductEntity;
+import com.challenge.ecommerce.products.repositories.ProductRepository;
+import com.challenge.ecommerce.products.repositories.VariantValueRepository;
+import com.challenge.ecommerce.products.services.IProductSearchService;
+import com.challenge.ecommerce.utils.ApiResponse;
+import com.challenge.ecommerce.utils.StringHelper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a {@link ProductSearchIndex} of all active products. The index is loaded in the
+ * background once the application is ready and then follows {@link ProductChangedEvent}s from
+ * the product write paths and {@link CategoryChangedEvent}s, since documents carry the category
+ * name.
+ */
+@Service
+@Slf4j
+public class ProductSearchServiceImpl implements IProductSearchService {
+
+  static final int LOAD_BATCH_SIZE = 500;
+  static final int MAX_PAGE_SIZE = 100;
+
+  private final ProductRepository productRepository;
+  private final VariantValueRepository variantValueRepository;
+  private final ProductResponseAssembler assembler;
+  private final ProductSearchIndex index = new ProductSearchIndex();
+
+  private volatile boolean ready;
+
+  public ProductSearchServiceImpl(
+      ProductRepository productRepository,
+      VariantValueRepository variantValueRepository,
+      ProductResponseAssembler assembler) {
+    this.productRepository = productRepository;
+    this.variantValueRepository = variantValueRepository;
+    this.assembler = assembler;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadIndex() {
+    Thread.ofVirtual().name("product-search-bootstrap").start(this::loadAll);
+  }
+
+  void loadAll() {
+    try {
+      var start = System.nanoTime();
+      var afterId = "";
+      while (true) {
+        var version = System.nanoTime();
+        var products = productRepository.findSearchableAfter(afterId, Limit.of(LOAD_BATCH_SIZE));
+        if (products.isEmpty()) {
+          break;
+        }
+        put(products, version);
+        afterId = products.get(products.size() - 1).getId();
+      }
+      ready = true;
+      log.info(
+          "Indexed {} products for search in {} ms",
+          index.size(),
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    } catch (RuntimeException e) {
+      log.error("Failed to build the product search index: {}", e.getMessage());
+    }
+  }
+
+  // runs after the commit when the product was written in a transaction
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProductChanged(ProductChangedEvent event) {
+    reindex(List.of(event.productId()));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCategoryChanged(CategoryChangedEvent event) {
+    var productIds = productRepository.findIdsByCategoryId(event.categoryId());
+    for (int from = 0; from < productIds.size(); from += LOAD_BATCH_SIZE) {
+      reindex(productIds.subList(from, Math.min(from + LOAD_BATCH_SIZE, productIds.size())));
+    }
+  }
+
+  void reindex(Collection<String> productIds) {
+    var version = System.nanoTime();
+    var products = productRepository.findSearchableByIds(productIds);
+    put(products, version);
+    var found = products.stream().map(ProductEntity::getId).collect(Collectors.toSet());
+    for (var productId : productIds) {
+      if (!found.contains(productId)) {
+        index.remove(productId, version);
+      }
+    }
+  }
+
+  private void put(List<ProductEntity> products, long version) {
+    if (products.isEmpty()) {
+      return;
+    }
+    var ids = products.stream().map(ProductEntity::getId).toList();
+    Map<String, Collection<String>> optionValues = new HashMap<>();
+    for (var value : variantValueRepository.findOptionValueNamesByProductIds(ids)) {
+      optionValues.computeIfAbsent(value.productId(), id -> new HashSet<>()).add(value.valueName());
+    }
+    for (var product : products) {
+      var document =
+          ProductSearchIndex.Document.of(
+              product.getId(),
+              product.getTitle(),
+              product.getDescription(),
+              product.getCategory().getName(),
+              product.getCategorySlug(),
+              product.getMinPrice(),
+              optionValues.getOrDefault(product.getId(), List.of()));
+      index.put(document, version);
+    }
+  }
+
+  @Override
+  public ApiResponse<?> search(
+      String query, String category, Integer minPrice, Integer maxPrice, int page, int size) {
+    if (size < 1) {
+      throw new CustomRuntimeException(ErrorCode.PAGE_SIZE_POSITIVE);
+    }
+    if (page < 0) {
+      throw new CustomRuntimeException(ErrorCode.PAGE_NUMBER_NEGATIVE);
+    }
+    size = Math.min(size, MAX_PAGE_SIZE);
+    if (!ready) {
+      throw new CustomRuntimeException(ErrorCode.SEARCH_INDEX_NOT_READY);
+    }
+    var categorySlug =
+        category == null || category.isEmpty() ? null : StringHelper.toSlug(category);
+    var result =
+        index.search(
+            query,
+            categorySlug,
+            minPrice == null ? null : BigDecimal.valueOf(minPrice),
+            maxPrice == null ? null : BigDecimal.valueOf(maxPrice),
+            Math.multiplyExact((long) page, size),
+            size);
+
+    // keep the ranking order, a product deleted since the search is left out
+    Map<String, ProductEntity> products =
+        result.productIds().isEmpty()
+            ? Map.of()
+            : productRepository.findSearchableByIds(result.productIds()).stream()
+                .collect(Collectors.toMap(ProductEntity::getId, Function.identity()));
+    List<ProductEntity> ranked = new ArrayList<>();
+    for (var productId : result.productIds()) {
+      if (products.containsKey(productId)) {
+        ranked.add(products.get(productId));
+      }
+    }
+    var response =
+        ProductSearchResponse.builder()
+            .products(assembler.assemble(ranked))
+            .categories(result.categories())
+            .priceRanges(result.priceRanges())
+            .build();
+    return ApiResponse.builder()
+        .result(response)
+        .total(result.total())
+        .totalPages((int) ((result.total() + size - 1) / size))
+        .page(page)
+        .limit(ranked.size())
+        .message("Search products successfully")
+        .build();
+  }
+}
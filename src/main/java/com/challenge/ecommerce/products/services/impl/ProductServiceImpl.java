@@ -1,28 +1,41 @@
 package com.challenge.ecommerce.products.services.impl;
 
+import com.challenge.ecommerce.categories.models.CategoryClosureEntity;
+import com.challenge.ecommerce.categories.models.CategoryEntity;
 import com.challenge.ecommerce.categories.repositories.CategoryRepository;
 import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
 import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
 import com.challenge.ecommerce.products.controllers.dto.*;
-import com.challenge.ecommerce.products.mappers.*;
-import com.challenge.ecommerce.products.models.*;
-import com.challenge.ecommerce.products.repositories.*;
+import com.challenge.ecommerce.products.mappers.IProductMapper;
+import com.challenge.ecommerce.products.models.ProductEntity;
+import com.challenge.ecommerce.products.repositories.ProductRepository;
 import com.challenge.ecommerce.products.services.*;
 import com.challenge.ecommerce.utils.ApiResponse;
 import com.challenge.ecommerce.utils.StringHelper;
+import com.challenge.ecommerce.utils.pagination.KeysetCursor;
+import com.challenge.ecommerce.utils.pagination.KeysetPage;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -34,17 +47,13 @@ public class ProductServiceImpl implements IProductService {
   IVariantService variantService;
   IProductOptionService productOptionService;
 
-  ProductOptionRepository productOptionRepository;
-  VariantValueRepository variantValueRepository;
   CategoryRepository categoryRepository;
   ProductRepository productRepository;
-  ImageRepository imageRepository;
 
   IProductMapper mapper;
-  IImageMapper imageMapper;
-  IVariantMapper variantMapper;
-  IOptionMapper optionMapper;
-  IOptionValueMapper optionValueMapper;
+  ProductResponseAssembler assembler;
+  ProductDetailCache productDetailCache;
+  ApplicationEventPublisher eventPublisher;
 
   @Transactional
   @Override
@@ -55,6 +64,7 @@ public class ProductServiceImpl implements IProductService {
             .orElseThrow(() -> new CustomRuntimeException(ErrorCode.CATEGORY_NOT_FOUND));
     var product = mapper.productCreateDtoToEntity(request);
     product.setCategory(category);
+    product.setCategorySlug(category.getSlug());
 
     var title = StringHelper.changeFirstCharacterCase(request.getTitle());
     if (productRepository.existsByTitleAndDeletedAtIsNull(title)) {
@@ -65,6 +75,7 @@ public class ProductServiceImpl implements IProductService {
     product.setSlug(slug);
     product.setTitle(title);
     productRepository.save(product);
+    eventPublisher.publishEvent(new ProductChangedEvent(product.getId()));
 
     return mapper.productEntityToDto(product);
   }
@@ -72,46 +83,8 @@ public class ProductServiceImpl implements IProductService {
   @Override
   public ApiResponse<?> getListProducts(
       Pageable pageable, String category, Integer minPrice, Integer maxPrice) {
-    var products =
-        productRepository.findAll(
-            (root, query, criteriaBuilder) -> {
-              var predicates = new ArrayList<>();
-
-              // Check nullable deletedAt
-              predicates.add(criteriaBuilder.isNull(root.get("deletedAt")));
-
-              // Filter by category if provided
-              if (category != null && !category.isEmpty()) {
-                var categorySearch = StringHelper.toSlug(category);
-                var categoryJoin = root.join("category");
-                predicates.add(criteriaBuilder.equal(categoryJoin.get("slug"), categorySearch));
-              }
-
-              // Filter by minimum price if provided
-              if (minPrice != null) {
-                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("price"), minPrice));
-              }
-
-              // Filter by maximum price if provided
-              if (maxPrice != null) {
-                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("price"), maxPrice));
-              }
-
-              // Combine all predicates with AND
-              query.where(criteriaBuilder.and(predicates.toArray(new Predicate[0])));
-              return query.getRestriction();
-            },
-            pageable);
-    List<ProductResponse> productResponses =
-        products.stream()
-            .map(
-                product -> {
-                  var response = mapper.productEntityToDto(product);
-                  setListImage(response, product);
-                  setListVariant(response, product);
-                  return response;
-                })
-            .toList();
+    var products = productRepository.findAll(productFilter(category, minPrice, maxPrice), pageable);
+    List<ProductResponse> productResponses = assembler.assemble(products.getContent());
     return ApiResponse.builder()
         .totalPages(products.getTotalPages())
         .result(productResponses)
@@ -122,16 +95,100 @@ public class ProductServiceImpl implements IProductService {
         .build();
   }
 
+  @Override
+  public ApiResponse<?> getListProductsByCursor(
+      String cursor,
+      int size,
+      boolean ascending,
+      String category,
+      Integer minPrice,
+      Integer maxPrice) {
+    if (size < 1) {
+      throw new CustomRuntimeException(ErrorCode.PAGE_SIZE_POSITIVE);
+    }
+    var after = KeysetCursor.decode(cursor, ascending);
+    var spec = productFilter(category, minPrice, maxPrice);
+    if (after != null) {
+      spec = spec.and(KeysetCursor.seekAfter(after));
+    }
+    var direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+    var sort = Sort.by(direction, "createdAt", "id");
+
+    var products = productRepository.findBy(spec, q -> q.sortBy(sort).limit(size + 1).all());
+    var page =
+        KeysetPage.of(
+            products,
+            size,
+            product -> new KeysetCursor(ascending, product.getCreatedAt(), product.getId()));
+
+    return ApiResponse.builder()
+        .result(assembler.assemble(page.content()))
+        .limit(page.content().size())
+        .nextCursor(page.nextCursor())
+        .message("Get list product successfully")
+        .build();
+  }
+
+  Specification<ProductEntity> productFilter(String category, Integer minPrice, Integer maxPrice) {
+    return (root, query, criteriaBuilder) -> {
+      List<Predicate> predicates = new ArrayList<>();
+
+      // Check nullable deletedAt
+      predicates.add(criteriaBuilder.isNull(root.get("deletedAt")));
+
+      // Fetch the category with the page, but not in the count query
+      if (!Long.class.equals(query.getResultType())) {
+        root.fetch("category", JoinType.LEFT);
+      }
+
+      // Filter by category if provided, sub-categories included
+      if (category != null && !category.isEmpty()) {
+        var categorySearch = StringHelper.toSlug(category);
+        var subtree = subtreeOf(categorySearch, query, criteriaBuilder);
+        predicates.add(root.get("category").get("id").in(subtree));
+      }
+
+      // Filter by the lowest variant price, the "from" price shown in listings
+      Path<BigDecimal> fromPrice = root.get("minPrice");
+      if (minPrice != null) {
+        var from = BigDecimal.valueOf(minPrice);
+        predicates.add(criteriaBuilder.greaterThanOrEqualTo(fromPrice, from));
+      }
+      if (maxPrice != null) {
+        var to = BigDecimal.valueOf(maxPrice);
+        predicates.add(criteriaBuilder.lessThanOrEqualTo(fromPrice, to));
+      }
+
+      // Combine all predicates with AND
+      return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+    };
+  }
+
+  // ids of the category with the slug and of every category below it, from the closure table
+  static Subquery<String> subtreeOf(
+      String categorySlug, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+    Subquery<String> subtree = query.subquery(String.class);
+    Root<CategoryClosureEntity> closure = subtree.from(CategoryClosureEntity.class);
+    Root<CategoryEntity> ancestor = subtree.from(CategoryEntity.class);
+    return subtree
+        .select(closure.get("descendantId"))
+        .where(
+            criteriaBuilder.equal(closure.get("ancestorId"), ancestor.get("id")),
+            criteriaBuilder.equal(ancestor.get("slug"), categorySlug),
+            criteriaBuilder.isNull(ancestor.get("deletedAt")));
+  }
+
   @Override
   public ProductResponse getProductBySlug(String productSlug) {
-    var product =
-        productRepository
-            .findBySlugAndDeletedAtIsNull(productSlug)
-            .orElseThrow(() -> new CustomRuntimeException(ErrorCode.PRODUCT_NOT_FOUND));
-    var resp = mapper.productEntityToDto(product);
-    setListVariant(resp, product);
-    setListImage(resp, product);
-    return resp;
+    return productDetailCache.get(
+        productSlug,
+        () -> {
+          var product =
+              productRepository
+                  .findBySlugAndDeletedAtIsNull(productSlug)
+                  .orElseThrow(() -> new CustomRuntimeException(ErrorCode.PRODUCT_NOT_FOUND));
+          return assembler.assemble(product);
+        });
   }
 
   @Override
@@ -148,6 +205,7 @@ public class ProductServiceImpl implements IProductService {
               .findByIdAndDeletedAt(request.getCategoryId())
               .orElseThrow(() -> new CustomRuntimeException(ErrorCode.CATEGORY_NOT_FOUND));
       newProduct.setCategory(category);
+      newProduct.setCategorySlug(category.getSlug());
     }
 
     // update tile and description
@@ -177,14 +235,10 @@ public class ProductServiceImpl implements IProductService {
     productOptionService.updateProductOptionAndOptionValues(request, newProduct, variant);
 
     productRepository.save(newProduct);
-    var resp = mapper.productEntityToDto(newProduct);
-    setTotal(resp, newProduct);
-    setListImage(resp, newProduct);
-
-    // set variant
-    setListVariant(resp, newProduct);
-    // set review
-    return resp;
+    productDetailCache.evict(productSlug);
+    productDetailCache.evict(newProduct.getSlug());
+    eventPublisher.publishEvent(new ProductChangedEvent(newProduct.getId()));
+    return assembler.assemble(newProduct);
   }
 
   @Override
@@ -196,71 +250,7 @@ public class ProductServiceImpl implements IProductService {
     product.setDeletedAt(LocalDateTime.now());
     variantService.deleteByProduct(product);
     productRepository.save(product);
-  }
-
-  void setListImage(ProductResponse resp, ProductEntity product) {
-    var listImages = imageRepository.findByIdProductAndDeletedAtIsNull(product.getId());
-    List<ProductImageResponse> response =
-        listImages.stream().map(imageMapper::imageEntityToDto).toList();
-    resp.setImages(response);
-  }
-
-  void setTotal(ProductResponse resp, ProductEntity product) {
-    // set total favorites
-    var totalFavorites = 0;
-    resp.setTotalFavorites(totalFavorites);
-
-    // set total rates
-    var totalRating = 0;
-    resp.setTotalRates(totalRating);
-
-    // set total sold
-    var totalSold = 0;
-    resp.setTotalSold(totalSold);
-  }
-
-  void setListProductOption(VariantShortResponse resp, ProductEntity product) {
-    var options = productOptionRepository.findByProductIdAndDeletedAtIsNull(product.getId());
-    List<OptionResponse> optionResponses =
-        options.stream()
-            .map(
-                option -> {
-                  var optionResp = optionMapper.optionEntityToDto(option);
-                  boolean check = setListOptionValue(optionResp, product, resp);
-                  return check ? optionResp : null;
-                })
-            .filter(Objects::nonNull)
-            .toList();
-
-    resp.setOptions(optionResponses);
-  }
-
-  boolean setListOptionValue(
-      OptionResponse resp, ProductEntity product, VariantShortResponse variant) {
-    var optionValues =
-        variantValueRepository.findByVariantIdAndOptionIdAndDeletedAtIsNull(
-            variant.getId(), resp.getId());
-    if (!optionValues.isEmpty()) {
-      List<OptionValueResponse> optionValueResponses =
-          optionValues.stream().map(optionValueMapper::optionValueEntityToDto).toList();
-      resp.setOptionValues(optionValueResponses);
-      return true;
-    }
-    return false;
-  }
-
-  void setListVariant(ProductResponse resp, ProductEntity product) {
-    if (product.getVariants() != null) {
-      List<VariantShortResponse> variants =
-          product.getVariants().stream()
-              .map(
-                  variant -> {
-                    var variantResponse = variantMapper.variantEntityToShortDto(variant);
-                    setListProductOption(variantResponse, product);
-                    return variantResponse;
-                  })
-              .toList();
-      resp.setVariants(variants);
-    }
+    productDetailCache.evict(productSlug);
+    eventPublisher.publishEvent(new ProductChangedEvent(product.getId()));
   }
 }
@@ -0,0 +1,79 @@
+package com.challenge.ecommerce.products.services.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects counter deltas per product in memory. Writers are spread over stripes by thread, each
+ * with its own lock, so a product that many users favorite at once is not a single point of
+ * contention; {@link #drain()} swaps every stripe out and sums them.
+ */
+final class ProductStatsAccumulator {
+
+  // per product: favorites
+  static final int FAVORITES = 0;
+  static final int COUNTERS = 1;
+
+  private static final class Stripe {
+    final ReentrantLock lock = new ReentrantLock();
+    Map<String, long[]> deltas = new HashMap<>();
+  }
+
+  private final Stripe[] stripes;
+
+  ProductStatsAccumulator(int concurrency) {
+    var size = Integer.highestOneBit(Math.max(1, concurrency - 1)) << 1;
+    stripes = new Stripe[size];
+    for (int i = 0; i < size; i++) {
+      stripes[i] = new Stripe();
+    }
+  }
+
+  void add(String productId, int counter, long delta) {
+    var stripe = stripes[(int) Thread.currentThread().threadId() & (stripes.length - 1)];
+    stripe.lock.lock();
+    try {
+      stripe.deltas.computeIfAbsent(productId, id -> new long[COUNTERS])[counter] += delta;
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  // merges deltas that could not be written back, so they are retried with the next drain
+  void addAll(Map<String, long[]> deltas) {
+    deltas.forEach(
+        (productId, values) -> {
+          for (int counter = 0; counter < COUNTERS; counter++) {
+            if (values[counter] != 0) {
+              add(productId, counter, values[counter]);
+            }
+          }
+        });
+  }
+
+  /** Takes every delta recorded so far, leaving the accumulator empty. */
+  Map<String, long[]> drain() {
+    Map<String, long[]> total = new HashMap<>();
+    for (var stripe : stripes) {
+      Map<String, long[]> deltas;
+      stripe.lock.lock();
+      try {
+        deltas = stripe.deltas;
+        stripe.deltas = new HashMap<>();
+      } finally {
+        stripe.lock.unlock();
+      }
+      deltas.forEach(
+          (productId, values) -> {
+            var sum = total.computeIfAbsent(productId, id -> new long[COUNTERS]);
+            for (int counter = 0; counter < COUNTERS; counter++) {
+              sum[counter] += values[counter];
+            }
+          });
+    }
+    total.values().removeIf(values -> Arrays.stream(values).allMatch(value -> value == 0));
+    return total;
+  }
+}
@@ -0,0 +1,96 @@
+package com.challenge.ecommerce.products.services.impl;
+
+import com.challenge.ecommerce.products.repositories.ProductRepository;
+import com.challenge.ecommerce.products.repositories.ProductStatsRepository;
+import com.challenge.ecommerce.products.services.IProductStatsService;
+import com.challenge.ecommerce.utils.cache.AfterCommit;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the favorite counter of {@code product_stats} without writing the row on every change:
+ * deltas are accumulated in memory and flushed as one upsert per product. Deltas not yet flushed
+ * are lost if the process dies. The rating histogram is written in the review's own transaction
+ * instead, since the average shown and sorted on must match the reviews; units sold are written by
+ * {@link SoldCountListener} in its outbox transaction, covered by the event's idempotency key.
+ */
+@Service
+@Slf4j
+public class ProductStatsServiceImpl implements IProductStatsService {
+
+  private final ProductStatsRepository productStatsRepository;
+  private final ProductRepository productRepository;
+  private final ProductDetailCache productDetailCache;
+  private final TransactionTemplate transactionTemplate;
+  private final ProductStatsAccumulator accumulator =
+      new ProductStatsAccumulator(Runtime.getRuntime().availableProcessors() * 2);
+
+  public ProductStatsServiceImpl(
+      ProductStatsRepository productStatsRepository,
+      ProductRepository productRepository,
+      ProductDetailCache productDetailCache,
+      TransactionTemplate transactionTemplate) {
+    this.productStatsRepository = productStatsRepository;
+    this.productRepository = productRepository;
+    this.productDetailCache = productDetailCache;
+    this.transactionTemplate = transactionTemplate;
+  }
+
+  @Override
+  public void addFavorites(String productId, long delta) {
+    AfterCommit.run(() -> accumulator.add(productId, ProductStatsAccumulator.FAVORITES, delta));
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void changeRating(String productId, Integer from, Integer to) {
+    var removed = from == null ? 0 : from;
+    var added = to == null ? 0 : to;
+    if (removed == added) {
+      return;
+    }
+    productStatsRepository.moveRating(productId, removed, added);
+    productRepository.refreshAverageRating(productId);
+    // the cached detail shows the old average until it is rebuilt
+    productRepository.findSlugsByIds(List.of(productId)).forEach(productDetailCache::evict);
+  }
+
+  @Scheduled(fixedDelayString = "${app.product-stats.flush-millis}")
+  public void flush() {
+    var deltas = accumulator.drain();
+    if (deltas.isEmpty()) {
+      return;
+    }
+    try {
+      transactionTemplate.executeWithoutResult(status -> writeBack(deltas));
+    } catch (RuntimeException e) {
+      log.warn("Failed to flush stats of {} products: {}", deltas.size(), e.getMessage());
+      accumulator.addAll(deltas);
+    }
+  }
+
+  // in product id order, so instances flushing at the same time lock the rows in the same order
+  void writeBack(Map<String, long[]> deltas) {
+    for (var entry : new TreeMap<>(deltas).entrySet()) {
+      productStatsRepository.addFavorites(
+          entry.getKey(), entry.getValue()[ProductStatsAccumulator.FAVORITES]);
+    }
+    // the cached details show the old favorite counts, evicted again once the flush commits
+    productRepository.findSlugsByIds(deltas.keySet()).forEach(productDetailCache::evict);
+  }
+
+  @PreDestroy
+  void close() {
+    flush();
+  }
+}
@@ -0,0 +1,103 @@
+package com.challenge.ecommerce.products.services.impl;
+
+import com.challenge.ecommerce.categories.services.impl.CategoryChangedEvent;
+import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
+import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
+import com.challenge.ecommerce.products.controllers.dto.ProductSuggestionResponse;
+import com.challenge.ecommerce.products.repositories.ProductRepository;
+import com.challenge.ecommerce.products.repositories.SuggestionSource;
+import com.challenge.ecommerce.products.services.IProductSuggestService;
+import com.challenge.ecommerce.utils.ApiResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves autocomplete suggestions from an in-process {@link ProductSuggester}. Product and
+ * category changes only mark the trie as stale; a scheduled task rebuilds it in the background
+ * and swaps it in, so requests never touch the database.
+ */
+@Service
+@Slf4j
+public class ProductSuggestServiceImpl implements IProductSuggestService {
+
+  static final String PRODUCT_TYPE = "product";
+  static final String CATEGORY_TYPE = "category";
+
+  private final ProductRepository productRepository;
+  private final AtomicBoolean stale = new AtomicBoolean(true);
+
+  private volatile ProductSuggester suggester = ProductSuggester.EMPTY;
+
+  public ProductSuggestServiceImpl(ProductRepository productRepository) {
+    this.productRepository = productRepository;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProductChanged(ProductChangedEvent event) {
+    stale.set(true);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCategoryChanged(CategoryChangedEvent event) {
+    stale.set(true);
+  }
+
+  @Scheduled(fixedDelayString = "${app.search.suggest.rebuild-millis}")
+  public void rebuildIfStale() {
+    // cleared first, so a change made during the rebuild triggers the next one
+    if (!stale.getAndSet(false)) {
+      return;
+    }
+    try {
+      var start = System.nanoTime();
+      List<ProductSuggester.Suggestion> candidates = new ArrayList<>();
+      for (var source : productRepository.findTitleSuggestions()) {
+        candidates.add(suggestion(source, PRODUCT_TYPE));
+      }
+      for (var source : productRepository.findCategorySuggestions()) {
+        candidates.add(suggestion(source, CATEGORY_TYPE));
+      }
+      suggester = ProductSuggester.build(candidates);
+      log.info(
+          "Built {} autocomplete suggestions in {} ms",
+          suggester.size(),
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    } catch (RuntimeException e) {
+      stale.set(true);
+      log.error("Failed to build autocomplete suggestions: {}", e.getMessage());
+    }
+  }
+
+  private static ProductSuggester.Suggestion suggestion(SuggestionSource source, String type) {
+    return new ProductSuggester.Suggestion(source.text(), type, source.weight());
+  }
+
+  @Override
+  public ApiResponse<?> suggest(String prefix, int size) {
+    if (size < 1) {
+      throw new CustomRuntimeException(ErrorCode.PAGE_SIZE_POSITIVE);
+    }
+    var limit = Math.min(size, ProductSuggester.MAX_SUGGESTIONS);
+    var suggestions =
+        suggester.suggest(prefix, limit).stream()
+            .map(
+                suggestion ->
+                    ProductSuggestionResponse.builder()
+                        .text(suggestion.text())
+                        .type(suggestion.type())
+                        .build())
+            .toList();
+    return ApiResponse.builder()
+        .result(suggestions)
+        .limit(suggestions.size())
+        .message("Get suggestions successfully")
+        .build();
+  }
+}
@@ -0,0 +1,173 @@
+package com.challenge.ecommerce.products.services.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable radix trie over folded product titles and category names. Suggestions are numbered
+ * by descending weight, so every node keeps the lowest numbers in its subtree as its top
+ * suggestions and a lookup is a walk down the prefix with no ranking at query time. Edge labels
+ * are offsets into the sorted keys rather than copied substrings.
+ */
+final class ProductSuggester {
+
+  static final int MAX_SUGGESTIONS = 10;
+  static final ProductSuggester EMPTY = build(List.of());
+
+  private static final char[] NO_CHARS = {};
+  private static final Node[] NO_NODES = {};
+  private static final int[] NO_TOP = {};
+
+  record Suggestion(String text, String type, long weight) {}
+
+  private final Suggestion[] suggestions;
+  private final String[] keys;
+  private final Node root;
+
+  // the edge into a node is keys[key].substring(start, end)
+  private record Node(int key, int start, int end, char[] firsts, Node[] children, int[] top) {}
+
+  private ProductSuggester(Suggestion[] suggestions, String[] keys, Node root) {
+    this.suggestions = suggestions;
+    this.keys = keys;
+    this.root = root;
+  }
+
+  /** Builds the trie, keeping the heaviest suggestion when several fold to the same key. */
+  static ProductSuggester build(List<Suggestion> candidates) {
+    Map<String, Suggestion> byKey = new HashMap<>();
+    for (var candidate : candidates) {
+      var key = fold(candidate.text());
+      if (!key.isEmpty()) {
+        byKey.merge(key, candidate, (a, b) -> a.weight() >= b.weight() ? a : b);
+      }
+    }
+    var entries = new ArrayList<>(byKey.entrySet());
+    entries.sort(
+        Comparator.<Map.Entry<String, Suggestion>>comparingLong(e -> -e.getValue().weight())
+            .thenComparing(Map.Entry::getKey));
+    var suggestions = new Suggestion[entries.size()];
+    Map<String, Integer> rankOf = new HashMap<>();
+    for (int i = 0; i < suggestions.length; i++) {
+      suggestions[i] = entries.get(i).getValue();
+      rankOf.put(entries.get(i).getKey(), i);
+    }
+
+    entries.sort(Map.Entry.comparingByKey());
+    var keys = new String[entries.size()];
+    var ranks = new int[entries.size()];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = entries.get(i).getKey();
+      ranks[i] = rankOf.get(keys[i]);
+    }
+    var root = keys.length == 0 ? null : node(keys, ranks, 0, keys.length, 0);
+    return new ProductSuggester(suggestions, keys, root);
+  }
+
+  static String fold(String text) {
+    return String.join(" ", ProductSearchIndex.tokenize(text));
+  }
+
+  // keys[lo, hi) are sorted and share their first depth characters
+  private static Node node(String[] keys, int[] ranks, int lo, int hi, int depth) {
+    var end = commonPrefix(keys[lo], keys[hi - 1]);
+    List<Character> firsts = new ArrayList<>();
+    List<Node> children = new ArrayList<>();
+    var top = NO_TOP;
+    var i = lo;
+    // the key ending at this node sorts before its extensions
+    if (keys[i].length() == end) {
+      top = new int[] {ranks[i]};
+      i++;
+    }
+    while (i < hi) {
+      var c = keys[i].charAt(end);
+      var j = i + 1;
+      while (j < hi && keys[j].charAt(end) == c) {
+        j++;
+      }
+      var child = node(keys, ranks, i, j, end);
+      firsts.add(c);
+      children.add(child);
+      top = merge(top, child.top());
+      i = j;
+    }
+    return new Node(
+        lo,
+        depth,
+        end,
+        firsts.isEmpty() ? NO_CHARS : toChars(firsts),
+        children.isEmpty() ? NO_NODES : children.toArray(NO_NODES),
+        top);
+  }
+
+  private static int commonPrefix(String a, String b) {
+    var n = Math.min(a.length(), b.length());
+    var i = 0;
+    while (i < n && a.charAt(i) == b.charAt(i)) {
+      i++;
+    }
+    return i;
+  }
+
+  private static char[] toChars(List<Character> chars) {
+    var result = new char[chars.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = chars.get(i);
+    }
+    return result;
+  }
+
+  // both arrays are sorted ascending, lower rank means heavier
+  private static int[] merge(int[] a, int[] b) {
+    var merged = new int[Math.min(a.length + b.length, MAX_SUGGESTIONS)];
+    int i = 0, j = 0;
+    for (int k = 0; k < merged.length; k++) {
+      merged[k] = j == b.length || (i < a.length && a[i] < b[j]) ? a[i++] : b[j++];
+    }
+    return merged;
+  }
+
+  List<Suggestion> suggest(String prefix, int limit) {
+    var folded = fold(prefix);
+    if (folded.isEmpty() || root == null) {
+      return List.of();
+    }
+    // a trailing separator means the last word is complete
+    if (!prefix.isEmpty() && !Character.isLetterOrDigit(prefix.charAt(prefix.length() - 1))) {
+      folded = folded + " ";
+    }
+    var node = root;
+    var position = 0;
+    while (true) {
+      var label = keys[node.key()];
+      var length = Math.min(node.end() - node.start(), folded.length() - position);
+      if (!folded.regionMatches(position, label, node.start(), length)) {
+        return List.of();
+      }
+      position += length;
+      if (position == folded.length()) {
+        break;
+      }
+      var child = Arrays.binarySearch(node.firsts(), folded.charAt(position));
+      if (child < 0) {
+        return List.of();
+      }
+      node = node.children()[child];
+    }
+    var top = node.top();
+    var result = new ArrayList<Suggestion>(Math.min(limit, top.length));
+    for (int i = 0; i < top.length && i < limit; i++) {
+      result.add(suggestions[top[i]]);
+    }
+    return result;
+  }
+
+  int size() {
+    return suggestions.length;
+  }
+}
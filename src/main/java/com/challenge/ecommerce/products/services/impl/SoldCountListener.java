@@ -0,0 +1,54 @@
+package com.challenge.ecommerce.products.services.impl;
+
+import com.challenge.ecommerce.orders.services.impl.OrderStatusChangedEvent;
+import com.challenge.ecommerce.outbox.services.IOutboxListener;
+import com.challenge.ecommerce.products.repositories.ProductRepository;
+import com.challenge.ecommerce.products.repositories.ProductStatsRepository;
+import com.challenge.ecommerce.utils.enums.OrderStatus;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+// Units count as sold once their order is delivered. The cached details of the products are
+// evicted here rather than by ProductCacheListener, which may run before this transaction commits.
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SoldCountListener implements IOutboxListener<OrderStatusChangedEvent> {
+
+  ProductStatsRepository productStatsRepository;
+  ProductRepository productRepository;
+  ProductDetailCache productDetailCache;
+
+  @Override
+  public String consumer() {
+    return "product-sold-count";
+  }
+
+  @Override
+  public String eventType() {
+    return OrderStatusChangedEvent.TYPE;
+  }
+
+  @Override
+  public Class<OrderStatusChangedEvent> payloadType() {
+    return OrderStatusChangedEvent.class;
+  }
+
+  @Override
+  public void handle(OrderStatusChangedEvent event) {
+    if (event.to() != OrderStatus.DELIVERED) {
+      return;
+    }
+    Map<String, Long> sold = new TreeMap<>();
+    for (var line : event.items()) {
+      sold.merge(line.productId(), (long) line.quantity(), Long::sum);
+    }
+    sold.forEach(productStatsRepository::addSold);
+    productRepository.findSlugsByIds(sold.keySet()).forEach(productDetailCache::evict);
+  }
+}
@@ -26,6 +26,7 @@ public class VariantServiceImpl implements IVariantService {
   VariantRepository variantRepository;
   IVariantMapper mapper;
   private final ProductRepository productRepository;
+  ProductDetailCache productDetailCache;
 
   @Override
   public VariantEntity addProductVariant(ProductUpdateDto request, ProductEntity product) {
@@ -44,7 +45,8 @@ public class VariantServiceImpl implements IVariantService {
       }
       product.getVariants().add(variant);
       variantRepository.save(variant);
-      productRepository.save(product);
+      syncProductSummary(product);
+      productDetailCache.evict(product.getSlug());
 
       return variant;
     }
@@ -53,7 +55,10 @@ public class VariantServiceImpl implements IVariantService {
         variantRepository
             .findBySkuIdAndDeletedAtIsNull(request.getSku_id())
             .orElseThrow(() -> new CustomRuntimeException(ErrorCode.VARIANT_NOT_FOUND));
-    return mapper.updateVariantFromDto(request, oldVariant);
+    var variant = variantRepository.save(mapper.updateVariantFromDto(request, oldVariant));
+    syncProductSummary(product);
+    productDetailCache.evict(product.getSlug());
+    return variant;
   }
 
   @Override
@@ -63,9 +68,21 @@ public class VariantServiceImpl implements IVariantService {
 
       variant.get().setDeletedAt(LocalDateTime.now());
       variantRepository.save(variant.get());
+      syncProductSummary(product);
+      productDetailCache.evict(product.getSlug());
     }
   }
 
+  // recomputes the denormalized price range and stock of the product from its variants
+  @Override
+  public void syncProductSummary(ProductEntity product) {
+    var summary = variantRepository.summarizeByProductId(product.getId());
+    product.setMinPrice(summary.minPrice());
+    product.setMaxPrice(summary.maxPrice());
+    product.setTotalStock(summary.totalStock() == null ? 0 : summary.totalStock().intValue());
+    productRepository.save(product);
+  }
+
   private boolean isSkuIdTakenByAnotherProduct(String skuId, String productId) {
     return variantRepository.existsBySkuIdAndDeletedAtIsNull(skuId)
         && !variantRepository.existsBySkuIdAndProductIdAndDeletedAtIsNull(skuId, productId);
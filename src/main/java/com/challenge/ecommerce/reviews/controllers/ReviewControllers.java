@@ -1,3 +1,31 @@
 package com.challenge.ecommerce.reviews.controllers;
 
-public class ReviewControllers {}
+import com.challenge.ecommerce.reviews.service.IReviewService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/products/{productSlug}/reviews")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReviewControllers {
+
+  IReviewService reviewService;
+
+  static final String DEFAULT_FILTER_SIZE = "10";
+
+  // newest first; an empty cursor asks for the first page, then pass back nextCursor
+  @GetMapping
+  public ResponseEntity<?> getProductReviews(
+      @PathVariable String productSlug,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false, defaultValue = DEFAULT_FILTER_SIZE) @Min(0) int size,
+      @RequestParam(required = false) @Min(1) @Max(5) Integer rating) {
+    return ResponseEntity.ok(reviewService.getProductReviews(productSlug, cursor, size, rating));
+  }
+}
@@ -10,11 +10,14 @@ import java.time.LocalDateTime;
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
+@Builder
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class ReviewGetResponse {
   String id;
   String content;
-  String rating;
+  Integer rating;
+  // only the reviewer's id, name and avatar are filled
   UserGetResponse user;
+  LocalDateTime createdAt;
   LocalDateTime updatedAt;
 }
@@ -1,9 +1,11 @@
 package com.challenge.ecommerce.reviews.mappers;
 
 import com.challenge.ecommerce.reviews.controllers.dtos.ReviewCreateRequest;
+import com.challenge.ecommerce.reviews.controllers.dtos.ReviewGetResponse;
 import com.challenge.ecommerce.reviews.controllers.dtos.ReviewUpdateRequest;
 import com.challenge.ecommerce.reviews.models.ReviewEntity;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
@@ -14,4 +16,7 @@ public interface IReviewMapper {
   ReviewEntity dtoCreateToEntity(ReviewCreateRequest request);
 
   ReviewEntity dtoUpdateToEntity(ReviewUpdateRequest request, @MappingTarget ReviewEntity entity);
+
+  @Mapping(target = "user", ignore = true)
+  ReviewGetResponse entityToDto(ReviewEntity entity);
 }
@@ -1,6 +1,7 @@
 package com.challenge.ecommerce.reviews.models;
 
 import com.challenge.ecommerce.orders.models.OrderItemEntity;
+import com.challenge.ecommerce.products.models.ProductEntity;
 import com.challenge.ecommerce.users.models.UserEntity;
 import com.challenge.ecommerce.utils.BaseEntity;
 import com.fasterxml.jackson.annotation.JsonBackReference;
@@ -12,7 +13,15 @@ import lombok.experimental.FieldDefaults;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 @Entity(name = "reviews")
-@Table
+@Table(
+    indexes = {
+      @Index(
+          name = "idx_reviews_product_created",
+          columnList = "product_id, deletedAt, createdAt, id"),
+      @Index(
+          name = "idx_reviews_product_rating",
+          columnList = "product_id, deletedAt, rating, createdAt, id")
+    })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -34,4 +43,9 @@ public class ReviewEntity extends BaseEntity {
   UserEntity user;
 
   @OneToOne @JoinColumn OrderItemEntity orderItem;
+
+  // product of the order item, so reviews are listed per product without joining variants
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn
+  ProductEntity product;
 }
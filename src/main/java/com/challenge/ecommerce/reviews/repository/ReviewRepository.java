@@ -2,6 +2,7 @@ package com.challenge.ecommerce.reviews.repository;
 
 import com.challenge.ecommerce.reviews.models.ReviewEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -9,7 +10,8 @@ import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface ReviewRepository extends JpaRepository<ReviewEntity, String> {
+public interface ReviewRepository
+    extends JpaRepository<ReviewEntity, String>, JpaSpecificationExecutor<ReviewEntity> {
   @Query("select count(re) from reviews re where re.orderItem.id=:orderItemId")
   boolean exitReviewOfOrderItem(@Param("orderItemId") String orderItemId);
 
@@ -5,6 +5,8 @@ import com.challenge.ecommerce.reviews.controllers.dtos.ReviewUpdateRequest;
 import com.challenge.ecommerce.utils.ApiResponse;
 
 public interface IReviewService {
+  ApiResponse<?> getProductReviews(String productSlug, String cursor, int size, Integer rating);
+
   ApiResponse<Void> createReview(String order_item_id, ReviewCreateRequest response);
 
   ApiResponse<Void> updateReview(String reviewId, ReviewUpdateRequest request);
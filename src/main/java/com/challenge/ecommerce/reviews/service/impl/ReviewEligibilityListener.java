@@ -0,0 +1,41 @@
+package com.challenge.ecommerce.reviews.service.impl;
+
+import com.challenge.ecommerce.orders.repository.OrderRepository;
+import com.challenge.ecommerce.orders.services.impl.OrderStatusChangedEvent;
+import com.challenge.ecommerce.outbox.services.IOutboxListener;
+import com.challenge.ecommerce.utils.enums.OrderStatus;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+
+// opens the review window of a delivered order, from the time it was delivered
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReviewEligibilityListener implements IOutboxListener<OrderStatusChangedEvent> {
+
+  OrderRepository orderRepository;
+
+  @Override
+  public String consumer() {
+    return "review-eligibility";
+  }
+
+  @Override
+  public String eventType() {
+    return OrderStatusChangedEvent.TYPE;
+  }
+
+  @Override
+  public Class<OrderStatusChangedEvent> payloadType() {
+    return OrderStatusChangedEvent.class;
+  }
+
+  @Override
+  public void handle(OrderStatusChangedEvent event) {
+    if (event.to() == OrderStatus.DELIVERED) {
+      orderRepository.markDelivered(event.orderId(), event.occurredAt());
+    }
+  }
+}
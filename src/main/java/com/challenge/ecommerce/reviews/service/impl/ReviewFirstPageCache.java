@@ -0,0 +1,74 @@
+package com.challenge.ecommerce.reviews.service.impl;
+
+import com.challenge.ecommerce.reviews.controllers.dtos.ReviewGetResponse;
+import com.challenge.ecommerce.utils.cache.AfterCommit;
+import com.challenge.ecommerce.utils.cache.TwoTierCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of the newest reviews of a product, per star filter, keyed by product slug.
+ * Most readers never go past the first page, so only that page is cached: a bounded in-process
+ * LRU in front of Redis. Review writes drop the Redis entry and the local one of the writing
+ * instance; other instances keep theirs for at most the short local ttl. Reviewer names and
+ * avatars in a cached page may lag behind profile changes for up to the Redis ttl.
+ */
+@Component
+public class ReviewFirstPageCache {
+
+  static final String KEY_PREFIX = "review:first-page:";
+  static final String ALL_RATINGS = "all";
+
+  private final TwoTierCache<List<ReviewGetResponse>> cache;
+
+  public ReviewFirstPageCache(
+      RedisTemplate<String, Object> redisTemplate,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${app.cache.reviews.local-max-size}") int localMaxSize,
+      @Value("${app.cache.reviews.local-ttl-seconds}") long localTtlSeconds,
+      @Value("${app.cache.reviews.redis-ttl-seconds}") long redisTtlSeconds) {
+    this.cache =
+        new TwoTierCache<>(
+            "review.cache",
+            redisTemplate,
+            objectMapper,
+            objectMapper
+                .getTypeFactory()
+                .constructCollectionType(List.class, ReviewGetResponse.class),
+            meterRegistry,
+            localMaxSize,
+            Duration.ofSeconds(localTtlSeconds),
+            Duration.ofSeconds(redisTtlSeconds));
+  }
+
+  public List<ReviewGetResponse> get(
+      String productSlug, Integer rating, Supplier<List<ReviewGetResponse>> loader) {
+    return cache.get(key(productSlug, rating), loader);
+  }
+
+  /** Drops every page of the product now and, inside a transaction, again once it commits. */
+  public void evict(String productSlug) {
+    if (productSlug == null) {
+      return;
+    }
+    List<String> keys = new ArrayList<>();
+    keys.add(key(productSlug, null));
+    for (int rating = 1; rating <= 5; rating++) {
+      keys.add(key(productSlug, rating));
+    }
+    AfterCommit.runNowAndAfterCommit(() -> cache.evict(keys));
+  }
+
+  static String key(String productSlug, Integer rating) {
+    return KEY_PREFIX + productSlug + ":" + (rating == null ? ALL_RATINGS : rating);
+  }
+}
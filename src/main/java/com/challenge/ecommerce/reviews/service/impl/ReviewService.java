@@ -4,23 +4,37 @@ import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
 import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
 import com.challenge.ecommerce.orders.repository.OrderItemRepository;
 import com.challenge.ecommerce.orders.repository.OrderRepository;
+import com.challenge.ecommerce.products.repositories.ProductRepository;
+import com.challenge.ecommerce.products.services.IProductStatsService;
 import com.challenge.ecommerce.reviews.controllers.dtos.ReviewCreateRequest;
+import com.challenge.ecommerce.reviews.controllers.dtos.ReviewGetResponse;
 import com.challenge.ecommerce.reviews.controllers.dtos.ReviewUpdateRequest;
 import com.challenge.ecommerce.reviews.mappers.IReviewMapper;
+import com.challenge.ecommerce.reviews.models.ReviewEntity;
 import com.challenge.ecommerce.reviews.repository.ReviewRepository;
 import com.challenge.ecommerce.reviews.service.IReviewService;
+import com.challenge.ecommerce.users.controllers.dtos.UserGetResponse;
 import com.challenge.ecommerce.users.repositories.UserRepository;
+import com.challenge.ecommerce.users.repositories.UserSummary;
 import com.challenge.ecommerce.utils.ApiResponse;
 import com.challenge.ecommerce.utils.AuthUtils;
 import com.challenge.ecommerce.utils.enums.OrderStatus;
+import com.challenge.ecommerce.utils.pagination.KeysetCursor;
+import com.challenge.ecommerce.utils.pagination.KeysetPage;
+import jakarta.persistence.criteria.Predicate;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -31,29 +45,131 @@ public class ReviewService implements IReviewService {
   OrderItemRepository orderItemRepository;
   OrderRepository orderRepository;
   UserRepository userRepository;
+  ProductRepository productRepository;
   IReviewMapper reviewMapper;
+  IProductStatsService productStatsService;
+  ReviewFirstPageCache reviewFirstPageCache;
+
+  // the cached first page holds this many reviews, so it serves any smaller page size
+  static final int CACHED_PAGE_SIZE = 50;
 
   @Override
+  public ApiResponse<?> getProductReviews(
+      String productSlug, String cursor, int size, Integer rating) {
+    if (size < 1) {
+      throw new CustomRuntimeException(ErrorCode.PAGE_SIZE_POSITIVE);
+    }
+    var after = KeysetCursor.decode(cursor, false);
+    List<ReviewGetResponse> reviews;
+    if (after == null && size <= CACHED_PAGE_SIZE) {
+      reviews =
+          reviewFirstPageCache.get(
+              productSlug,
+              rating,
+              () -> loadReviews(productIdOf(productSlug), rating, null, CACHED_PAGE_SIZE + 1));
+    } else {
+      reviews = loadReviews(productIdOf(productSlug), rating, after, size + 1);
+    }
+    var page =
+        KeysetPage.of(
+            reviews,
+            size,
+            review -> new KeysetCursor(false, review.getCreatedAt(), review.getId()));
+
+    return ApiResponse.builder()
+        .result(page.content())
+        .limit(page.content().size())
+        .nextCursor(page.nextCursor())
+        .message("Get list review successfully")
+        .build();
+  }
+
+  String productIdOf(String productSlug) {
+    return productRepository
+        .findBySlugAndDeletedAtIsNull(productSlug)
+        .orElseThrow(() -> new CustomRuntimeException(ErrorCode.PRODUCT_NOT_FOUND))
+        .getId();
+  }
+
+  // newest first, with the reviewers of the whole page loaded in one query
+  List<ReviewGetResponse> loadReviews(
+      String productId, Integer rating, KeysetCursor after, int limit) {
+    var sort = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    var entities =
+        reviewRepository.findBy(
+            productReviews(productId, rating, after), q -> q.sortBy(sort).limit(limit).all());
+    var userIds = entities.stream().map(review -> review.getUser().getId()).distinct().toList();
+    Map<String, UserSummary> users = new HashMap<>();
+    if (!userIds.isEmpty()) {
+      for (var user : userRepository.findSummariesByIds(userIds)) {
+        users.put(user.id(), user);
+      }
+    }
+    return entities.stream()
+        .map(
+            review -> {
+              var resp = reviewMapper.entityToDto(review);
+              var user = users.get(review.getUser().getId());
+              if (user != null) {
+                resp.setUser(
+                    UserGetResponse.builder()
+                        .id(user.id())
+                        .name(user.name())
+                        .avatarLink(user.avatarLink())
+                        .build());
+              }
+              return resp;
+            })
+        .toList();
+  }
+
+  static Specification<ReviewEntity> productReviews(
+      String productId, Integer rating, KeysetCursor after) {
+    Specification<ReviewEntity> spec =
+        (root, query, criteriaBuilder) -> {
+          List<Predicate> predicates = new ArrayList<>();
+          predicates.add(criteriaBuilder.equal(root.get("product").get("id"), productId));
+          predicates.add(criteriaBuilder.isNull(root.get("deletedAt")));
+          if (rating != null) {
+            predicates.add(criteriaBuilder.equal(root.get("rating"), rating));
+          }
+          return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    return after == null ? spec : spec.and(KeysetCursor.seekAfter(after));
+  }
+
+  @Override
+  @Transactional
   public ApiResponse<Void> createReview(String order_item_id, ReviewCreateRequest request) {
     if (reviewRepository.exitReviewOfOrderItem(order_item_id)) {
       throw new CustomRuntimeException(ErrorCode.ORDER_ITEM_ALREADY_REVIEWED);
     }
+    var user =
+        userRepository
+            .findByEmailAndNotDeleted(AuthUtils.getUserCurrent())
+            .orElseThrow(() -> new CustomRuntimeException(ErrorCode.USER_NOT_FOUND));
     var orderItem =
         orderItemRepository
             .findActiveOrderItemByOrderId(order_item_id)
             .orElseThrow(() -> new CustomRuntimeException(ErrorCode.ORDER_ITEM_NOT_FOUND));
     var order =
         orderRepository
-            .findOrderActiveByOrderId(orderItem.getId())
+            .findOrderActiveByOrderId(orderItem.getOrder().getId())
             .orElseThrow(() -> new CustomRuntimeException(ErrorCode.ORDER_NOT_FOUND));
-    var limitTimeReview = order.getUpdatedAt().plusDays(7);
-    if (!(ChronoUnit.MINUTES.between(LocalDateTime.now(), limitTimeReview) > 0)
-        || !order.getStatus().equals(OrderStatus.DELIVERED)) {
+    // the week counts from the delivery itself, later updates to the order don't move it
+    if (!order.getStatus().equals(OrderStatus.DELIVERED)
+        || order.getDeliveredAt() == null
+        || !LocalDateTime.now().isBefore(order.getDeliveredAt().plusDays(7))
+        || !order.getUser().getId().equals(user.getId())) {
       throw new CustomRuntimeException(ErrorCode.NO_PERMISSION_TO_REVIEW);
     }
     var review = reviewMapper.dtoCreateToEntity(request);
     review.setOrderItem(orderItem);
+    review.setProduct(orderItem.getVariant().getProduct());
+    review.setUser(user);
     reviewRepository.save(review);
+    productStatsService.changeRating(productIdOf(review), null, review.getRating());
+    reviewFirstPageCache.evict(review.getProduct().getSlug());
     return ApiResponse.<Void>builder().message("Review created").build();
   }
 
@@ -67,12 +183,17 @@ public class ReviewService implements IReviewService {
     if (review.getRating() == null && review.getContent() == null) {
       throw new CustomRuntimeException(ErrorCode.EMPTY_UPDATE_REVIEW_CONTENT);
     }
+    var oldRating = review.getRating();
     reviewMapper.dtoUpdateToEntity(request, review);
     reviewRepository.save(review);
+    // a rating can be added or changed by an update but not removed
+    productStatsService.changeRating(productIdOf(review), oldRating, review.getRating());
+    reviewFirstPageCache.evict(review.getProduct().getSlug());
     return ApiResponse.<Void>builder().message("Review updated").build();
   }
 
   @Override
+  @Transactional
   public ApiResponse<Void> deleteReview(String reviewId) {
     var review =
         reviewRepository
@@ -87,10 +208,13 @@ public class ReviewService implements IReviewService {
     }
     review.setDeletedAt(LocalDateTime.now());
     reviewRepository.save(review);
+    productStatsService.changeRating(productIdOf(review), review.getRating(), null);
+    reviewFirstPageCache.evict(review.getProduct().getSlug());
     return ApiResponse.<Void>builder().message("Review deleted").build();
   }
 
   @Override
+  @Transactional
   public ApiResponse<Void> deleteReviewByAdmin(String reviewId) {
     var review =
         reviewRepository
@@ -98,6 +222,12 @@ public class ReviewService implements IReviewService {
             .orElseThrow(() -> new CustomRuntimeException(ErrorCode.REVIEW_NOT_FOUND));
     review.setDeletedAt(LocalDateTime.now());
     reviewRepository.save(review);
+    productStatsService.changeRating(productIdOf(review), review.getRating(), null);
+    reviewFirstPageCache.evict(review.getProduct().getSlug());
     return ApiResponse.<Void>builder().message("Review deleted").build();
   }
+
+  String productIdOf(ReviewEntity review) {
+    return review.getProduct().getId();
+  }
 }
@@ -1,44 +1,55 @@
 package com.challenge.ecommerce.users.controllers.location;
 
-import com.challenge.ecommerce.users.models.location.BaseLocation;
-import com.challenge.ecommerce.users.services.impl.LocationService;
+import com.challenge.ecommerce.users.services.ILocationService;
+import com.challenge.ecommerce.users.services.impl.WriteLocationRedisCacheService;
 import com.challenge.ecommerce.utils.ApiResponse;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/location")
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Slf4j
 public class LocationController {
-  LocationService locationService;
+  ILocationService locationService;
+  WriteLocationRedisCacheService writeLocationRedisCacheService;
 
+  // bodies are serialized once per location index version
   @GetMapping("/provinces")
-  public ResponseEntity<ApiResponse<List<BaseLocation>>> getProvinces() {
-    var resp = locationService.getAllProvinces();
-    return ResponseEntity.ok().body(resp);
+  public ResponseEntity<byte[]> getProvinces() {
+    var resp = locationService.getAllProvincesJson();
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(resp);
   }
 
   @GetMapping("/districts/{provinceCode}")
-  public ResponseEntity<ApiResponse<List<BaseLocation>>> getDistricts(
-      @PathVariable int provinceCode) {
-    var resp = locationService.getDistrictsByProvinceId(provinceCode);
-    return ResponseEntity.ok().body(resp);
+  public ResponseEntity<byte[]> getDistricts(@PathVariable int provinceCode) {
+    var resp = locationService.getDistrictsJsonByProvinceId(provinceCode);
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(resp);
   }
 
   @GetMapping("/wards/{districtCode}")
-  public ResponseEntity<ApiResponse<List<BaseLocation>>> getWards(@PathVariable int districtCode) {
-    var resp = locationService.getWardsByDistrictId(districtCode);
+  public ResponseEntity<byte[]> getWards(@PathVariable int districtCode) {
+    var resp = locationService.getWardsJsonByDistrictId(districtCode);
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(resp);
+  }
+
+  @PostMapping("/snapshot")
+  public ResponseEntity<ApiResponse<Void>> regenerateSnapshot() {
+    var provinces = writeLocationRedisCacheService.regenerateSnapshot();
+    var resp =
+        ApiResponse.<Void>builder()
+            .message("Location snapshot regenerated with " + provinces + " provinces")
+            .build();
     return ResponseEntity.ok().body(resp);
   }
 }
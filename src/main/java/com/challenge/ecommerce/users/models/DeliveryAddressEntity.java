@@ -13,7 +13,9 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity(name = "delivery_address")
-@Table
+@Table(
+    indexes =
+        @Index(name = "idx_delivery_address_user_deleted", columnList = "user_id, deletedAt"))
 @Getter
 @Setter
 @NoArgsConstructor
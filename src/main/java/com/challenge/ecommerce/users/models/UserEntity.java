@@ -15,7 +15,11 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity(name = "users")
-@Table
+@Table(
+    indexes = {
+      @Index(name = "idx_users_email_deleted", columnList = "email, deletedAt"),
+      @Index(name = "idx_users_name_deleted", columnList = "name, deletedAt")
+    })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -38,7 +42,7 @@ public class UserEntity extends BaseEntity {
 
     String refresh_token;
 
-    @Column(nullable = false)
+    @Column(nullable = false, columnDefinition = "VARCHAR(255)")
     @Enumerated(EnumType.STRING)
     Role role;
 
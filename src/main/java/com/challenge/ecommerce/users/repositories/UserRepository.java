@@ -9,6 +9,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -30,4 +32,9 @@ public interface UserRepository
   boolean findActiveUserName(@Param(value = "name") String name);
 
   Page<UserEntity> findAllByDeletedAtIsNull(Pageable pageable);
+
+  @Query(
+      "SELECT new com.challenge.ecommerce.users.repositories.UserSummary("
+          + "u.id, u.name, u.avatar_link) FROM users u WHERE u.id IN :userIds")
+  List<UserSummary> findSummariesByIds(@Param("userIds") Collection<String> userIds);
 }
@@ -0,0 +1,4 @@
+package com.challenge.ecommerce.users.repositories;
+
+/** Public part of a user, shown next to the content they wrote. */
+public record UserSummary(String id, String name, String avatarLink) {}
@@ -12,6 +12,12 @@ public interface ILocationService {
 
   ApiResponse<List<BaseLocation>> getWardsByDistrictId(int districtCode);
 
+  byte[] getAllProvincesJson();
+
+  byte[] getDistrictsJsonByProvinceId(int provinceCode);
+
+  byte[] getWardsJsonByDistrictId(int districtCode);
+
   String getProvinceByCode(int provinceCode);
 
   String getDistrictByCode(int provinceCode, int districtCode);
@@ -0,0 +1,4 @@
+package com.challenge.ecommerce.users.services.impl;
+
+/** Published once the location hashes have been written to Redis. */
+public record LocationCacheLoadedEvent() {}
@@ -0,0 +1,106 @@
+package com.challenge.ecommerce.users.services.impl;
+
+import com.challenge.ecommerce.users.models.location.BaseLocation;
+import com.challenge.ecommerce.utils.ApiResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Immutable snapshot of provinces, districts and wards. Codes are kept in sorted int arrays and
+ * looked up by binary search; each list and its JSON response body are built once per snapshot.
+ */
+public final class LocationIndex {
+
+  /** Locations under one parent, sorted by code. */
+  public record Level(int[] codes, String[] names, List<BaseLocation> locations, byte[] json) {
+
+    public String name(int code) {
+      var i = Arrays.binarySearch(codes, code);
+      return i < 0 ? null : names[i];
+    }
+
+    static Level of(Map<Integer, String> namesByCode, ObjectMapper objectMapper) {
+      var codes = namesByCode.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+      var names = new String[codes.length];
+      List<BaseLocation> locations = new ArrayList<>(codes.length);
+      for (int i = 0; i < codes.length; i++) {
+        names[i] = namesByCode.get(codes[i]);
+        var location = new BaseLocation();
+        location.setCode(codes[i]);
+        location.setName(names[i]);
+        locations.add(location);
+      }
+      locations = Collections.unmodifiableList(locations);
+      try {
+        var body = ApiResponse.<List<BaseLocation>>builder().result(locations).build();
+        return new Level(codes, names, locations, objectMapper.writeValueAsBytes(body));
+      } catch (JsonProcessingException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  private final String version;
+  private final Level provinces;
+  // districts aligned with provinces.codes, wards aligned with districtCodes
+  private final Level[] districtsByProvince;
+  private final int[] districtCodes;
+  private final Level[] wardsByDistrict;
+
+  private LocationIndex(
+      String version,
+      Level provinces,
+      Level[] districtsByProvince,
+      int[] districtCodes,
+      Level[] wardsByDistrict) {
+    this.version = version;
+    this.provinces = provinces;
+    this.districtsByProvince = districtsByProvince;
+    this.districtCodes = districtCodes;
+    this.wardsByDistrict = wardsByDistrict;
+  }
+
+  public static LocationIndex build(
+      String version,
+      Map<Integer, String> provinces,
+      Map<Integer, Map<Integer, String>> districtsByProvince,
+      Map<Integer, Map<Integer, String>> wardsByDistrict,
+      ObjectMapper objectMapper) {
+    var provinceLevel = Level.of(provinces, objectMapper);
+    var districtLevels = new Level[provinceLevel.codes().length];
+    for (int i = 0; i < districtLevels.length; i++) {
+      var districts = districtsByProvince.getOrDefault(provinceLevel.codes()[i], Map.of());
+      districtLevels[i] = Level.of(districts, objectMapper);
+    }
+    var districtCodes =
+        wardsByDistrict.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+    var wardLevels = new Level[districtCodes.length];
+    for (int i = 0; i < wardLevels.length; i++) {
+      wardLevels[i] = Level.of(wardsByDistrict.get(districtCodes[i]), objectMapper);
+    }
+    return new LocationIndex(version, provinceLevel, districtLevels, districtCodes, wardLevels);
+  }
+
+  public String version() {
+    return version;
+  }
+
+  public Level provinces() {
+    return provinces;
+  }
+
+  // null when the province does not exist
+  public Level districts(int provinceCode) {
+    var i = Arrays.binarySearch(provinces.codes(), provinceCode);
+    return i < 0 ? null : districtsByProvince[i];
+  }
+
+  // null when the district does not exist or has no wards
+  public Level wards(int districtCode) {
+    var i = Arrays.binarySearch(districtCodes, districtCode);
+    return i < 0 ? null : wardsByDistrict[i];
+  }
+}
@@ -5,87 +5,199 @@ import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
 import com.challenge.ecommerce.users.models.location.BaseLocation;
 import com.challenge.ecommerce.users.services.ILocationService;
 import com.challenge.ecommerce.utils.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
+/**
+ * Serves locations from an in-process {@link LocationIndex}. The index is built from the Redis
+ * hashes and rebuilt only when the {@code locations:version} key changes.
+ */
 @Service
+@Slf4j
 public class LocationService implements ILocationService {
 
+  static final String VERSION_KEY = "locations:version";
+
   private final RedisTemplate<String, Object> redisTemplate;
+  private final ObjectMapper objectMapper;
+
+  private volatile LocationIndex index;
 
-  public LocationService(RedisTemplate<String, Object> redisTemplate) {
+  public LocationService(RedisTemplate<String, Object> redisTemplate, ObjectMapper objectMapper) {
     this.redisTemplate = redisTemplate;
+    this.objectMapper = objectMapper;
   }
 
   @Override
   public ApiResponse<List<BaseLocation>> getAllProvinces() {
-    var result = new ArrayList<BaseLocation>();
-    var locationMap = redisTemplate.opsForHash().entries("provinces");
-    return getListApiResponse(result, locationMap);
+    return response(index().provinces());
   }
 
-  private ApiResponse<List<BaseLocation>> getListApiResponse(
-      ArrayList<BaseLocation> result, Map<Object, Object> locationMap) {
-    locationMap.forEach(
-        (code, name) -> {
-          var provinceBase = new BaseLocation();
-          provinceBase.setCode(Integer.parseInt(code.toString()));
-          provinceBase.setName(name.toString());
-          result.add(provinceBase);
-        });
+  @Override
+  public ApiResponse<List<BaseLocation>> getDistrictsByProvinceId(int provinceCode) {
+    return response(districts(provinceCode));
+  }
 
-    return ApiResponse.<List<BaseLocation>>builder().result(result).build();
+  @Override
+  public ApiResponse<List<BaseLocation>> getWardsByDistrictId(int districtCode) {
+    return response(wards(districtCode));
   }
 
   @Override
-  public ApiResponse<List<BaseLocation>> getDistrictsByProvinceId(int provinceCode) {
-    var result = new ArrayList<BaseLocation>();
-    var locationMap = redisTemplate.opsForHash().entries("districts:" + provinceCode);
-    if (locationMap.isEmpty()) {
-      throw new CustomRuntimeException(ErrorCode.PROVINCE_NOT_FOUND);
-    }
-    return getListApiResponse(result, locationMap);
+  public byte[] getAllProvincesJson() {
+    return index().provinces().json();
   }
 
   @Override
-  public ApiResponse<List<BaseLocation>> getWardsByDistrictId(int districtCode) {
-    var result = new ArrayList<BaseLocation>();
-    var locationMap = redisTemplate.opsForHash().entries("wards:" + districtCode);
-    if (locationMap.isEmpty()) {
-      throw new CustomRuntimeException(ErrorCode.DISTRICT_NOT_FOUND);
-    }
-    return getListApiResponse(result, locationMap);
+  public byte[] getDistrictsJsonByProvinceId(int provinceCode) {
+    return districts(provinceCode).json();
+  }
+
+  @Override
+  public byte[] getWardsJsonByDistrictId(int districtCode) {
+    return wards(districtCode).json();
   }
 
   @Override
   public String getProvinceByCode(int provinceCode) {
-    var province = redisTemplate.opsForHash().get("provinces", String.valueOf(provinceCode));
+    var province = index().provinces().name(provinceCode);
     if (province == null) {
       throw new CustomRuntimeException(ErrorCode.PROVINCE_NOT_FOUND);
     }
-    return province.toString();
+    return province;
   }
 
   @Override
   public String getDistrictByCode(int provinceCode, int districtCode) {
-    var district =
-        redisTemplate.opsForHash().get("districts:" + provinceCode, String.valueOf(districtCode));
+    var district = districts(provinceCode).name(districtCode);
     if (district == null) {
       throw new CustomRuntimeException(ErrorCode.DISTRICT_NOT_FOUND);
     }
-    return district.toString();
+    return district;
   }
 
   @Override
   public String getWardByCode(int districtCode, int wardCode) {
-    var ward = redisTemplate.opsForHash().get("wards:" + districtCode, String.valueOf(wardCode));
+    var ward = wards(districtCode).name(wardCode);
     if (ward == null) {
       throw new CustomRuntimeException(ErrorCode.WARD_NOT_FOUND);
     }
-    return ward.toString();
+    return ward;
+  }
+
+  LocationIndex index() {
+    var current = index;
+    if (current == null) {
+      throw new CustomRuntimeException(ErrorCode.LOCATION_NOT_READY);
+    }
+    return current;
+  }
+
+  LocationIndex.Level districts(int provinceCode) {
+    var districts = index().districts(provinceCode);
+    if (districts == null || districts.codes().length == 0) {
+      throw new CustomRuntimeException(ErrorCode.PROVINCE_NOT_FOUND);
+    }
+    return districts;
+  }
+
+  LocationIndex.Level wards(int districtCode) {
+    var wards = index().wards(districtCode);
+    if (wards == null || wards.codes().length == 0) {
+      throw new CustomRuntimeException(ErrorCode.DISTRICT_NOT_FOUND);
+    }
+    return wards;
+  }
+
+  static ApiResponse<List<BaseLocation>> response(LocationIndex.Level level) {
+    return ApiResponse.<List<BaseLocation>>builder().result(level.locations()).build();
+  }
+
+  @EventListener(LocationCacheLoadedEvent.class)
+  public void onLocationCacheLoaded() {
+    refresh();
+  }
+
+  @Scheduled(fixedDelayString = "${app.location.index.refresh-millis}")
+  public synchronized void refresh() {
+    try {
+      var storedVersion = redisTemplate.opsForValue().get(VERSION_KEY);
+      var version = storedVersion == null ? "0" : storedVersion.toString();
+      var current = index;
+      if (current != null && current.version().equals(version)) {
+        return;
+      }
+      var loaded = load(version);
+      if (loaded != null) {
+        index = loaded;
+        log.info("Location index loaded, version {}", version);
+      }
+    } catch (RuntimeException e) {
+      log.warn("Failed to refresh location index: {}", e.getMessage());
+    }
+  }
+
+  LocationIndex load(String version) {
+    var provinces =
+        toNames(redisTemplate.opsForHash().entries(WriteLocationRedisCacheService.PROVINCES_KEY));
+    if (provinces.isEmpty()) {
+      return null;
+    }
+    var provinceCodes = new ArrayList<>(provinces.keySet());
+    var districtNames =
+        entries(
+            provinceCodes.stream()
+                .map(code -> WriteLocationRedisCacheService.DISTRICTS_KEY_PREFIX + code)
+                .toList());
+    Map<Integer, Map<Integer, String>> districtsByProvince = new HashMap<>();
+    List<Integer> districtCodes = new ArrayList<>();
+    for (int i = 0; i < provinceCodes.size(); i++) {
+      districtsByProvince.put(provinceCodes.get(i), districtNames.get(i));
+      districtCodes.addAll(districtNames.get(i).keySet());
+    }
+    var wardNames =
+        entries(
+            districtCodes.stream()
+                .map(code -> WriteLocationRedisCacheService.WARDS_KEY_PREFIX + code)
+                .toList());
+    Map<Integer, Map<Integer, String>> wardsByDistrict = new HashMap<>();
+    for (int i = 0; i < districtCodes.size(); i++) {
+      wardsByDistrict.put(districtCodes.get(i), wardNames.get(i));
+    }
+    return LocationIndex.build(
+        version, provinces, districtsByProvince, wardsByDistrict, objectMapper);
+  }
+
+  // HGETALL of every key in one pipeline
+  List<Map<Integer, String>> entries(List<String> keys) {
+    if (keys.isEmpty()) {
+      return List.of();
+    }
+    var results =
+        redisTemplate.executePipelined(
+            new SessionCallback<Object>() {
+              @Override
+              @SuppressWarnings("unchecked")
+              public <K, V> Object execute(RedisOperations<K, V> operations) {
+                var ops = (RedisOperations<String, Object>) operations;
+                keys.forEach(key -> ops.opsForHash().entries(key));
+                return null;
+              }
+            });
+    return results.stream().map(result -> toNames((Map<?, ?>) result)).toList();
+  }
+
+  static Map<Integer, String> toNames(Map<?, ?> entries) {
+    Map<Integer, String> names = new HashMap<>();
+    entries.forEach((code, name) -> names.put(Integer.parseInt(code.toString()), name.toString()));
+    return names;
   }
 }
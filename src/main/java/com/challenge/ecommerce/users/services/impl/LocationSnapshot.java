@@ -0,0 +1,172 @@
+package com.challenge.ecommerce.users.services.impl;
+
+import com.challenge.ecommerce.users.models.location.BaseLocation;
+import com.challenge.ecommerce.users.models.location.District;
+import com.challenge.ecommerce.users.models.location.Province;
+import com.challenge.ecommerce.users.models.location.Ward;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary snapshot of the location tree. The file is a fixed header, one 16-byte record per
+ * province, district and ward ({@code code, parent index, name offset, name length}) and a UTF-8
+ * name pool. A district points at its province by index and a ward at its district, so the file
+ * is read with a single pass over a memory-mapped buffer.
+ */
+public final class LocationSnapshot {
+
+  static final int MAGIC = 0x4C4F4331; // "LOC1"
+  static final int FORMAT_VERSION = 1;
+  static final int HEADER_BYTES = 32;
+  static final int RECORD_BYTES = 16;
+
+  private LocationSnapshot() {}
+
+  public static void write(Path path, List<Province> provinces) throws IOException {
+    List<District> districts = new ArrayList<>();
+    List<Ward> wards = new ArrayList<>();
+    List<Integer> districtParents = new ArrayList<>();
+    List<Integer> wardParents = new ArrayList<>();
+    for (int p = 0; p < provinces.size(); p++) {
+      for (var district : provinces.get(p).getDistricts()) {
+        districtParents.add(p);
+        for (var ward : district.getWards()) {
+          wardParents.add(districts.size());
+          wards.add(ward);
+        }
+        districts.add(district);
+      }
+    }
+
+    var names = new ByteArrayOutputStream();
+    var recordCount = provinces.size() + districts.size() + wards.size();
+    var records = ByteBuffer.allocate(recordCount * RECORD_BYTES);
+    for (var province : provinces) {
+      putRecord(records, names, province, -1);
+    }
+    for (int i = 0; i < districts.size(); i++) {
+      putRecord(records, names, districts.get(i), districtParents.get(i));
+    }
+    for (int i = 0; i < wards.size(); i++) {
+      putRecord(records, names, wards.get(i), wardParents.get(i));
+    }
+
+    var header = ByteBuffer.allocate(HEADER_BYTES);
+    header
+        .putInt(MAGIC)
+        .putInt(FORMAT_VERSION)
+        .putLong(System.currentTimeMillis())
+        .putInt(provinces.size())
+        .putInt(districts.size())
+        .putInt(wards.size())
+        .putInt(names.size());
+
+    if (path.toAbsolutePath().getParent() != null) {
+      Files.createDirectories(path.toAbsolutePath().getParent());
+    }
+    // written next to the target and moved, so readers never see a partial file
+    var tmp = path.resolveSibling(path.getFileName() + ".tmp");
+    try (var channel =
+        FileChannel.open(
+            tmp,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      for (var buffer :
+          new ByteBuffer[] {header.flip(), records.flip(), ByteBuffer.wrap(names.toByteArray())}) {
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      }
+      channel.force(true);
+    }
+    Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  public static List<Province> read(Path path) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.remaining() < HEADER_BYTES
+          || buffer.getInt() != MAGIC
+          || buffer.getInt() != FORMAT_VERSION) {
+        throw new IOException("Not a location snapshot: " + path);
+      }
+      buffer.getLong(); // created at
+      var provinceCount = buffer.getInt();
+      var districtCount = buffer.getInt();
+      var wardCount = buffer.getInt();
+      var namesSize = buffer.getInt();
+      var recordCount = (long) provinceCount + districtCount + wardCount;
+      var namesStart = HEADER_BYTES + recordCount * RECORD_BYTES;
+      if (provinceCount < 0
+          || districtCount < 0
+          || wardCount < 0
+          || namesSize < 0
+          || namesStart + namesSize != buffer.capacity()) {
+        throw new IOException("Corrupted location snapshot: " + path);
+      }
+
+      List<Province> provinces = new ArrayList<>(provinceCount);
+      for (int i = 0; i < provinceCount; i++) {
+        provinces.add(readRecord(buffer, (int) namesStart, new Province()));
+      }
+      List<District> districts = new ArrayList<>(districtCount);
+      for (int i = 0; i < districtCount; i++) {
+        var parent = buffer.getInt(buffer.position() + 4);
+        var district = readRecord(buffer, (int) namesStart, new District());
+        provinces.get(checkIndex(parent, provinceCount, path)).getDistricts().add(district);
+        districts.add(district);
+      }
+      for (int i = 0; i < wardCount; i++) {
+        var parent = buffer.getInt(buffer.position() + 4);
+        var ward = readRecord(buffer, (int) namesStart, new Ward());
+        districts.get(checkIndex(parent, districtCount, path)).getWards().add(ward);
+      }
+      return provinces;
+    }
+  }
+
+  static void putRecord(
+      ByteBuffer records, ByteArrayOutputStream names, BaseLocation location, int parent) {
+    var name =
+        location.getName() == null
+            ? new byte[0]
+            : location.getName().getBytes(StandardCharsets.UTF_8);
+    records.putInt(location.getCode()).putInt(parent).putInt(names.size()).putInt(name.length);
+    names.writeBytes(name);
+  }
+
+  static <T extends BaseLocation> T readRecord(ByteBuffer buffer, int namesStart, T location)
+      throws IOException {
+    location.setCode(buffer.getInt());
+    buffer.getInt(); // parent, read by the caller
+    var nameOffset = buffer.getInt();
+    var nameLength = buffer.getInt();
+    if (nameOffset < 0
+        || nameLength < 0
+        || (long) namesStart + nameOffset + nameLength > buffer.capacity()) {
+      throw new IOException("Corrupted location name");
+    }
+    var name = new byte[nameLength];
+    buffer.get(namesStart + nameOffset, name);
+    location.setName(new String(name, StandardCharsets.UTF_8));
+    return location;
+  }
+
+  static int checkIndex(int index, int size, Path path) throws IOException {
+    if (index < 0 || index >= size) {
+      throw new IOException("Corrupted location snapshot: " + path);
+    }
+    return index;
+  }
+}
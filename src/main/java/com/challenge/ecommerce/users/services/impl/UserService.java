@@ -3,6 +3,7 @@ package com.challenge.ecommerce.users.services.impl;
 import com.challenge.ecommerce.authentication.controllers.dtos.AuthenticationRequest;
 import com.challenge.ecommerce.authentication.controllers.dtos.AuthenticationResponse;
 import com.challenge.ecommerce.authentication.services.IAuthenticationService;
+import com.challenge.ecommerce.authentication.services.IPasswordHashingService;
 import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
 import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
 import com.challenge.ecommerce.users.controllers.dtos.*;
@@ -19,8 +20,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
@@ -35,7 +34,7 @@ public class UserService implements IUserServices {
   UserRepository userRepository;
   IUserMapper userMapper;
   IAuthenticationService authenticationService;
-  PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(10);
+  IPasswordHashingService passwordHashingService;
 
   // user register account
   @Override
@@ -43,7 +42,7 @@ public class UserService implements IUserServices {
     checkEmailUnique(userCreateRequest.getEmail());
     checkPasswordConfirm(userCreateRequest.getPassword(), userCreateRequest.getConfirmPassword());
     var user = userMapper.userCreateDtoToEntity(userCreateRequest);
-    user.setPassword(passwordEncoder.encode(userCreateRequest.getPassword()));
+    user.setPassword(passwordHashingService.encode(userCreateRequest.getPassword()));
     // create name account with UUID random
     user.setName("user_" + UUID.randomUUID().toString().substring(0, 8));
     user.setRole(Role.USER);
@@ -64,7 +63,7 @@ public class UserService implements IUserServices {
     checkPasswordConfirm(
         adminCreateUserRequest.getNewPassword(), adminCreateUserRequest.getConfirmPassword());
     var user = userMapper.adminCreateUserDtoToEntity(adminCreateUserRequest);
-    user.setPassword(passwordEncoder.encode(adminCreateUserRequest.getNewPassword()));
+    user.setPassword(passwordHashingService.encode(adminCreateUserRequest.getNewPassword()));
     user.setName("user_" + UUID.randomUUID().toString().substring(0, 8));
     user.setRole(
         adminCreateUserRequest.getRole().equals(Role.ADMIN.toString()) ? Role.ADMIN : Role.USER);
@@ -89,7 +88,8 @@ public class UserService implements IUserServices {
     var user = userMapper.userUpdateDtoToEntity(oldUser, userUpdateRequest);
     // check update password when password not null .
     if (userUpdateRequest.getOldPassword() != null) {
-      if (!passwordEncoder.matches(userUpdateRequest.getOldPassword(), oldUser.getPassword())) {
+      var oldPassword = userUpdateRequest.getOldPassword();
+      if (!passwordHashingService.matches(oldPassword, oldUser.getPassword())) {
         throw new CustomRuntimeException(ErrorCode.PASSWORD_INCORRECT);
       }
       if (userUpdateRequest.getNewPassword() == null) {
@@ -103,7 +103,7 @@ public class UserService implements IUserServices {
       }
       checkPasswordConfirm(
           userUpdateRequest.getNewPassword(), userUpdateRequest.getConfirmPassword());
-      user.setPassword(passwordEncoder.encode(userUpdateRequest.getNewPassword()));
+      user.setPassword(passwordHashingService.encode(userUpdateRequest.getNewPassword()));
     }
     userRepository.save(user);
     return ApiResponse.<Void>builder().message(ResponseStatus.SUCCESS_UPDATE.getMessage()).build();
@@ -141,14 +141,15 @@ public class UserService implements IUserServices {
 
     // check update password when password not null .
     if (adminUpdateUserRequest.getNewPassword() != null) {
-      if (passwordEncoder.matches(adminUpdateUserRequest.getNewPassword(), oldUser.getPassword())) {
+      var newPassword = adminUpdateUserRequest.getNewPassword();
+      if (passwordHashingService.matches(newPassword, oldUser.getPassword())) {
         throw new CustomRuntimeException(ErrorCode.PASSWORD_SHOULD_NOT_MATCH_OLD);
       }
       if (adminUpdateUserRequest.getConfirmPassword() == null)
         throw new CustomRuntimeException(ErrorCode.CONFIRM_PASSWORD_CANNOT_BE_NULL);
       checkPasswordConfirm(
           adminUpdateUserRequest.getNewPassword(), adminUpdateUserRequest.getConfirmPassword());
-      oldUser.setPassword(passwordEncoder.encode(adminUpdateUserRequest.getNewPassword()));
+      oldUser.setPassword(passwordHashingService.encode(newPassword));
     }
     var newUser = userMapper.adminUpdateUserDtoToEntity(oldUser, adminUpdateUserRequest);
     newUser.setRole(Role.USER);
@@ -1,54 +1,273 @@
 package com.challenge.ecommerce.users.services.impl;
 
+import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
+import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
+import com.challenge.ecommerce.users.models.location.BaseLocation;
 import com.challenge.ecommerce.users.models.location.District;
 import com.challenge.ecommerce.users.models.location.Province;
-import com.challenge.ecommerce.users.models.location.Ward;
-import jakarta.annotation.PostConstruct;
-import lombok.AccessLevel;
-import lombok.RequiredArgsConstructor;
-import lombok.experimental.FieldDefaults;
+import com.challenge.ecommerce.users.services.ILocationApiService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+/**
+ * Loads provinces, districts and wards into Redis once the application is ready, in the
+ * background. The tree is read from the local {@link LocationSnapshot} when there is one and
+ * crawled from the location API otherwise. API calls are fanned out on virtual threads with a
+ * concurrency cap, and every hash is replaced in a single pipeline.
+ */
 @Service
-@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
-@RequiredArgsConstructor
+@Slf4j
 public class WriteLocationRedisCacheService {
-  LocationApiService locationApiService;
-  RedisTemplate<String, Object> redisTemplate;
 
-  @PostConstruct
+  static final String PROVINCES_KEY = "provinces";
+  static final String DISTRICTS_KEY_PREFIX = "districts:";
+  static final String WARDS_KEY_PREFIX = "wards:";
+  static final String TMP_SUFFIX = ":tmp";
+
+  private final ILocationApiService locationApiService;
+  private final RedisTemplate<String, Object> redisTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final int maxConcurrency;
+  private final Path snapshotPath;
+
+  public WriteLocationRedisCacheService(
+      ILocationApiService locationApiService,
+      RedisTemplate<String, Object> redisTemplate,
+      ApplicationEventPublisher eventPublisher,
+      @Value("${app.location.bootstrap.max-concurrency}") int maxConcurrency,
+      @Value("${app.location.snapshot.path}") String snapshotPath) {
+    this.locationApiService = locationApiService;
+    this.redisTemplate = redisTemplate;
+    this.eventPublisher = eventPublisher;
+    this.maxConcurrency = maxConcurrency;
+    this.snapshotPath = Path.of(snapshotPath);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
   public void cacheAllLocation() {
-    if (redisTemplate.opsForHash().size("provinces") == 0) {
-      List<Province> provinces = locationApiService.getAllProvinces();
-      provinces.forEach(
-          province -> {
-            redisTemplate
-                .opsForHash()
-                .put("provinces", String.valueOf(province.getCode()), province.getName());
-            List<District> districts =
-                locationApiService.getDistrictsByProvince(province.getCode());
-            districts.forEach(
-                district -> {
-                  redisTemplate
-                      .opsForHash()
-                      .put(
-                          "districts:" + province.getCode(),
-                          String.valueOf(district.getCode()),
-                          district.getName());
-                  List<Ward> wards = locationApiService.getWardsByDistrict(district.getCode());
-                  wards.forEach(
-                      ward ->
-                          redisTemplate
-                              .opsForHash()
-                              .put(
-                                  "wards:" + district.getCode(),
-                                  String.valueOf(ward.getCode()),
-                                  ward.getName()));
-                });
-          });
+    Thread.ofVirtual().name("location-cache-bootstrap").start(this::loadIfAbsent);
+  }
+
+  void loadIfAbsent() {
+    try {
+      // the provinces hash is written last, so a partial load is retried on the next start
+      if (redisTemplate.opsForHash().size(PROVINCES_KEY) > 0) {
+        return;
+      }
+      var start = System.nanoTime();
+      var source = "snapshot";
+      var provinces = readSnapshot();
+      if (provinces == null) {
+        source = "location API";
+        provinces = fetchAll();
+        if (provinces.isEmpty()) {
+          log.warn("Location API returned no provinces, location cache is not loaded");
+          return;
+        }
+        writeSnapshot(provinces);
+      }
+      write(provinces);
+      eventPublisher.publishEvent(new LocationCacheLoadedEvent());
+      log.info(
+          "Cached {} provinces from {} in {} ms",
+          provinces.size(),
+          source,
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    } catch (RuntimeException e) {
+      log.error("Failed to cache locations: {}", e.getMessage());
+    }
+  }
+
+  /** Crawls the location API again, rewrites the snapshot file and the Redis hashes. */
+  public int regenerateSnapshot() {
+    var provinces = fetchAll();
+    if (provinces.isEmpty()) {
+      throw new CustomRuntimeException(ErrorCode.LOCATION_API_UNAVAILABLE);
+    }
+    try {
+      LocationSnapshot.write(snapshotPath, provinces);
+    } catch (IOException e) {
+      log.error("Failed to write location snapshot {}: {}", snapshotPath, e.getMessage());
+      throw new CustomRuntimeException(ErrorCode.LOCATION_SNAPSHOT_FAILED);
+    }
+    write(provinces);
+    eventPublisher.publishEvent(new LocationCacheLoadedEvent());
+    return provinces.size();
+  }
+
+  // null when there is no usable snapshot
+  List<Province> readSnapshot() {
+    if (!Files.isRegularFile(snapshotPath)) {
+      return null;
+    }
+    try {
+      var provinces = LocationSnapshot.read(snapshotPath);
+      return provinces.isEmpty() ? null : provinces;
+    } catch (IOException e) {
+      log.warn("Ignoring location snapshot {}: {}", snapshotPath, e.getMessage());
+      return null;
+    }
+  }
+
+  void writeSnapshot(List<Province> provinces) {
+    try {
+      LocationSnapshot.write(snapshotPath, provinces);
+    } catch (IOException e) {
+      log.warn("Failed to write location snapshot {}: {}", snapshotPath, e.getMessage());
+    }
+  }
+
+  List<Province> fetchAll() {
+    var provinces = locationApiService.getAllProvinces();
+    if (provinces == null) {
+      return List.of();
+    }
+    var permits = new Semaphore(maxConcurrency);
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var tasks =
+          provinces.stream()
+              .map(
+                  province ->
+                      CompletableFuture.runAsync(
+                          () -> fetchDistricts(permits, executor, province), executor))
+              .toArray(CompletableFuture[]::new);
+      CompletableFuture.allOf(tasks).join();
+    }
+    return provinces;
+  }
+
+  // wards of a province are requested as soon as its districts are known
+  void fetchDistricts(Semaphore permits, Executor executor, Province province) {
+    var districts =
+        limited(permits, () -> locationApiService.getDistrictsByProvince(province.getCode()));
+    province.setDistricts(districts);
+    var tasks =
+        districts.stream()
+            .map(
+                district ->
+                    CompletableFuture.runAsync(() -> fetchWards(permits, district), executor))
+            .toArray(CompletableFuture[]::new);
+    CompletableFuture.allOf(tasks).join();
+  }
+
+  void fetchWards(Semaphore permits, District district) {
+    district.setWards(
+        limited(permits, () -> locationApiService.getWardsByDistrict(district.getCode())));
+  }
+
+  static <T> List<T> limited(Semaphore permits, Supplier<List<T>> call) {
+    permits.acquireUninterruptibly();
+    try {
+      var result = call.get();
+      return result == null ? new ArrayList<>() : result;
+    } finally {
+      permits.release();
+    }
+  }
+
+  void write(List<Province> provinces) {
+    var stale = currentKeys();
+    redisTemplate.executePipelined(
+        new SessionCallback<Object>() {
+          @Override
+          @SuppressWarnings("unchecked")
+          public <K, V> Object execute(RedisOperations<K, V> operations) {
+            var ops = (RedisOperations<String, Object>) operations;
+            for (var province : provinces) {
+              for (var district : province.getDistricts()) {
+                var wardsKey = WARDS_KEY_PREFIX + district.getCode();
+                replace(ops, wardsKey, district.getWards());
+                stale.remove(wardsKey);
+              }
+              var districtsKey = DISTRICTS_KEY_PREFIX + province.getCode();
+              replace(ops, districtsKey, province.getDistricts());
+              stale.remove(districtsKey);
+            }
+            return null;
+          }
+        });
+    replace(redisTemplate, PROVINCES_KEY, provinces);
+    // only reachable from the old provinces hash, which is gone by now
+    if (!stale.isEmpty()) {
+      redisTemplate.delete(stale);
+    }
+    // tells every instance to rebuild its location index
+    redisTemplate.opsForValue().increment(LocationService.VERSION_KEY);
+  }
+
+  // the district and ward hashes reachable from the provinces hash currently in Redis
+  Set<String> currentKeys() {
+    Set<String> keys = new HashSet<>();
+    var provinceCodes = redisTemplate.opsForHash().keys(PROVINCES_KEY);
+    if (provinceCodes.isEmpty()) {
+      return keys;
+    }
+    var districtsKeys =
+        provinceCodes.stream().map(code -> DISTRICTS_KEY_PREFIX + code).toList();
+    keys.addAll(districtsKeys);
+    var districtCodes =
+        redisTemplate.executePipelined(
+            new SessionCallback<Object>() {
+              @Override
+              @SuppressWarnings("unchecked")
+              public <K, V> Object execute(RedisOperations<K, V> operations) {
+                var ops = (RedisOperations<String, Object>) operations;
+                districtsKeys.forEach(key -> ops.opsForHash().keys(key));
+                return null;
+              }
+            });
+    for (var codes : districtCodes) {
+      for (var code : (Collection<?>) codes) {
+        keys.add(WARDS_KEY_PREFIX + code);
+      }
+    }
+    return keys;
+  }
+
+  // written under a temporary key and renamed over the old hash, so codes that are gone from
+  // the source do not linger and a reader never sees a half-written hash
+  static void replace(
+      RedisOperations<String, Object> ops, String key, List<? extends BaseLocation> locations) {
+    if (locations.isEmpty()) {
+      ops.delete(key);
+      return;
+    }
+    var tmpKey = key + TMP_SUFFIX;
+    ops.delete(tmpKey);
+    putAll(ops, tmpKey, locations);
+    ops.rename(tmpKey, key);
+  }
+
+  static void putAll(
+      RedisOperations<String, Object> ops, String key, List<? extends BaseLocation> locations) {
+    Map<String, String> names = new LinkedHashMap<>();
+    for (var location : locations) {
+      names.put(String.valueOf(location.getCode()), location.getName());
     }
+    ops.opsForHash().putAll(key, names);
   }
 }
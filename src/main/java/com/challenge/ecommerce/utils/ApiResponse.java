@@ -21,4 +21,7 @@ public class ApiResponse<T> {
 
   @Min(1)
   Integer limit;
+
+  // opaque cursor of the next page in keyset pagination mode
+  String nextCursor;
 }
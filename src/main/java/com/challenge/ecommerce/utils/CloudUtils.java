@@ -5,33 +5,28 @@ import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.concurrent.CompletableFuture;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
-import org.springframework.web.multipart.MultipartFile;
 
 @Component
+@ConditionalOnProperty(name = "app.files.storage", havingValue = "cloudinary", matchIfMissing = true)
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @AllArgsConstructor
 @Slf4j
 public class CloudUtils {
   Cloudinary cloudinary;
 
-  public CompletableFuture<String> uploadFileAsync(MultipartFile image) {
-    return CompletableFuture.supplyAsync(
-        () -> {
-          try {
-            var uploadResult =
-                cloudinary.uploader().upload(image.getBytes(), ObjectUtils.emptyMap());
-            // log.info(uploadResult.toString());
-            return uploadResult.get("secure_url").toString();
-          } catch (IOException e) {
-            throw new CustomRuntimeException(ErrorCode.FAILED_UPLOAD);
-          }
-        });
+  // sent in chunks of chunkBytes read from the stream, so at most one chunk is held in memory
+  public String uploadStream(InputStream image, int chunkBytes) throws IOException {
+    var options = ObjectUtils.asMap("resource_type", "image");
+    var uploadResult = cloudinary.uploader().uploadLarge(image, options, chunkBytes);
+    return uploadResult.get("secure_url").toString();
   }
 
   public void deleteFile(String imgUrl) {
@@ -0,0 +1,32 @@
+package com.challenge.ecommerce.utils.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** Defers work that must only see committed data, such as cache evictions, to the commit. */
+public class AfterCommit {
+
+  // runs the task once the current transaction commits, or right away outside of one
+  public static void run(Runnable task) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      task.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            task.run();
+          }
+        });
+  }
+
+  // runs the task now and, inside a transaction, again once it commits, so a reader that loaded
+  // the old rows in between does not leave them behind
+  public static void runNowAndAfterCommit(Runnable task) {
+    task.run();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      run(task);
+    }
+  }
+}
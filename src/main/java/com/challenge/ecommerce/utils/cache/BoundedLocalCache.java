@@ -0,0 +1,76 @@
+package com.challenge.ecommerce.utils.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Small in-process LRU cache with a fixed capacity and a time-to-live per entry. Entries beyond
+ * the capacity are evicted in least-recently-used order; expired entries are dropped on read.
+ */
+public class BoundedLocalCache<K, V> {
+
+  private record Entry<V>(V value, long expiresAtNanos) {}
+
+  private final long ttlNanos;
+  private final LinkedHashMap<K, Entry<V>> entries;
+  private final LongAdder evictions = new LongAdder();
+
+  public BoundedLocalCache(int maxSize, Duration ttl) {
+    this.ttlNanos = ttl.toNanos();
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+            if (size() > maxSize) {
+              evictions.increment();
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  public synchronized V get(K key) {
+    var entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (entry.expiresAtNanos() - System.nanoTime() <= 0) {
+      entries.remove(key);
+      evictions.increment();
+      return null;
+    }
+    return entry.value();
+  }
+
+  public synchronized void put(K key, V value) {
+    entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+  }
+
+  // the entry lives for the shorter of the given ttl and the cache ttl
+  public synchronized void put(K key, V value, Duration ttl) {
+    var entryTtlNanos = Math.min(ttl.toNanos(), ttlNanos);
+    if (entryTtlNanos <= 0) {
+      return;
+    }
+    entries.put(key, new Entry<>(value, System.nanoTime() + entryTtlNanos));
+  }
+
+  public synchronized void invalidate(K key) {
+    entries.remove(key);
+  }
+
+  public synchronized void invalidateAll() {
+    entries.clear();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public long evictionCount() {
+    return evictions.sum();
+  }
+}
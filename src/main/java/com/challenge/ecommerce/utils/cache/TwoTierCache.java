@@ -0,0 +1,153 @@
+package com.challenge.ecommerce.utils.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache with a {@link BoundedLocalCache} in front of Redis, where values are kept as
+ * JSON. On a miss in both tiers only one caller per key runs the loader, the others wait for its
+ * result. Meters are named after the cache: {@code <name>.requests} by result, {@code
+ * <name>.invalidations}, {@code <name>.evictions} and {@code <name>.size}.
+ */
+@Slf4j
+public class TwoTierCache<V> {
+
+  private final RedisTemplate<String, Object> redisTemplate;
+  private final ObjectMapper objectMapper;
+  private final JavaType valueType;
+  private final BoundedLocalCache<String, V> localCache;
+  private final Duration redisTtl;
+
+  // loads in progress, one per key
+  private final ConcurrentHashMap<String, CompletableFuture<V>> inFlight =
+      new ConcurrentHashMap<>();
+  // bumped on every eviction so a load that raced with a write is not cached
+  private final AtomicLong generation = new AtomicLong();
+
+  private final Counter localHits;
+  private final Counter redisHits;
+  private final Counter misses;
+  private final Counter coalesced;
+  private final Counter invalidations;
+
+  public TwoTierCache(
+      String name,
+      RedisTemplate<String, Object> redisTemplate,
+      ObjectMapper objectMapper,
+      JavaType valueType,
+      MeterRegistry meterRegistry,
+      int localMaxSize,
+      Duration localTtl,
+      Duration redisTtl) {
+    this.redisTemplate = redisTemplate;
+    this.objectMapper = objectMapper;
+    this.valueType = valueType;
+    this.localCache = new BoundedLocalCache<>(localMaxSize, localTtl);
+    this.redisTtl = redisTtl;
+
+    this.localHits = meterRegistry.counter(name + ".requests", "result", "local_hit");
+    this.redisHits = meterRegistry.counter(name + ".requests", "result", "redis_hit");
+    this.misses = meterRegistry.counter(name + ".requests", "result", "miss");
+    this.coalesced = meterRegistry.counter(name + ".requests", "result", "coalesced");
+    this.invalidations = meterRegistry.counter(name + ".invalidations");
+    FunctionCounter.builder(name + ".evictions", localCache, BoundedLocalCache::evictionCount)
+        .register(meterRegistry);
+    Gauge.builder(name + ".size", localCache, BoundedLocalCache::size).register(meterRegistry);
+  }
+
+  public V get(String key, Supplier<V> loader) {
+    var cached = localCache.get(key);
+    if (cached != null) {
+      localHits.increment();
+      return cached;
+    }
+
+    var future = new CompletableFuture<V>();
+    var existing = inFlight.putIfAbsent(key, future);
+    if (existing != null) {
+      coalesced.increment();
+      return await(existing);
+    }
+
+    try {
+      var startGeneration = generation.get();
+      var value = readRedis(key);
+      if (value != null) {
+        redisHits.increment();
+      } else {
+        misses.increment();
+        value = loader.get();
+        if (startGeneration == generation.get()) {
+          writeRedis(key, value);
+        }
+      }
+      if (startGeneration == generation.get()) {
+        localCache.put(key, value);
+      }
+      future.complete(value);
+      return value;
+    } catch (RuntimeException e) {
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, future);
+    }
+  }
+
+  /** Drops the keys from both tiers; see {@link AfterCommit} to evict on behalf of a write. */
+  public void evict(Collection<String> keys) {
+    generation.incrementAndGet();
+    invalidations.increment();
+    keys.forEach(localCache::invalidate);
+    try {
+      redisTemplate.delete(keys);
+    } catch (RuntimeException e) {
+      log.warn("Failed to evict {} from redis: {}", keys, e.getMessage());
+    }
+  }
+
+  V readRedis(String key) {
+    try {
+      var json = redisTemplate.opsForValue().get(key);
+      return json == null ? null : objectMapper.readValue(json.toString(), valueType);
+    } catch (JsonProcessingException | RuntimeException e) {
+      log.warn("Failed to read {} from redis: {}", key, e.getMessage());
+      return null;
+    }
+  }
+
+  void writeRedis(String key, V value) {
+    try {
+      var json = objectMapper.writeValueAsString(value);
+      redisTemplate.opsForValue().set(key, json, redisTtl);
+    } catch (JsonProcessingException | RuntimeException e) {
+      log.warn("Failed to write {} to redis: {}", key, e.getMessage());
+    }
+  }
+
+  static <V> V await(CompletableFuture<V> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.challenge.ecommerce.utils.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tasks on virtual threads with at most {@code maxConcurrency} of them executing at once and
+ * at most {@code queueCapacity} waiting. A task that cannot be admitted, or that does not finish
+ * before the deadline, fails with {@link RejectedExecutionException} instead of piling up.
+ */
+public class BoundedVirtualThreadExecutor implements AutoCloseable {
+
+  private final ExecutorService executor;
+  private final Semaphore permits;
+  private final int maxPending;
+  private final Duration deadline;
+
+  private final AtomicInteger pending = new AtomicInteger();
+  private final AtomicInteger running = new AtomicInteger();
+
+  private final Timer latency;
+  private final Counter rejections;
+
+  public BoundedVirtualThreadExecutor(
+      String name,
+      int maxConcurrency,
+      int queueCapacity,
+      Duration deadline,
+      MeterRegistry meterRegistry) {
+    this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name, 0).factory());
+    this.permits = new Semaphore(maxConcurrency, true);
+    this.maxPending = maxConcurrency + queueCapacity;
+    this.deadline = deadline;
+
+    this.latency = meterRegistry.timer(name + ".latency");
+    this.rejections = meterRegistry.counter(name + ".rejections");
+    Gauge.builder(name + ".queue.depth", this, BoundedVirtualThreadExecutor::queueDepth)
+        .register(meterRegistry);
+    Gauge.builder(name + ".active", running, AtomicInteger::get).register(meterRegistry);
+  }
+
+  /** Runs the task and waits for its result, at most until the deadline. */
+  public <T> T call(Callable<T> task) {
+    if (pending.incrementAndGet() > maxPending) {
+      pending.decrementAndGet();
+      rejections.increment();
+      throw new RejectedExecutionException("Executor queue is full");
+    }
+    var deadlineNanos = System.nanoTime() + deadline.toNanos();
+    Future<T> future;
+    try {
+      future = executor.submit(() -> runWithPermit(task, deadlineNanos));
+    } catch (RejectedExecutionException e) {
+      pending.decrementAndGet();
+      rejections.increment();
+      throw e;
+    }
+    try {
+      return future.get(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      rejections.increment();
+      throw new RejectedExecutionException("Task did not complete before the deadline");
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new RejectedExecutionException("Interrupted while waiting for the task", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new CompletionException(e.getCause());
+    }
+  }
+
+  <T> T runWithPermit(Callable<T> task, long deadlineNanos) throws Exception {
+    try {
+      if (!permits.tryAcquire(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+        rejections.increment();
+        throw new RejectedExecutionException("No permit before the deadline");
+      }
+      running.incrementAndGet();
+      try {
+        return latency.recordCallable(task);
+      } finally {
+        running.decrementAndGet();
+        permits.release();
+      }
+    } finally {
+      pending.decrementAndGet();
+    }
+  }
+
+  public int queueDepth() {
+    return Math.max(0, pending.get() - running.get());
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,168 @@
+package com.challenge.ecommerce.utils.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Bounded queue drained by a single writer thread, which hands everything waiting (up to {@code
+ * maxBatchSize} items) to the {@link BatchWriter} at once, so concurrent callers share one commit.
+ * Each caller gets its own future. When a whole batch fails, its items are retried one by one so
+ * a single bad item cannot fail the others. A caller that stops waiting cancels its future: the
+ * item is skipped if the writer has not picked it up yet, otherwise it is still written.
+ */
+@Slf4j
+public class GroupCommitQueue<T, R> implements AutoCloseable {
+
+  private static final long POLL_MILLIS = 100;
+
+  @FunctionalInterface
+  public interface BatchWriter<T, R> {
+    // writes the batch as one unit, returns one result per item in the same order
+    List<Result<R>> write(List<T> batch);
+  }
+
+  public record Result<R>(R value, RuntimeException error) {
+    public static <R> Result<R> success(R value) {
+      return new Result<>(value, null);
+    }
+
+    public static <R> Result<R> failure(RuntimeException error) {
+      return new Result<>(null, error);
+    }
+  }
+
+  private record Pending<T, R>(T item, CompletableFuture<R> future) {}
+
+  private final String name;
+  private final BlockingQueue<Pending<T, R>> queue;
+  private final int maxBatchSize;
+  private final BatchWriter<T, R> writer;
+  private final Thread thread;
+  private volatile boolean closed;
+
+  private final DistributionSummary batchSizes;
+  private final Counter rejections;
+
+  public GroupCommitQueue(
+      String name,
+      int capacity,
+      int maxBatchSize,
+      BatchWriter<T, R> writer,
+      MeterRegistry meterRegistry) {
+    this.name = name;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.maxBatchSize = maxBatchSize;
+    this.writer = writer;
+
+    this.batchSizes = meterRegistry.summary(name + ".batch.size");
+    this.rejections = meterRegistry.counter(name + ".rejections");
+    Gauge.builder(name + ".queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+
+    this.thread = Thread.ofPlatform().name(name).daemon().start(this::drain);
+  }
+
+  /** Queues the item, or throws {@link RejectedExecutionException} when the queue is full. */
+  public CompletableFuture<R> submit(T item) {
+    if (closed) {
+      throw new RejectedExecutionException(name + " is closed");
+    }
+    var pending = new Pending<T, R>(item, new CompletableFuture<>());
+    if (!queue.offer(pending)) {
+      rejections.increment();
+      throw new RejectedExecutionException(name + " queue is full");
+    }
+    return pending.future();
+  }
+
+  private void drain() {
+    List<Pending<T, R>> batch = new ArrayList<>(maxBatchSize);
+    while (!closed || !queue.isEmpty()) {
+      try {
+        var first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, maxBatchSize - 1);
+        // callers that gave up waiting cancelled their future, their items are not written
+        batch.removeIf(pending -> pending.future().isDone());
+        if (batch.isEmpty()) {
+          continue;
+        }
+        batchSizes.record(batch.size());
+        try {
+          write(batch);
+        } catch (Throwable e) {
+          // fails the batch rather than the writer thread, which every later caller waits on
+          log.error("{} batch of {} failed: {}", name, batch.size(), e.toString());
+          batch.forEach(pending -> pending.future().completeExceptionally(e));
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } finally {
+        batch.clear();
+      }
+    }
+    Pending<T, R> left;
+    while ((left = queue.poll()) != null) {
+      left.future().completeExceptionally(new RejectedExecutionException(name + " is closed"));
+    }
+  }
+
+  void write(List<Pending<T, R>> batch) {
+    try {
+      complete(batch, writer.write(batch.stream().map(Pending::item).toList()));
+      return;
+    } catch (RuntimeException e) {
+      if (batch.size() == 1) {
+        batch.get(0).future().completeExceptionally(e);
+        return;
+      }
+      // the batch rolled back as a whole
+      log.warn(
+          "{} batch of {} failed, retrying one by one: {}", name, batch.size(), e.getMessage());
+    }
+    for (var pending : batch) {
+      try {
+        complete(List.of(pending), writer.write(List.of(pending.item())));
+      } catch (RuntimeException e) {
+        pending.future().completeExceptionally(e);
+      }
+    }
+  }
+
+  private void complete(List<Pending<T, R>> batch, List<Result<R>> results) {
+    for (int i = 0; i < batch.size(); i++) {
+      var result = results.get(i);
+      if (result.error() != null) {
+        batch.get(i).future().completeExceptionally(result.error());
+      } else {
+        batch.get(i).future().complete(result.value());
+      }
+    }
+  }
+
+  /** Stops taking items and waits up to the timeout for the queued ones to be written. */
+  public void close(Duration timeout) {
+    closed = true;
+    try {
+      thread.join(timeout);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public void close() {
+    close(Duration.ofSeconds(10));
+  }
+}
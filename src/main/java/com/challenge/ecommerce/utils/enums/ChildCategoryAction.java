@@ -0,0 +1,11 @@
+package com.challenge.ecommerce.utils.enums;
+
+// what happens to the children of a deleted category
+public enum ChildCategoryAction {
+  // they become top-level categories
+  DETACH,
+  // they move up to the deleted category's parent
+  REPARENT,
+  // they are deleted with it, down to the leaves
+  DELETE
+}
@@ -0,0 +1,69 @@
+package com.challenge.ecommerce.utils.pagination;
+
+import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
+import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
+import com.challenge.ecommerce.utils.BaseEntity;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a page in keyset pagination, ordered by (createdAt, id). It is
+ * handed to clients as an opaque url-safe string; the sort direction is encoded with it so a
+ * cursor cannot be replayed against the opposite order.
+ */
+public record KeysetCursor(boolean ascending, LocalDateTime createdAt, String id) {
+
+  static final String SEPARATOR = "|";
+
+  public String encode() {
+    var raw = (ascending ? "A" : "D") + SEPARATOR + createdAt + SEPARATOR + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  // a blank cursor means the first page
+  public static KeysetCursor decode(String cursor, boolean ascending) {
+    if (cursor == null || cursor.isBlank()) {
+      return null;
+    }
+    try {
+      var raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      var parts = raw.split("\\|", 3);
+      if (parts.length != 3 || parts[2].isEmpty()) {
+        throw new CustomRuntimeException(ErrorCode.INVALID_CURSOR);
+      }
+      if (!parts[0].equals(ascending ? "A" : "D")) {
+        throw new CustomRuntimeException(ErrorCode.INVALID_CURSOR);
+      }
+      return new KeysetCursor(ascending, LocalDateTime.parse(parts[1]), parts[2]);
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new CustomRuntimeException(ErrorCode.INVALID_CURSOR);
+    }
+  }
+
+  // rows strictly after the cursor in (createdAt, id) order
+  public static <T extends BaseEntity> Specification<T> seekAfter(KeysetCursor after) {
+    return (root, query, criteriaBuilder) -> {
+      Path<LocalDateTime> createdAt = root.get("createdAt");
+      Path<String> id = root.get("id");
+      if (after.ascending()) {
+        return criteriaBuilder.or(
+            criteriaBuilder.greaterThan(createdAt, after.createdAt()),
+            criteriaBuilder.and(
+                criteriaBuilder.equal(createdAt, after.createdAt()),
+                criteriaBuilder.greaterThan(id, after.id())));
+      }
+      return criteriaBuilder.or(
+          criteriaBuilder.lessThan(createdAt, after.createdAt()),
+          criteriaBuilder.and(
+              criteriaBuilder.equal(createdAt, after.createdAt()),
+              criteriaBuilder.lessThan(id, after.id())));
+    };
+  }
+}
@@ -0,0 +1,19 @@
+package com.challenge.ecommerce.utils.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+
+/** One page of a keyset query, with the cursor of the next page or null on the last one. */
+public record KeysetPage<T>(List<T> content, String nextCursor) {
+
+  // the rows are read with a limit of size + 1: the extra row tells whether there is a next
+  // page, so no count query is needed
+  public static <T> KeysetPage<T> of(
+      List<T> rows, int size, Function<T, KeysetCursor> cursorOf) {
+    if (rows.size() <= size) {
+      return new KeysetPage<>(rows, null);
+    }
+    var content = rows.subList(0, size);
+    return new KeysetPage<>(content, cursorOf.apply(content.get(size - 1)).encode());
+  }
+}
@@ -0,0 +1,208 @@
+-- Baseline schema, previously generated by hibernate ddl-auto.
+-- Every soft-delete lookup has a composite index of (business key, deleted_at).
+
+CREATE TABLE users (
+    id            VARCHAR(255) NOT NULL,
+    created_at    DATETIME(6)  NOT NULL,
+    updated_at    DATETIME(6)  NOT NULL,
+    deleted_at    DATETIME(6),
+    name          VARCHAR(100) NOT NULL,
+    email         VARCHAR(255) NOT NULL,
+    password      VARCHAR(255) NOT NULL,
+    avatar_link   VARCHAR(2083),
+    refresh_token VARCHAR(255),
+    role          VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_users_email_deleted (email, deleted_at),
+    INDEX idx_users_name_deleted (name, deleted_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE delivery_address (
+    id             VARCHAR(255) NOT NULL,
+    created_at     DATETIME(6)  NOT NULL,
+    updated_at     DATETIME(6)  NOT NULL,
+    deleted_at     DATETIME(6),
+    guide_position TEXT,
+    province       VARCHAR(100) NOT NULL,
+    district       VARCHAR(100) NOT NULL,
+    ward           VARCHAR(100) NOT NULL,
+    user_id        VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_delivery_address_user_deleted (user_id, deleted_at),
+    CONSTRAINT fk_delivery_address_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE categories (
+    id                 VARCHAR(255) NOT NULL,
+    created_at         DATETIME(6)  NOT NULL,
+    updated_at         DATETIME(6)  NOT NULL,
+    deleted_at         DATETIME(6),
+    name               VARCHAR(100) NOT NULL,
+    category_img       VARCHAR(2083),
+    slug               VARCHAR(255) NOT NULL,
+    parent_category_id VARCHAR(255),
+    PRIMARY KEY (id),
+    INDEX idx_categories_slug_deleted (slug, deleted_at),
+    INDEX idx_categories_name_deleted (name, deleted_at),
+    INDEX idx_categories_parent_deleted (parent_category_id, deleted_at),
+    CONSTRAINT fk_categories_parent FOREIGN KEY (parent_category_id) REFERENCES categories (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE products (
+    id            VARCHAR(255)   NOT NULL,
+    created_at    DATETIME(6)    NOT NULL,
+    updated_at    DATETIME(6)    NOT NULL,
+    deleted_at    DATETIME(6),
+    title         VARCHAR(255)   NOT NULL,
+    description   MEDIUMTEXT     NOT NULL,
+    slug          VARCHAR(255)   NOT NULL,
+    category_id   VARCHAR(255)   NOT NULL,
+    category_slug VARCHAR(255),
+    min_price     DECIMAL(19, 2),
+    max_price     DECIMAL(19, 2),
+    total_stock   INT            NOT NULL DEFAULT 0,
+    PRIMARY KEY (id),
+    INDEX idx_products_slug_deleted (slug, deleted_at),
+    INDEX idx_products_title_deleted (title, deleted_at),
+    INDEX idx_products_deleted_created (deleted_at, created_at, id),
+    INDEX idx_products_list_filter (deleted_at, category_slug, min_price, created_at),
+    CONSTRAINT fk_products_category FOREIGN KEY (category_id) REFERENCES categories (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE images (
+    id         VARCHAR(255)  NOT NULL,
+    created_at DATETIME(6)   NOT NULL,
+    updated_at DATETIME(6)   NOT NULL,
+    deleted_at DATETIME(6),
+    images_url VARCHAR(2083) NOT NULL,
+    type_image VARCHAR(255)  NOT NULL,
+    product_id VARCHAR(255)  NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_images_product_deleted_type (product_id, deleted_at, type_image),
+    CONSTRAINT fk_images_product FOREIGN KEY (product_id) REFERENCES products (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE options (
+    id          VARCHAR(255) NOT NULL,
+    created_at  DATETIME(6)  NOT NULL,
+    updated_at  DATETIME(6)  NOT NULL,
+    deleted_at  DATETIME(6),
+    option_name VARCHAR(100) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_options_name_deleted (option_name, deleted_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE option_values (
+    id         VARCHAR(255) NOT NULL,
+    created_at DATETIME(6)  NOT NULL,
+    updated_at DATETIME(6)  NOT NULL,
+    deleted_at DATETIME(6),
+    value_name VARCHAR(100) NOT NULL,
+    option_id  VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_option_values_option_deleted (option_id, deleted_at),
+    INDEX idx_option_values_name_deleted (value_name, deleted_at),
+    CONSTRAINT fk_option_values_option FOREIGN KEY (option_id) REFERENCES options (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE product_options (
+    id         VARCHAR(255) NOT NULL,
+    created_at DATETIME(6)  NOT NULL,
+    updated_at DATETIME(6)  NOT NULL,
+    deleted_at DATETIME(6),
+    option_id  VARCHAR(255) NOT NULL,
+    product_id VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_product_options_product_deleted (product_id, deleted_at),
+    CONSTRAINT fk_product_options_option FOREIGN KEY (option_id) REFERENCES options (id),
+    CONSTRAINT fk_product_options_product FOREIGN KEY (product_id) REFERENCES products (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE variants (
+    id             VARCHAR(255)   NOT NULL,
+    created_at     DATETIME(6)    NOT NULL,
+    updated_at     DATETIME(6)    NOT NULL,
+    deleted_at     DATETIME(6),
+    sku_id         VARCHAR(100)   NOT NULL,
+    stock_quantity INT            NOT NULL,
+    price          DECIMAL(38, 2) NOT NULL,
+    product_id     VARCHAR(255)   NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_variants_sku_deleted (sku_id, deleted_at),
+    INDEX idx_variants_product_deleted_created (product_id, deleted_at, created_at),
+    CONSTRAINT fk_variants_product FOREIGN KEY (product_id) REFERENCES products (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE variant_values (
+    id              VARCHAR(255) NOT NULL,
+    created_at      DATETIME(6)  NOT NULL,
+    updated_at      DATETIME(6)  NOT NULL,
+    deleted_at      DATETIME(6),
+    variant_id      VARCHAR(255) NOT NULL,
+    option_value_id VARCHAR(255) NOT NULL,
+    option_id       VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_variant_values_variant_option_deleted (variant_id, option_id, deleted_at),
+    CONSTRAINT fk_variant_values_variant FOREIGN KEY (variant_id) REFERENCES variants (id),
+    CONSTRAINT fk_variant_values_option_value
+        FOREIGN KEY (option_value_id) REFERENCES option_values (id),
+    CONSTRAINT fk_variant_values_option FOREIGN KEY (option_id) REFERENCES options (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE favorites (
+    id         VARCHAR(255) NOT NULL,
+    created_at DATETIME(6)  NOT NULL,
+    updated_at DATETIME(6)  NOT NULL,
+    deleted_at DATETIME(6),
+    user_id    VARCHAR(255) NOT NULL,
+    product_id VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_favorites_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_favorites_product FOREIGN KEY (product_id) REFERENCES products (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE orders (
+    id                  VARCHAR(255)   NOT NULL,
+    created_at          DATETIME(6)    NOT NULL,
+    updated_at          DATETIME(6)    NOT NULL,
+    deleted_at          DATETIME(6),
+    status              VARCHAR(255)   NOT NULL,
+    total_price         DECIMAL(38, 2) NOT NULL,
+    payment_method      VARCHAR(255)   NOT NULL,
+    payment_status      VARCHAR(255)   NOT NULL,
+    user_id             VARCHAR(255)   NOT NULL,
+    delivery_address_id VARCHAR(255)   NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_orders_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_orders_delivery_address
+        FOREIGN KEY (delivery_address_id) REFERENCES delivery_address (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE order_items (
+    id               VARCHAR(255)   NOT NULL,
+    created_at       DATETIME(6)    NOT NULL,
+    updated_at       DATETIME(6)    NOT NULL,
+    deleted_at       DATETIME(6),
+    quantity         INT            NOT NULL,
+    item_total_price DECIMAL(38, 2) NOT NULL,
+    order_id         VARCHAR(255)   NOT NULL,
+    variant_id       VARCHAR(255)   NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_order_items_variant FOREIGN KEY (variant_id) REFERENCES variants (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE reviews (
+    id            VARCHAR(255) NOT NULL,
+    created_at    DATETIME(6)  NOT NULL,
+    updated_at    DATETIME(6)  NOT NULL,
+    deleted_at    DATETIME(6),
+    content       TEXT,
+    rating        INT,
+    user_id       VARCHAR(255) NOT NULL,
+    order_item_id VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_reviews_order_item UNIQUE (order_item_id),
+    CONSTRAINT fk_reviews_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_reviews_order_item FOREIGN KEY (order_item_id) REFERENCES order_items (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
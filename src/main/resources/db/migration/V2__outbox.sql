@@ -0,0 +1,32 @@
+ALTER TABLE orders
+    ADD COLUMN delivered_at DATETIME(6);
+
+CREATE TABLE outbox_events (
+    id              VARCHAR(255) NOT NULL,
+    created_at      DATETIME(6)  NOT NULL,
+    updated_at      DATETIME(6)  NOT NULL,
+    deleted_at      DATETIME(6),
+    event_type      VARCHAR(100) NOT NULL,
+    aggregate_id    VARCHAR(255) NOT NULL,
+    payload         TEXT         NOT NULL,
+    attempts        INT          NOT NULL,
+    next_attempt_at DATETIME(6)  NOT NULL,
+    dispatched_at   DATETIME(6),
+    PRIMARY KEY (id),
+    INDEX idx_outbox_events_due (dispatched_at, next_attempt_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE processed_events (
+    event_id     VARCHAR(255) NOT NULL,
+    consumer     VARCHAR(100) NOT NULL,
+    processed_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (event_id, consumer),
+    INDEX idx_processed_events_processed_at (processed_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE product_stats (
+    product_id VARCHAR(255) NOT NULL,
+    sold_count BIGINT       NOT NULL,
+    PRIMARY KEY (product_id),
+    CONSTRAINT fk_product_stats_product FOREIGN KEY (product_id) REFERENCES products (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
@@ -0,0 +1,32 @@
+ALTER TABLE product_stats
+    MODIFY sold_count BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN favorite_count BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN rating_count BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE favorites
+    ADD CONSTRAINT uk_favorites_user_product UNIQUE (user_id, product_id);
+
+-- counters of the existing data, from then on they are maintained incrementally
+INSERT INTO product_stats (product_id, sold_count, favorite_count, rating_count)
+SELECT p.id,
+       (SELECT COALESCE(SUM(oi.quantity), 0)
+        FROM order_items oi
+                 JOIN variants v ON v.id = oi.variant_id
+                 JOIN orders o ON o.id = oi.order_id
+        WHERE v.product_id = p.id
+          AND o.status = 'DELIVERED'),
+       (SELECT COUNT(*)
+        FROM favorites f
+        WHERE f.product_id = p.id
+          AND f.deleted_at IS NULL),
+       (SELECT COUNT(*)
+        FROM reviews r
+                 JOIN order_items oi ON oi.id = r.order_item_id
+                 JOIN variants v ON v.id = oi.variant_id
+        WHERE v.product_id = p.id
+          AND r.deleted_at IS NULL
+          AND r.rating IS NOT NULL)
+FROM products p
+ON DUPLICATE KEY UPDATE sold_count     = VALUES(sold_count),
+                        favorite_count = VALUES(favorite_count),
+                        rating_count   = VALUES(rating_count);
@@ -0,0 +1,42 @@
+ALTER TABLE product_stats
+    ADD COLUMN rating_sum BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN rating_1 BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN rating_2 BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN rating_3 BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN rating_4 BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN rating_5 BIGINT NOT NULL DEFAULT 0;
+
+-- copy of rating_sum / rating_count, so product lists can sort by rating without a join
+ALTER TABLE products
+    ADD COLUMN avg_rating DECIMAL(3, 2) NULL,
+    ADD INDEX idx_products_deleted_rating (deleted_at, avg_rating, created_at);
+
+-- histogram of the existing reviews, from then on it is maintained with every review change
+INSERT INTO product_stats (product_id, rating_count, rating_sum, rating_1, rating_2, rating_3,
+                           rating_4, rating_5)
+SELECT v.product_id,
+       COUNT(*),
+       SUM(r.rating),
+       SUM(r.rating = 1),
+       SUM(r.rating = 2),
+       SUM(r.rating = 3),
+       SUM(r.rating = 4),
+       SUM(r.rating = 5)
+FROM reviews r
+         JOIN order_items oi ON oi.id = r.order_item_id
+         JOIN variants v ON v.id = oi.variant_id
+WHERE r.deleted_at IS NULL
+  AND r.rating IS NOT NULL
+GROUP BY v.product_id
+ON DUPLICATE KEY UPDATE rating_count = VALUES(rating_count),
+                        rating_sum   = VALUES(rating_sum),
+                        rating_1     = VALUES(rating_1),
+                        rating_2     = VALUES(rating_2),
+                        rating_3     = VALUES(rating_3),
+                        rating_4     = VALUES(rating_4),
+                        rating_5     = VALUES(rating_5);
+
+UPDATE products p
+    JOIN product_stats s ON s.product_id = p.id
+SET p.avg_rating = s.rating_sum / s.rating_count
+WHERE s.rating_count > 0;
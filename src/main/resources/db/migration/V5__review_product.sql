@@ -0,0 +1,11 @@
+-- product of the reviewed order item, so a product's reviews are listed without joins
+ALTER TABLE reviews
+    ADD COLUMN product_id VARCHAR(255) NULL,
+    ADD INDEX idx_reviews_product_created (product_id, deleted_at, created_at, id),
+    ADD INDEX idx_reviews_product_rating (product_id, deleted_at, rating, created_at, id),
+    ADD CONSTRAINT fk_reviews_product FOREIGN KEY (product_id) REFERENCES products (id);
+
+UPDATE reviews r
+    JOIN order_items oi ON oi.id = r.order_item_id
+    JOIN variants v ON v.id = oi.variant_id
+SET r.product_id = v.product_id;
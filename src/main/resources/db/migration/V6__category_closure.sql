@@ -0,0 +1,31 @@
+-- every (ancestor, descendant) pair of active categories, each category also being its own
+-- ancestor at depth 0, so a whole subtree is one index range
+CREATE TABLE category_closure (
+    ancestor_id   VARCHAR(255) NOT NULL,
+    descendant_id VARCHAR(255) NOT NULL,
+    depth         INT          NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id),
+    INDEX idx_category_closure_descendant (descendant_id, ancestor_id, depth),
+    CONSTRAINT fk_category_closure_ancestor FOREIGN KEY (ancestor_id) REFERENCES categories (id),
+    CONSTRAINT fk_category_closure_descendant FOREIGN KEY (descendant_id) REFERENCES categories (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+-- the depth bound stops a parent cycle in existing data from recursing forever
+INSERT INTO category_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE paths (ancestor_id, descendant_id, depth) AS (
+    SELECT id, id, 0
+    FROM categories
+    WHERE deleted_at IS NULL
+    UNION ALL
+    SELECT p.ancestor_id, c.id, p.depth + 1
+    FROM paths p
+             JOIN categories c ON c.parent_category_id = p.descendant_id
+    WHERE c.deleted_at IS NULL
+      AND p.depth < 64
+)
+SELECT ancestor_id, descendant_id, MIN(depth)
+FROM paths
+GROUP BY ancestor_id, descendant_id;
+
+ALTER TABLE products
+    ADD INDEX idx_products_category_deleted (category_id, deleted_at, created_at);
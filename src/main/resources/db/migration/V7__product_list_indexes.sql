@@ -0,0 +1,8 @@
+-- Product lists filter by category subtree through category_closure, so the category_slug index
+-- is no longer read. The category index follows the listing: one category at a time in keyset
+-- order, with min_price at the end so a price range is checked in the index before the row is
+-- read. It is added before the old one is dropped, as the category foreign key needs one of them.
+ALTER TABLE products
+    ADD INDEX idx_products_category_list (category_id, deleted_at, created_at, id, min_price),
+    DROP INDEX idx_products_category_deleted,
+    DROP INDEX idx_products_list_filter;
@@ -0,0 +1,104 @@
+package com.challenge.ecommerce.authentication.services.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.challenge.ecommerce.configs.Benchmark;
+import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
+import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
+import com.challenge.ecommerce.users.models.UserEntity;
+import com.challenge.ecommerce.users.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+class RefreshTokenServiceTest {
+
+  StringRedisTemplate redisTemplate;
+  ValueOperations<String, String> valueOperations;
+  UserRepository userRepository;
+  RefreshTokenService service;
+  UserEntity user;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    redisTemplate = mock(StringRedisTemplate.class);
+    valueOperations = mock(ValueOperations.class);
+    userRepository = mock(UserRepository.class);
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    service = new RefreshTokenService(redisTemplate, userRepository, "refresh-key", 3600);
+    user = new UserEntity();
+  }
+
+  @Test
+  void rotatesAgainstRedisAndDetectsReuse() {
+    service.store(user, "jti-1", "token-1");
+    var hash = service.hash("token-1");
+    verify(valueOperations).set(eq("refresh_token:jti-1"), eq(hash), any());
+
+    when(valueOperations.get("refresh_token:jti-1")).thenReturn(hash);
+    when(redisTemplate.execute(any(), anyList(), any(Object[].class))).thenReturn(1L);
+    service.verifyAndRotate(user, "jti-1", "token-1");
+
+    when(valueOperations.get("refresh_token:jti-1")).thenReturn(RefreshTokenService.ROTATED);
+    var e =
+        assertThrows(
+            CustomRuntimeException.class, () -> service.verifyAndRotate(user, "jti-1", "token-1"));
+    assertEquals(ErrorCode.REFRESH_TOKEN_REUSED, e.getErrorCode());
+    assertNull(user.getRefresh_token());
+    verify(userRepository).save(user);
+  }
+
+  @Test
+  void fallsBackToColumnWhenRedisIsDown() {
+    when(valueOperations.get(anyString()))
+        .thenThrow(new RedisConnectionFailureException("down"));
+    service.store(user, "jti-1", "token-1");
+
+    assertThrows(
+        CustomRuntimeException.class, () -> service.verifyAndRotate(user, "jti-1", "forged"));
+    service.verifyAndRotate(user, "jti-1", "token-1");
+    service.store(user, "jti-2", "token-2");
+
+    var e =
+        assertThrows(
+            CustomRuntimeException.class, () -> service.verifyAndRotate(user, "jti-1", "token-1"));
+    assertEquals(ErrorCode.REFRESH_TOKEN_REUSED, e.getErrorCode());
+  }
+
+  // the HMAC check every refresh now runs, against the BCrypt(10) match it replaced
+  @Benchmark
+  @Test
+  void timesTheHmacCheckAgainstBCrypt() {
+    var token = "eyJhbGciOiJIUzUxMiJ9." + "a".repeat(180) + "." + "s".repeat(86);
+    var hash = service.hash(token);
+    var encoder = new BCryptPasswordEncoder(10);
+    var encoded = encoder.encode(token);
+
+    var hmac =
+        microsPerCall(
+            20_000,
+            () -> assertTrue(RefreshTokenService.constantTimeEquals(service.hash(token), hash)));
+    var bcrypt = microsPerCall(50, () -> assertTrue(encoder.matches(token, encoded)));
+    System.out.printf(
+        "refresh token check: HMAC-SHA256 %.1f us, BCrypt(10) %.0f us (x%.0f)%n",
+        hmac, bcrypt, bcrypt / hmac);
+  }
+
+  // a tenth of the calls as warm-up, then the mean of the timed ones
+  static double microsPerCall(int calls, Runnable check) {
+    for (int i = 0; i < calls / 10; i++) {
+      check.run();
+    }
+    var start = System.nanoTime();
+    for (int i = 0; i < calls; i++) {
+      check.run();
+    }
+    return (System.nanoTime() - start) / 1e3 / calls;
+  }
+}
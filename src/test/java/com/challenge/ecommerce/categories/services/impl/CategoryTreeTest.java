@@ -0,0 +1,74 @@
+package com.challenge.ecommerce.categories.services.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.challenge.ecommerce.categories.repositories.CategoryRow;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CategoryTreeTest {
+
+  static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+  static CategoryRow row(String id, String parentId, int minute) {
+    return new CategoryRow(id, "Name " + id, null, "slug-" + id, parentId, T0.plusMinutes(minute));
+  }
+
+  static List<String> ids(List<CategoryTree.Node> nodes) {
+    return nodes.stream().map(CategoryTree.Node::id).toList();
+  }
+
+  @Test
+  void indexesNodesWithTheirChildrenAncestorsAndSubtree() {
+    var tree =
+        CategoryTree.build(
+            3,
+            List.of(
+                row("shoes", null, 5),
+                row("clothes", null, 0),
+                row("shirts", "clothes", 2),
+                row("pants", "clothes", 1),
+                row("polo", "shirts", 3),
+                row("jeans", "pants", 4)));
+
+    assertEquals(3, tree.version());
+    assertEquals(List.of("clothes", "shoes"), ids(tree.roots()));
+    assertEquals(List.of("clothes", "pants", "shirts", "polo", "jeans", "shoes"), ids(tree.all()));
+
+    var clothes = tree.bySlug("slug-clothes");
+    var polo = tree.byId("polo");
+    assertEquals(List.of("pants", "shirts"), ids(clothes.children()));
+    assertEquals(List.of("clothes", "shirts"), ids(polo.ancestors()));
+    assertEquals("shirts", polo.parent().id());
+    assertEquals(List.of("pants", "jeans", "shirts", "polo"), ids(tree.descendants(clothes)));
+
+    assertTrue(tree.isDescendant(polo, clothes));
+    assertFalse(tree.isDescendant(clothes, polo));
+    assertFalse(tree.isDescendant(clothes, clothes));
+    assertFalse(tree.isDescendant(polo, tree.byId("pants")));
+    assertFalse(tree.isDescendant(polo, tree.byId("shoes")));
+    assertTrue(tree.descendants(polo).isEmpty());
+  }
+
+  @Test
+  void childOfADeletedCategoryBecomesARoot() {
+    var tree = CategoryTree.build(1, List.of(row("shirts", "deleted", 0), row("polo", "shirts", 1)));
+
+    assertEquals(List.of("shirts"), ids(tree.roots()));
+    assertNull(tree.byId("shirts").parent());
+    assertTrue(tree.isDescendant(tree.byId("polo"), tree.byId("shirts")));
+  }
+
+  @Test
+  void cutsAParentCycleAtItsOldestCategory() {
+    var tree =
+        CategoryTree.build(
+            1, List.of(row("a", "b", 0), row("b", "a", 1), row("c", "b", 2), row("d", null, 3)));
+
+    assertEquals(4, tree.size());
+    assertEquals(List.of("d", "a"), ids(tree.roots()));
+    assertEquals(List.of("b", "c"), ids(tree.descendants(tree.byId("a"))));
+    assertEquals(List.of("a", "b"), ids(tree.byId("c").ancestors()));
+  }
+}
@@ -0,0 +1,16 @@
+package com.challenge.ecommerce.configs;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.junit.jupiter.api.Tag;
+
+/**
+ * Timing runs that print their numbers instead of asserting them, so they are left out of the
+ * default test run. {@code mvn test -Pbenchmark} runs them and nothing else.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Tag("benchmark")
+public @interface Benchmark {}
@@ -0,0 +1,18 @@
+package com.challenge.ecommerce.configs.database;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+@TestConfiguration(proxyBeanMethods = false)
+public class MySqlContainerConfig {
+
+  @Bean
+  @ServiceConnection
+  MySQLContainer<?> mysqlContainer() {
+    return new MySQLContainer<>(DockerImageName.parse("mysql:8.0"))
+        .withUrlParam("queryInterceptors", RecordingQueryInterceptor.class.getName());
+  }
+}
@@ -0,0 +1,22 @@
+package com.challenge.ecommerce.configs.database;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * JPA slice against a throwaway MySQL, with the Flyway migrations applied and the mappings
+ * validated against them. Skipped where no Docker daemon is available.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MySqlContainerConfig.class, JpaAuditingConfig.class})
+@Testcontainers(disabledWithoutDocker = true)
+public @interface MySqlJpaTest {}
@@ -0,0 +1,73 @@
+package com.challenge.ecommerce.configs.database;
+
+import com.mysql.cj.MysqlConnection;
+import com.mysql.cj.Query;
+import com.mysql.cj.interceptors.QueryInterceptor;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.ServerSession;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Records the statements the driver sends while recording is on, with their parameters already
+ * inlined, so a test can replay them under EXPLAIN. Installed through the {@code
+ * queryInterceptors} url parameter, hence the static state.
+ */
+public class RecordingQueryInterceptor implements QueryInterceptor {
+
+  private static final List<String> statements = new CopyOnWriteArrayList<>();
+  private static volatile boolean recording;
+
+  public static void start() {
+    statements.clear();
+    recording = true;
+  }
+
+  public static List<String> stop() {
+    recording = false;
+    return List.copyOf(statements);
+  }
+
+  @Override
+  public QueryInterceptor init(MysqlConnection conn, Properties props, Log log) {
+    return this;
+  }
+
+  @Override
+  public <T extends Resultset> T preProcess(Supplier<String> sql, Query interceptedQuery) {
+    if (recording) {
+      var statement = sql.get();
+      if (statement != null && isDml(statement)) {
+        statements.add(statement);
+      }
+    }
+    return null;
+  }
+
+  // leaves out the session and transaction statements of the driver and the pool
+  static boolean isDml(String statement) {
+    var head = statement.stripLeading().toLowerCase(Locale.ROOT);
+    return head.startsWith("select ")
+        || head.startsWith("update ")
+        || head.startsWith("delete ")
+        || head.startsWith("insert ");
+  }
+
+  @Override
+  public boolean executeTopLevelOnly() {
+    return true;
+  }
+
+  @Override
+  public void destroy() {}
+
+  @Override
+  public <T extends Resultset> T postProcess(
+      Supplier<String> sql, Query interceptedQuery, T originalResultSet, ServerSession session) {
+    return null;
+  }
+}
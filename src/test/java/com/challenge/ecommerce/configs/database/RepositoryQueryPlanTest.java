@@ -0,0 +1,182 @@
+package com.challenge.ecommerce.configs.database;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Runs every declared repository query against the migrated schema and fails when its plan reads
+ * a whole table. The tables are empty, so the plans are taken with {@code max_seeks_for_key=1}:
+ * the optimizer then prefers any usable index over a scan, and a scan means no index fits.
+ */
+@MySqlJpaTest
+class RepositoryQueryPlanTest {
+
+  // queries that read the whole table on purpose
+  static final Map<String, String> FULL_SCANS =
+      Map.of(
+          "UserRepository.findAllByDeletedAtIsNull", "admin listing of every user",
+          "CategoryRepository.findActiveRows", "loads the whole category tree",
+          "CategoryRepository.findTableVersion", "fingerprint of the whole category table",
+          "ProductRepository.findTitleSuggestions", "rebuilds the suggester from the catalog",
+          "ProductRepository.findCategorySuggestions", "rebuilds the suggester from the catalog");
+
+  @Autowired ApplicationContext context;
+  @Autowired DataSource dataSource;
+  @Autowired EntityManager entityManager;
+
+  @Test
+  void everyRepositoryQueryUsesAnIndex() {
+    var repositories = new Repositories(context);
+    Map<String, List<String>> statements = new TreeMap<>();
+    for (var domainType : repositories) {
+      var information = repositories.getRequiredRepositoryInformation(domainType);
+      var repository = repositories.getRepositoryFor(domainType).orElseThrow();
+      var name = information.getRepositoryInterface().getSimpleName();
+      for (var method : information.getQueryMethods()) {
+        statements.put(name + "." + method.getName(), record(repository, method));
+      }
+    }
+    assertFalse(statements.isEmpty());
+
+    var jdbcTemplate = new JdbcTemplate(dataSource);
+    List<String> scans = new ArrayList<>();
+    jdbcTemplate.execute("SET SESSION max_seeks_for_key = 1");
+    try {
+      statements.forEach(
+          (query, sqls) -> {
+            assertFalse(sqls.isEmpty(), query + " ran no statement");
+            if (FULL_SCANS.containsKey(query)) {
+              return;
+            }
+            for (var sql : sqls) {
+              for (var row : jdbcTemplate.queryForList("EXPLAIN " + sql)) {
+                if (isScan(row)) {
+                  scans.add(query + " scans " + row.get("table") + ": " + sql);
+                }
+              }
+            }
+          });
+    } finally {
+      jdbcTemplate.execute("SET SESSION max_seeks_for_key = DEFAULT");
+    }
+    assertEquals(List.of(), scans);
+  }
+
+  @Test
+  void everyMappedIndexMatchesTheMigrations() {
+    var jdbcTemplate = new JdbcTemplate(dataSource);
+    List<String> drift = new ArrayList<>();
+    for (var entity : entityManager.getMetamodel().getEntities()) {
+      var type = entity.getJavaType();
+      var tableName = type.getAnnotation(Entity.class).name();
+      var table = type.getAnnotation(Table.class);
+      var mapped =
+          table == null
+              ? Map.<String, List<String>>of()
+              : Arrays.stream(table.indexes())
+                  .collect(Collectors.toMap(Index::name, RepositoryQueryPlanTest::columnsOf));
+      var migrated = indexesOf(jdbcTemplate, tableName);
+      mapped.forEach(
+          (index, columns) -> {
+            var actual = migrated.get(index);
+            if (!columns.equals(actual)) {
+              drift.add(tableName + "." + index + " is " + actual + ", mapped as " + columns);
+            }
+          });
+      migrated.keySet().stream()
+          .filter(index -> index.startsWith("idx_") && !mapped.containsKey(index))
+          .forEach(index -> drift.add(tableName + "." + index + " is not mapped"));
+    }
+    assertEquals(List.of(), drift);
+  }
+
+  List<String> record(Object repository, Method method) {
+    var arguments = Arrays.stream(method.getParameterTypes()).map(this::sample).toArray();
+    RecordingQueryInterceptor.start();
+    try {
+      method.invoke(repository, arguments);
+    } catch (InvocationTargetException e) {
+      // the statement has run by then, e.g. an insert failing on a foreign key to "x"
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException(e);
+    } finally {
+      entityManager.clear();
+    }
+    return RecordingQueryInterceptor.stop();
+  }
+
+  Object sample(Class<?> type) {
+    if (type == String.class) {
+      return "x";
+    }
+    if (type == int.class || type == Integer.class) {
+      return 1;
+    }
+    if (type == long.class || type == Long.class) {
+      return 1L;
+    }
+    if (type == LocalDateTime.class) {
+      return LocalDateTime.now();
+    }
+    if (Collection.class.isAssignableFrom(type)) {
+      return List.of("x", "y");
+    }
+    if (type == Pageable.class) {
+      return PageRequest.of(0, 10);
+    }
+    if (type == Limit.class) {
+      return Limit.of(10);
+    }
+    throw new IllegalArgumentException("No sample value for a " + type.getName());
+  }
+
+  // the row an insert adds for its target table always reads "ALL"
+  static boolean isScan(Map<String, Object> row) {
+    var table = String.valueOf(row.get("table"));
+    return "ALL".equals(row.get("type"))
+        && !"INSERT".equals(row.get("select_type"))
+        && !table.startsWith("<");
+  }
+
+  static Map<String, List<String>> indexesOf(JdbcTemplate jdbcTemplate, String table) {
+    Map<String, List<String>> indexes = new HashMap<>();
+    var rows =
+        jdbcTemplate.queryForList(
+            "SELECT INDEX_NAME, COLUMN_NAME FROM information_schema.STATISTICS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? "
+                + "ORDER BY INDEX_NAME, SEQ_IN_INDEX",
+            table);
+    for (var row : rows) {
+      indexes
+          .computeIfAbsent((String) row.get("INDEX_NAME"), name -> new ArrayList<>())
+          .add((String) row.get("COLUMN_NAME"));
+    }
+    return indexes;
+  }
+
+  // property names are mapped to columns the way the default naming strategy does
+  static List<String> columnsOf(Index index) {
+    return Arrays.stream(index.columnList().split(","))
+        .map(String::strip)
+        .map(column -> column.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT))
+        .toList();
+  }
+}
@@ -0,0 +1,70 @@
+package com.challenge.ecommerce.configs.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.Date;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+class CustomJwtDecoderTest {
+
+  static final String KEY = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+
+  SimpleMeterRegistry meterRegistry;
+  CustomJwtDecoder decoder;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    decoder = new CustomJwtDecoder(KEY, 100, 300, meterRegistry);
+  }
+
+  @Test
+  void verifiesOnceAndServesRepeatedTokensFromCache() throws Exception {
+    var token = sign(KEY, Instant.now().plusSeconds(60));
+
+    var first = decoder.decode(token);
+    var second = decoder.decode(token);
+
+    assertSame(first, second);
+    assertEquals(1, requests("hit"));
+    assertEquals(1, requests("miss"));
+    assertEquals(1, meterRegistry.get("security.jwt.verification").timer().count());
+  }
+
+  @Test
+  void rejectsExpiredAndForeignTokens() throws Exception {
+    var expired = sign(KEY, Instant.now().minusSeconds(1));
+    var foreign = sign(KEY.replace('0', '1'), Instant.now().plusSeconds(60));
+
+    assertThrows(JwtException.class, () -> decoder.decode(expired));
+    assertThrows(JwtException.class, () -> decoder.decode(foreign));
+    assertThrows(JwtException.class, () -> decoder.decode(foreign));
+    assertEquals(0, requests("hit"));
+  }
+
+  double requests(String result) {
+    return meterRegistry.get("security.jwt.cache.requests").tag("result", result).counter().count();
+  }
+
+  static String sign(String key, Instant expiresAt) throws Exception {
+    var claims =
+        new JWTClaimsSet.Builder()
+            .subject("user@example.com")
+            .issueTime(new Date())
+            .expirationTime(Date.from(expiresAt))
+            .claim("scope", "USER")
+            .build();
+    var jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS512), claims);
+    jwt.sign(new MACSigner(key.getBytes()));
+    return jwt.serialize();
+  }
+}
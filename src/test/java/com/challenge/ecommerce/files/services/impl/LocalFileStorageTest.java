@@ -0,0 +1,47 @@
+package com.challenge.ecommerce.files.services.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LocalFileStorageTest {
+
+  @TempDir Path root;
+
+  @Test
+  void storesTheSameContentOnceUnderItsHash() throws Exception {
+    var storage = new LocalFileStorage(root.toString(), "http://localhost/api/files");
+    var content = new byte[3_000_000];
+    new Random(1).nextBytes(content);
+
+    var url = storage.store(new ByteArrayInputStream(content), "png");
+    assertEquals(url, storage.store(new ByteArrayInputStream(content), "png"));
+    assertTrue(url.matches("http://localhost/api/files/[0-9a-f]{64}\\.png"));
+    try (var files = Files.walk(root)) {
+      assertEquals(1, files.filter(Files::isRegularFile).count());
+    }
+
+    var served = new ByteArrayOutputStream();
+    try (var file = storage.open(url.substring(url.lastIndexOf('/') + 1))) {
+      assertEquals("image/png", file.contentType());
+      assertEquals(content.length, file.transferTo(Channels.newChannel(served)));
+    }
+    assertArrayEquals(content, served.toByteArray());
+  }
+
+  @Test
+  void opensOnlyStoredContentNames() throws Exception {
+    var storage = new LocalFileStorage(root.toString(), "http://localhost/api/files");
+
+    assertNull(storage.open("../secret.png"));
+    assertNull(storage.open("0".repeat(64) + ".png"));
+    assertNull(storage.open("0".repeat(64) + ".exe"));
+  }
+}
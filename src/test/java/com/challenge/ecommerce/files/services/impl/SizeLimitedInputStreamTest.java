@@ -0,0 +1,36 @@
+package com.challenge.ecommerce.files.services.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class SizeLimitedInputStreamTest {
+
+  @Test
+  void reportsEveryReadUpToTheLimit() throws Exception {
+    var reported = new AtomicLong();
+    var input =
+        new SizeLimitedInputStream(new ByteArrayInputStream(new byte[10]), 10, reported::addAndGet);
+
+    assertEquals(4, input.read(new byte[4]));
+    assertEquals(0, input.read());
+    assertEquals(5, input.read(new byte[8]));
+    assertEquals(-1, input.read());
+
+    assertEquals(10, input.count());
+    assertEquals(10, reported.get());
+    assertFalse(input.exceeded());
+  }
+
+  @Test
+  void failsTheReadThatGoesPastTheLimit() throws Exception {
+    var input = new SizeLimitedInputStream(new ByteArrayInputStream(new byte[10]), 6, n -> {});
+
+    assertEquals(4, input.read(new byte[4]));
+    assertThrows(
+        SizeLimitedInputStream.LimitExceededException.class, () -> input.read(new byte[4]));
+    assertTrue(input.exceeded());
+  }
+}
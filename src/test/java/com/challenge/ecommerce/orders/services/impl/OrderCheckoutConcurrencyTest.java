@@ -0,0 +1,190 @@
+package com.challenge.ecommerce.orders.services.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.challenge.ecommerce.categories.models.CategoryEntity;
+import com.challenge.ecommerce.categories.repositories.CategoryRepository;
+import com.challenge.ecommerce.configs.database.MySqlJpaTest;
+import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
+import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
+import com.challenge.ecommerce.orders.repository.OrderItemRepository;
+import com.challenge.ecommerce.orders.repository.OrderRepository;
+import com.challenge.ecommerce.outbox.services.IOutboxService;
+import com.challenge.ecommerce.products.models.ProductEntity;
+import com.challenge.ecommerce.products.models.VariantEntity;
+import com.challenge.ecommerce.products.repositories.ProductRepository;
+import com.challenge.ecommerce.products.repositories.VariantRepository;
+import com.challenge.ecommerce.products.services.IHotStockService;
+import com.challenge.ecommerce.users.models.DeliveryAddressEntity;
+import com.challenge.ecommerce.users.models.UserEntity;
+import com.challenge.ecommerce.users.repositories.UserDeliveryAddressRepository;
+import com.challenge.ecommerce.users.repositories.UserRepository;
+import com.challenge.ecommerce.utils.enums.PaymentMethod;
+import com.challenge.ecommerce.utils.enums.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Checkouts of a scarce variant written by many concurrent writers, each in its own transaction as
+ * the writers of several instances would be, so the conditional UPDATE, its row lock and the
+ * savepoints run on MySQL.
+ */
+@MySqlJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderCheckoutConcurrencyTest {
+
+  static final int STOCK = 50;
+  static final int WRITERS = 150;
+  static final int CHECKOUTS_PER_BATCH = 2;
+
+  @Autowired OrderRepository orderRepository;
+  @Autowired OrderItemRepository orderItemRepository;
+  @Autowired VariantRepository variantRepository;
+  @Autowired ProductRepository productRepository;
+  @Autowired CategoryRepository categoryRepository;
+  @Autowired UserRepository userRepository;
+  @Autowired UserDeliveryAddressRepository addressRepository;
+  @Autowired PlatformTransactionManager transactionManager;
+  @Autowired DataSource dataSource;
+
+  OrderServiceImpl service;
+  OrderServiceImpl.Checkout checkout;
+
+  @BeforeEach
+  void setUp() {
+    var transactionTemplate = new TransactionTemplate(transactionManager);
+    service =
+        new OrderServiceImpl(
+            orderRepository,
+            orderItemRepository,
+            variantRepository,
+            productRepository,
+            userRepository,
+            addressRepository,
+            mock(IHotStockService.class),
+            mock(IOutboxService.class),
+            transactionTemplate,
+            new SimpleMeterRegistry(),
+            1000,
+            50,
+            5000);
+
+    checkout =
+        transactionTemplate.execute(
+            status -> {
+              var user =
+                  userRepository.save(
+                      UserEntity.builder()
+                          .name("Buyer")
+                          .email("buyer@example.com")
+                          .password("secret")
+                          .role(Role.USER)
+                          .build());
+              var address =
+                  addressRepository.save(
+                      DeliveryAddressEntity.builder()
+                          .province("1")
+                          .district("1")
+                          .ward("1")
+                          .user(user)
+                          .build());
+              var category =
+                  categoryRepository.save(
+                      CategoryEntity.builder().name("Shoes").slug("shoes").build());
+              var product =
+                  productRepository.save(
+                      ProductEntity.builder()
+                          .title("Sneaker")
+                          .slug("sneaker")
+                          .description("description")
+                          .category(category)
+                          .totalStock(STOCK)
+                          .build());
+              var variant =
+                  variantRepository.save(
+                      VariantEntity.builder()
+                          .sku_id("sneaker-42")
+                          .stock_quantity(STOCK)
+                          .price(new BigDecimal("100000"))
+                          .product(product)
+                          .build());
+              return new OrderServiceImpl.Checkout(
+                  user,
+                  address,
+                  PaymentMethod.CASH_ON_DELIVERY,
+                  Map.of(variant.getId(), 1),
+                  Map.of(variant.getId(), variant));
+            });
+  }
+
+  @AfterEach
+  void tearDown() {
+    service.close();
+    var jdbcTemplate = new JdbcTemplate(dataSource);
+    for (var table :
+        List.of(
+            "order_items",
+            "orders",
+            "variants",
+            "products",
+            "categories",
+            "delivery_address",
+            "users")) {
+      jdbcTemplate.execute("DELETE FROM " + table);
+    }
+  }
+
+  @Test
+  void neverOversellsAScarceVariantUnderConcurrentWriters() throws Exception {
+    var start = new CountDownLatch(1);
+    Map<String, Integer> outcomes = new ConcurrentHashMap<>();
+    try (var executor = Executors.newFixedThreadPool(32)) {
+      for (int i = 0; i < WRITERS; i++) {
+        executor.submit(
+            () -> {
+              start.await();
+              List<OrderServiceImpl.Checkout> batch = new ArrayList<>();
+              for (int j = 0; j < CHECKOUTS_PER_BATCH; j++) {
+                batch.add(checkout);
+              }
+              for (var result : service.writeOrders(batch)) {
+                var outcome =
+                    result.error() instanceof CustomRuntimeException e
+                        ? e.getErrorCode().name()
+                        : result.error() == null ? "sold" : result.error().toString();
+                outcomes.merge(outcome, 1, Integer::sum);
+              }
+              return null;
+            });
+      }
+      start.countDown();
+    }
+
+    var buyers = WRITERS * CHECKOUTS_PER_BATCH;
+    assertEquals(Map.of("sold", STOCK, ErrorCode.OUT_OF_STOCK.name(), buyers - STOCK), outcomes);
+    var jdbcTemplate = new JdbcTemplate(dataSource);
+    assertEquals(
+        0, jdbcTemplate.queryForObject("SELECT stock_quantity FROM variants", Integer.class));
+    assertEquals(0, jdbcTemplate.queryForObject("SELECT total_stock FROM products", Integer.class));
+    assertEquals(STOCK, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class));
+    assertEquals(
+        STOCK, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_items", Integer.class));
+  }
+}
@@ -0,0 +1,280 @@
+package com.challenge.ecommerce.orders.services.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
+import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
+import com.challenge.ecommerce.orders.controllers.dto.OrderCreateDto;
+import com.challenge.ecommerce.orders.controllers.dto.OrderItemCreateDto;
+import com.challenge.ecommerce.orders.controllers.dto.OrderStatusUpdateRequest;
+import com.challenge.ecommerce.orders.models.OrderEntity;
+import com.challenge.ecommerce.orders.models.OrderItemEntity;
+import com.challenge.ecommerce.orders.repository.OrderItemRepository;
+import com.challenge.ecommerce.orders.repository.OrderRepository;
+import com.challenge.ecommerce.outbox.services.IOutboxService;
+import com.challenge.ecommerce.products.models.ProductEntity;
+import com.challenge.ecommerce.products.models.VariantEntity;
+import com.challenge.ecommerce.products.repositories.ProductRepository;
+import com.challenge.ecommerce.products.repositories.VariantRepository;
+import com.challenge.ecommerce.products.services.IHotStockService;
+import com.challenge.ecommerce.users.models.DeliveryAddressEntity;
+import com.challenge.ecommerce.users.models.UserEntity;
+import com.challenge.ecommerce.users.repositories.UserDeliveryAddressRepository;
+import com.challenge.ecommerce.users.repositories.UserRepository;
+import com.challenge.ecommerce.utils.enums.OrderStatus;
+import com.challenge.ecommerce.utils.enums.PaymentMethod;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class OrderServiceImplTest {
+
+  VariantRepository variantRepository;
+  ProductRepository productRepository;
+  IHotStockService hotStockService;
+  IOutboxService outboxService;
+  OrderRepository orderRepository;
+  OrderItemRepository orderItemRepository;
+  TransactionStatus transactionStatus;
+  OrderServiceImpl service;
+  VariantEntity shirt;
+  VariantEntity jeans;
+
+  @BeforeEach
+  void setUp() {
+    variantRepository = mock(VariantRepository.class);
+    productRepository = mock(ProductRepository.class);
+    var userRepository = mock(UserRepository.class);
+    var addressRepository = mock(UserDeliveryAddressRepository.class);
+    hotStockService = mock(IHotStockService.class);
+    outboxService = mock(IOutboxService.class);
+    orderRepository = mock(OrderRepository.class);
+    orderItemRepository = mock(OrderItemRepository.class);
+    transactionStatus = mock(TransactionStatus.class);
+    var transactionTemplate = mock(TransactionTemplate.class);
+    when(transactionTemplate.execute(any()))
+        .thenAnswer(
+            invocation -> {
+              TransactionCallback<?> callback = invocation.getArgument(0);
+              return callback.doInTransaction(transactionStatus);
+            });
+    service =
+        new OrderServiceImpl(
+            orderRepository,
+            orderItemRepository,
+            variantRepository,
+            productRepository,
+            userRepository,
+            addressRepository,
+            hotStockService,
+            outboxService,
+            transactionTemplate,
+            new SimpleMeterRegistry(),
+            1000,
+            50,
+            5000);
+
+    var user = new UserEntity();
+    user.setId("user-1");
+    var address = DeliveryAddressEntity.builder().user(user).build();
+    address.setId("address-1");
+    when(userRepository.findByEmailAndNotDeleted(any())).thenReturn(Optional.of(user));
+    when(addressRepository.findDeliveryAddressActive("address-1"))
+        .thenReturn(Optional.of(address));
+
+    var product = new ProductEntity();
+    product.setId("product-1");
+    shirt = variant("variant-b", product, "150000");
+    jeans = variant("variant-a", product, "400000");
+    when(variantRepository.findByIdsWithProductAndDeletedAtIsNull(any()))
+        .thenAnswer(
+            invocation -> {
+              var ids = invocation.<Collection<String>>getArgument(0);
+              return List.of(shirt, jeans).stream().filter(v -> ids.contains(v.getId())).toList();
+            });
+  }
+
+  @AfterEach
+  void tearDown() {
+    service.close();
+  }
+
+  static VariantEntity variant(String id, ProductEntity product, String price) {
+    var variant = VariantEntity.builder().sku_id(id).price(new BigDecimal(price)).build();
+    variant.setId(id);
+    variant.setProduct(product);
+    return variant;
+  }
+
+  static OrderCreateDto order(OrderItemCreateDto... items) {
+    return OrderCreateDto.builder()
+        .deliveryAddressId("address-1")
+        .paymentMethod(PaymentMethod.CASH_ON_DELIVERY)
+        .items(List.of(items))
+        .build();
+  }
+
+  @Test
+  void pricesItemsAndReservesStockInVariantIdOrder() {
+    when(variantRepository.reserveStock(anyString(), anyInt())).thenReturn(1);
+
+    var response =
+        service.checkout(
+            order(
+                new OrderItemCreateDto("variant-b", 2),
+                new OrderItemCreateDto("variant-a", 1),
+                new OrderItemCreateDto("variant-b", 1)));
+
+    assertEquals(new BigDecimal("850000"), response.getTotalPrice());
+    assertEquals(
+        List.of("variant-a", "variant-b"),
+        response.getItems().stream().map(item -> item.getVariantId()).toList());
+    assertEquals(new BigDecimal("450000"), response.getItems().get(1).getItemTotalPrice());
+    InOrder inOrder = inOrder(variantRepository, productRepository);
+    inOrder.verify(variantRepository).reserveStock("variant-a", 1);
+    inOrder.verify(variantRepository).reserveStock("variant-b", 3);
+    inOrder.verify(productRepository).decreaseTotalStock("product-1", 4);
+    verify(outboxService)
+        .append(
+            eq(OrderStatusChangedEvent.TYPE),
+            any(),
+            argThat(event -> ((OrderStatusChangedEvent) event).to() == OrderStatus.PENDING));
+  }
+
+  @Test
+  void rejectsUnknownVariantsAndShortStock() {
+    var unknown =
+        assertThrows(
+            CustomRuntimeException.class,
+            () -> service.checkout(order(new OrderItemCreateDto("variant-x", 1))));
+    assertEquals(ErrorCode.VARIANT_NOT_FOUND, unknown.getErrorCode());
+
+    when(variantRepository.reserveStock("variant-a", 1)).thenReturn(0);
+    var shortStock =
+        assertThrows(
+            CustomRuntimeException.class,
+            () -> service.checkout(order(new OrderItemCreateDto("variant-a", 1))));
+    assertEquals(ErrorCode.OUT_OF_STOCK, shortStock.getErrorCode());
+    verify(productRepository, never()).decreaseTotalStock(anyString(), anyInt());
+    verify(transactionStatus).rollbackToSavepoint(any());
+  }
+
+  @Test
+  void rejectsQuantitiesThatOverflowOrAreOutOfRangeOnceMerged() {
+    for (var cart :
+        List.of(
+            order(
+                new OrderItemCreateDto("variant-a", Integer.MAX_VALUE),
+                new OrderItemCreateDto("variant-a", 1)),
+            order(
+                new OrderItemCreateDto("variant-a", 600), new OrderItemCreateDto("variant-a", 600)),
+            order(new OrderItemCreateDto("variant-a", 0)))) {
+      var invalid = assertThrows(CustomRuntimeException.class, () -> service.checkout(cart));
+      assertEquals(ErrorCode.INVALID_ORDER_QUANTITY, invalid.getErrorCode());
+    }
+    verifyNoInteractions(hotStockService, orderRepository);
+    verify(variantRepository, never()).reserveStock(anyString(), anyInt());
+  }
+
+  @Test
+  void leavesFlaggedVariantsToTheHotStockCounters() {
+    when(hotStockService.reserve(any())).thenReturn(Set.of("variant-b"));
+    when(variantRepository.reserveStock(anyString(), anyInt())).thenReturn(1);
+
+    service.checkout(
+        order(new OrderItemCreateDto("variant-a", 1), new OrderItemCreateDto("variant-b", 2)));
+
+    verify(variantRepository).reserveStock("variant-a", 1);
+    verify(variantRepository, never()).reserveStock(eq("variant-b"), anyInt());
+    verify(productRepository).decreaseTotalStock("product-1", 1);
+  }
+
+  @Test
+  void givesRedisUnitsBackWhenAMySqlLineIsShort() {
+    when(hotStockService.reserve(any())).thenReturn(Set.of("variant-b"));
+    when(variantRepository.reserveStock("variant-a", 1)).thenReturn(0);
+
+    var cart =
+        order(new OrderItemCreateDto("variant-a", 1), new OrderItemCreateDto("variant-b", 2));
+    assertThrows(CustomRuntimeException.class, () -> service.checkout(cart));
+    verify(hotStockService).release(Map.of("variant-b", 2));
+  }
+
+  @Test
+  void publishesStatusChangesAndRejectsSkippedSteps() {
+    var user = new UserEntity();
+    user.setId("user-1");
+    var order =
+        OrderEntity.builder()
+            .status(OrderStatus.PENDING)
+            .user(user)
+            .deliveryAddress(DeliveryAddressEntity.builder().build())
+            .build();
+    order.setId("order-1");
+    when(orderRepository.findActiveForUpdate("order-1")).thenReturn(Optional.of(order));
+    var item = OrderItemEntity.builder().variant(jeans).quantity(2).build();
+    when(orderItemRepository.findByOrderIdWithVariant("order-1")).thenReturn(List.of(item));
+
+    var skipped =
+        assertThrows(
+            CustomRuntimeException.class,
+            () ->
+                service.updateStatus(
+                    "order-1", new OrderStatusUpdateRequest(OrderStatus.DELIVERED)));
+    assertEquals(ErrorCode.INVALID_ORDER_STATUS_TRANSITION, skipped.getErrorCode());
+    verifyNoInteractions(outboxService);
+
+    service.updateStatus("order-1", new OrderStatusUpdateRequest(OrderStatus.SHIPPED));
+    var captor = ArgumentCaptor.forClass(Object.class);
+    verify(outboxService).append(eq(OrderStatusChangedEvent.TYPE), eq("order-1"), captor.capture());
+    var event = (OrderStatusChangedEvent) captor.getValue();
+    assertEquals(OrderStatus.PENDING, event.from());
+    assertEquals(OrderStatus.SHIPPED, event.to());
+    assertEquals(
+        List.of(new OrderStatusChangedEvent.Line("product-1", "variant-a", 2)), event.items());
+  }
+
+  @Test
+  void givesTheStockOfACanceledOrderBackInItsTransaction() {
+    var user = new UserEntity();
+    user.setId("user-1");
+    var order =
+        OrderEntity.builder()
+            .status(OrderStatus.PENDING)
+            .user(user)
+            .deliveryAddress(DeliveryAddressEntity.builder().build())
+            .build();
+    order.setId("order-1");
+    when(orderRepository.findActiveForUpdate("order-1")).thenReturn(Optional.of(order));
+    when(orderItemRepository.findByOrderIdWithVariant("order-1"))
+        .thenReturn(
+            List.of(
+                OrderItemEntity.builder().variant(shirt).quantity(2).build(),
+                OrderItemEntity.builder().variant(jeans).quantity(1).build()));
+
+    service.updateStatus("order-1", new OrderStatusUpdateRequest(OrderStatus.CANCELED));
+
+    InOrder inOrder = inOrder(variantRepository, productRepository, hotStockService);
+    inOrder.verify(variantRepository).increaseStock("variant-a", 1);
+    inOrder.verify(variantRepository).increaseStock("variant-b", 2);
+    inOrder.verify(productRepository).increaseTotalStock("product-1", 3);
+    // no transaction is active here, so the counters are restocked right away
+    inOrder.verify(hotStockService).restock(Map.of("variant-a", 1, "variant-b", 2));
+    verify(hotStockService, never()).release(any());
+    assertEquals(OrderStatus.CANCELED, order.getStatus());
+  }
+}
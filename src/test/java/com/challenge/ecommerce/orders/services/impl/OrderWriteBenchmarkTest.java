@@ -0,0 +1,215 @@
+package com.challenge.ecommerce.orders.services.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.challenge.ecommerce.categories.models.CategoryEntity;
+import com.challenge.ecommerce.categories.repositories.CategoryRepository;
+import com.challenge.ecommerce.configs.Benchmark;
+import com.challenge.ecommerce.configs.database.MySqlJpaTest;
+import com.challenge.ecommerce.orders.repository.OrderItemRepository;
+import com.challenge.ecommerce.orders.repository.OrderRepository;
+import com.challenge.ecommerce.outbox.services.IOutboxService;
+import com.challenge.ecommerce.products.models.ProductEntity;
+import com.challenge.ecommerce.products.models.VariantEntity;
+import com.challenge.ecommerce.products.repositories.ProductRepository;
+import com.challenge.ecommerce.products.repositories.VariantRepository;
+import com.challenge.ecommerce.products.services.IHotStockService;
+import com.challenge.ecommerce.users.models.DeliveryAddressEntity;
+import com.challenge.ecommerce.users.models.UserEntity;
+import com.challenge.ecommerce.users.repositories.UserDeliveryAddressRepository;
+import com.challenge.ecommerce.users.repositories.UserRepository;
+import com.challenge.ecommerce.utils.concurrent.GroupCommitQueue;
+import com.challenge.ecommerce.utils.enums.PaymentMethod;
+import com.challenge.ecommerce.utils.enums.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Checkouts per second from many concurrent callers, written through the group-commit queue and
+ * with one transaction per checkout, on the same MySQL and the same variant row.
+ */
+@Benchmark
+@MySqlJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderWriteBenchmarkTest {
+
+  static final int CHECKOUTS = 2000;
+  static final int WARM_UP = 200;
+  static final int CALLERS = 64;
+  static final int MAX_BATCH_SIZE = 50;
+
+  @Autowired OrderRepository orderRepository;
+  @Autowired OrderItemRepository orderItemRepository;
+  @Autowired VariantRepository variantRepository;
+  @Autowired ProductRepository productRepository;
+  @Autowired CategoryRepository categoryRepository;
+  @Autowired UserRepository userRepository;
+  @Autowired UserDeliveryAddressRepository addressRepository;
+  @Autowired PlatformTransactionManager transactionManager;
+  @Autowired DataSource dataSource;
+
+  OrderServiceImpl service;
+  OrderServiceImpl.Checkout checkout;
+
+  @BeforeEach
+  void setUp() {
+    var transactionTemplate = new TransactionTemplate(transactionManager);
+    service =
+        new OrderServiceImpl(
+            orderRepository,
+            orderItemRepository,
+            variantRepository,
+            productRepository,
+            userRepository,
+            addressRepository,
+            mock(IHotStockService.class),
+            mock(IOutboxService.class),
+            transactionTemplate,
+            new SimpleMeterRegistry(),
+            CHECKOUTS,
+            MAX_BATCH_SIZE,
+            60_000);
+
+    // enough stock that no run ever sells out
+    var stock = 4 * (CHECKOUTS + WARM_UP);
+    checkout =
+        transactionTemplate.execute(
+            status -> {
+              var user =
+                  userRepository.save(
+                      UserEntity.builder()
+                          .name("Buyer")
+                          .email("buyer@example.com")
+                          .password("secret")
+                          .role(Role.USER)
+                          .build());
+              var address =
+                  addressRepository.save(
+                      DeliveryAddressEntity.builder()
+                          .province("1")
+                          .district("1")
+                          .ward("1")
+                          .user(user)
+                          .build());
+              var category =
+                  categoryRepository.save(
+                      CategoryEntity.builder().name("Shoes").slug("shoes").build());
+              var product =
+                  productRepository.save(
+                      ProductEntity.builder()
+                          .title("Sneaker")
+                          .slug("sneaker")
+                          .description("description")
+                          .category(category)
+                          .totalStock(stock)
+                          .build());
+              var variant =
+                  variantRepository.save(
+                      VariantEntity.builder()
+                          .sku_id("sneaker-42")
+                          .stock_quantity(stock)
+                          .price(new BigDecimal("100000"))
+                          .product(product)
+                          .build());
+              return new OrderServiceImpl.Checkout(
+                  user,
+                  address,
+                  PaymentMethod.CASH_ON_DELIVERY,
+                  Map.of(variant.getId(), 1),
+                  Map.of(variant.getId(), variant));
+            });
+  }
+
+  @AfterEach
+  void tearDown() {
+    service.close();
+    var jdbcTemplate = new JdbcTemplate(dataSource);
+    for (var table :
+        List.of(
+            "order_items",
+            "orders",
+            "variants",
+            "products",
+            "categories",
+            "delivery_address",
+            "users")) {
+      jdbcTemplate.execute("DELETE FROM " + table);
+    }
+  }
+
+  @Test
+  void comparesGroupCommitWithATransactionPerCheckout() throws Exception {
+    Callable<Object> unbatched =
+        () -> {
+          var result = service.writeOrders(List.of(checkout)).get(0);
+          if (result.error() != null) {
+            throw result.error();
+          }
+          return result.value();
+        };
+    var meterRegistry = new SimpleMeterRegistry();
+    try (var queue =
+        new GroupCommitQueue<>(
+            "benchmark", CHECKOUTS, MAX_BATCH_SIZE, service::writeOrders, meterRegistry)) {
+      Callable<Object> batched = () -> queue.submit(checkout).get();
+
+      run(WARM_UP, unbatched);
+      run(WARM_UP, batched);
+      var perCheckout = run(CHECKOUTS, unbatched);
+      var groupCommit = run(CHECKOUTS, batched);
+
+      System.out.printf(
+          "%d checkouts, %d callers: a transaction each %.0f/s, group commit %.0f/s (x%.1f)%n",
+          CHECKOUTS, CALLERS, perCheckout, groupCommit, groupCommit / perCheckout);
+      System.out.printf(
+          "mean batch size %.1f%n", meterRegistry.get("benchmark.batch.size").summary().mean());
+    }
+
+    var orders = 2 * (CHECKOUTS + WARM_UP);
+    assertEquals(
+        orders,
+        new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM orders", Integer.class));
+  }
+
+  // checkouts per second, every checkout must succeed
+  static double run(int checkouts, Callable<Object> checkoutOnce) throws Exception {
+    var start = new CountDownLatch(1);
+    List<Future<Object>> results = new ArrayList<>(checkouts);
+    long elapsed;
+    try (var executor = Executors.newFixedThreadPool(CALLERS)) {
+      for (int i = 0; i < checkouts; i++) {
+        results.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  return checkoutOnce.call();
+                }));
+      }
+      var began = System.nanoTime();
+      start.countDown();
+      for (var result : results) {
+        assertNotNull(result.get());
+      }
+      elapsed = System.nanoTime() - began;
+    }
+    return checkouts * 1e9 / elapsed;
+  }
+}
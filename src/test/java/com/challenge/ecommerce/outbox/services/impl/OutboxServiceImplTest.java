@@ -0,0 +1,144 @@
+package com.challenge.ecommerce.outbox.services.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.challenge.ecommerce.outbox.models.OutboxEventEntity;
+import com.challenge.ecommerce.outbox.repositories.OutboxEventRepository;
+import com.challenge.ecommerce.outbox.services.IOutboxListener;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class OutboxServiceImplTest {
+
+  record Greeting(String name) {}
+
+  static class RecordingListener implements IOutboxListener<Greeting> {
+    final String consumer;
+    final List<String> handled = new ArrayList<>();
+    RuntimeException failure;
+
+    RecordingListener(String consumer) {
+      this.consumer = consumer;
+    }
+
+    @Override
+    public String consumer() {
+      return consumer;
+    }
+
+    @Override
+    public String eventType() {
+      return "greeting";
+    }
+
+    @Override
+    public Class<Greeting> payloadType() {
+      return Greeting.class;
+    }
+
+    @Override
+    public void handle(Greeting payload) {
+      if (failure != null) {
+        throw failure;
+      }
+      handled.add(payload.name());
+    }
+  }
+
+  OutboxEventRepository outboxEventRepository;
+  RecordingListener mail;
+  RecordingListener stats;
+  OutboxServiceImpl service;
+
+  @BeforeEach
+  void setUp() {
+    outboxEventRepository = mock(OutboxEventRepository.class);
+    var transactionTemplate = mock(TransactionTemplate.class);
+    when(transactionTemplate.execute(any()))
+        .thenAnswer(
+            invocation -> {
+              TransactionCallback<?> callback = invocation.getArgument(0);
+              return callback.doInTransaction(mock(TransactionStatus.class));
+            });
+    doAnswer(
+            invocation -> {
+              invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+              return null;
+            })
+        .when(transactionTemplate)
+        .executeWithoutResult(any());
+    mail = new RecordingListener("mail");
+    stats = new RecordingListener("stats");
+    service =
+        new OutboxServiceImpl(
+            outboxEventRepository,
+            transactionTemplate,
+            new ObjectMapper(),
+            List.of(mail, stats),
+            new SimpleMeterRegistry(),
+            10,
+            60,
+            7);
+  }
+
+  static OutboxEventEntity event(String id, String payload) {
+    var event =
+        OutboxEventEntity.builder()
+            .eventType("greeting")
+            .aggregateId("aggregate-1")
+            .payload(payload)
+            .nextAttemptAt(LocalDateTime.now())
+            .build();
+    event.setId(id);
+    return event;
+  }
+
+  @Test
+  void claimsDueEventsAndSkipsConsumersThatAlreadyHandledThem() {
+    var event = event("event-1", "{\"name\":\"ada\"}");
+    when(outboxEventRepository.findDueForUpdate(any(), eq(10))).thenReturn(List.of(event));
+    when(outboxEventRepository.markProcessed("event-1", "mail")).thenReturn(1);
+    when(outboxEventRepository.markProcessed("event-1", "stats")).thenReturn(0);
+
+    service.dispatch();
+
+    assertEquals(List.of("ada"), mail.handled);
+    assertEquals(List.of(), stats.handled);
+    assertNotNull(event.getDispatchedAt());
+    verify(outboxEventRepository).save(event);
+  }
+
+  @Test
+  void retriesWithBackoffWhenAListenerFails() {
+    var event = event("event-1", "{\"name\":\"ada\"}");
+    when(outboxEventRepository.findDueForUpdate(any(), eq(10))).thenReturn(List.of(event));
+    when(outboxEventRepository.markProcessed(anyString(), anyString())).thenReturn(1);
+    stats.failure = new IllegalStateException("down");
+
+    service.dispatch();
+
+    assertEquals(List.of("ada"), mail.handled);
+    assertNull(event.getDispatchedAt());
+    assertEquals(1, event.getAttempts());
+    assertTrue(event.getNextAttemptAt().isAfter(LocalDateTime.now()));
+  }
+
+  @Test
+  void backoffDoublesUpToTheCap() {
+    assertEquals(Duration.ofSeconds(5), OutboxServiceImpl.backoff(1));
+    assertEquals(Duration.ofSeconds(20), OutboxServiceImpl.backoff(3));
+    assertEquals(OutboxServiceImpl.MAX_RETRY, OutboxServiceImpl.backoff(40));
+  }
+}
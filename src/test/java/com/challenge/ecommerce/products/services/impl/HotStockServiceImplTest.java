@@ -0,0 +1,162 @@
+package com.challenge.ecommerce.products.services.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
+import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
+import com.challenge.ecommerce.products.models.ProductEntity;
+import com.challenge.ecommerce.products.models.VariantEntity;
+import com.challenge.ecommerce.products.repositories.ProductRepository;
+import com.challenge.ecommerce.products.repositories.VariantRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class HotStockServiceImplTest {
+
+  StringRedisTemplate redisTemplate;
+  ValueOperations<String, String> valueOperations;
+  SetOperations<String, String> setOperations;
+  VariantRepository variantRepository;
+  ProductRepository productRepository;
+  HotStockServiceImpl service;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    redisTemplate = mock(StringRedisTemplate.class);
+    valueOperations = mock(ValueOperations.class);
+    setOperations = mock(SetOperations.class);
+    variantRepository = mock(VariantRepository.class);
+    productRepository = mock(ProductRepository.class);
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(redisTemplate.opsForSet()).thenReturn(setOperations);
+
+    var transactionTemplate = mock(TransactionTemplate.class);
+    doAnswer(
+            invocation -> {
+              invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+              return null;
+            })
+        .when(transactionTemplate)
+        .executeWithoutResult(any());
+    service =
+        new HotStockServiceImpl(
+            redisTemplate,
+            variantRepository,
+            productRepository,
+            transactionTemplate,
+            new SimpleMeterRegistry(),
+            true);
+
+    var product = new ProductEntity();
+    product.setId("product-1");
+    var variant = VariantEntity.builder().stock_quantity(100).product(product).build();
+    variant.setId("variant-a");
+    when(variantRepository.findActiveForUpdate("variant-a")).thenReturn(Optional.of(variant));
+    when(variantRepository.findAllById(any())).thenReturn(List.of(variant));
+  }
+
+  @Test
+  void leavesCartsToMySqlWhenTheModeIsDisabled() {
+    var disabled =
+        new HotStockServiceImpl(
+            redisTemplate,
+            variantRepository,
+            productRepository,
+            mock(TransactionTemplate.class),
+            new SimpleMeterRegistry(),
+            false);
+    assertEquals(Set.of(), disabled.reserve(new TreeMap<>(Map.of("variant-a", 1))));
+    disabled.restock(Map.of("variant-a", 1));
+    verifyNoInteractions(redisTemplate);
+  }
+
+  @Test
+  void letsTheScriptDecideEvenOnAnInstanceThatNeverFlagged() {
+    // another instance flagged variant-a, this one has not flushed since
+    when(redisTemplate.execute(
+            eq(HotStockServiceImpl.RESERVE_SCRIPT), anyList(), any(Object[].class)))
+        .thenReturn(List.of(1L));
+    assertEquals(Set.of("variant-a"), service.reserve(new TreeMap<>(Map.of("variant-a", 1))));
+
+    when(redisTemplate.execute(
+            eq(HotStockServiceImpl.RESERVE_SCRIPT), anyList(), any(Object[].class)))
+        .thenReturn(List.of(0L));
+    assertEquals(Set.of(), service.reserve(new TreeMap<>(Map.of("variant-b", 1))));
+  }
+
+  @Test
+  void reservesFlaggedVariantsWithOneScriptCall() {
+    service.flag("variant-a");
+    verify(valueOperations).setIfAbsent("{inventory}:stock:variant-a", "100");
+    verify(setOperations).add("{inventory}:hot", "variant-a");
+
+    var cart = new TreeMap<>(Map.of("variant-a", 2, "variant-b", 1));
+    when(redisTemplate.execute(
+            eq(HotStockServiceImpl.RESERVE_SCRIPT), anyList(), any(Object[].class)))
+        .thenReturn(List.of(1L, 0L));
+    assertEquals(Set.of("variant-a"), service.reserve(cart));
+
+    when(redisTemplate.execute(
+            eq(HotStockServiceImpl.RESERVE_SCRIPT), anyList(), any(Object[].class)))
+        .thenReturn(List.of(-1L));
+    var e = assertThrows(CustomRuntimeException.class, () -> service.reserve(cart));
+    assertEquals(ErrorCode.OUT_OF_STOCK, e.getErrorCode());
+  }
+
+  @Test
+  void writesDrainedReservationsBackAndKeepsThemPendingOnFailure() {
+    when(setOperations.members("{inventory}:hot")).thenReturn(Set.of("variant-a"));
+    when(redisTemplate.execute(eq(HotStockServiceImpl.DRAIN_SCRIPT), anyList()))
+        .thenReturn(List.of(7L));
+
+    service.flush();
+    verify(variantRepository).decreaseStock("variant-a", 7);
+    verify(productRepository).decreaseTotalStock("product-1", 7);
+
+    when(variantRepository.decreaseStock(anyString(), anyInt()))
+        .thenThrow(new IllegalStateException("down"));
+    service.flush();
+    verify(valueOperations).increment("{inventory}:pending:variant-a", 7L);
+  }
+
+  @Test
+  void keepsAVariantFlaggedWithItsPendingUnitsWhenUnflagCannotWriteThemBack() {
+    when(valueOperations.setIfAbsent(eq("{inventory}:lock"), anyString(), any()))
+        .thenReturn(true);
+    var keys =
+        List.of("{inventory}:hot", "{inventory}:stock:variant-a", "{inventory}:pending:variant-a");
+    when(redisTemplate.execute(HotStockServiceImpl.UNFLAG_SCRIPT, keys, "variant-a"))
+        .thenReturn(7L);
+    when(variantRepository.decreaseStock(anyString(), anyInt()))
+        .thenThrow(new IllegalStateException("down"));
+
+    assertThrows(IllegalStateException.class, () -> service.unflag("variant-a"));
+    verify(redisTemplate).execute(HotStockServiceImpl.REFLAG_SCRIPT, keys, "variant-a", "7");
+  }
+
+  @Test
+  void restocksOnlyTheCountersOfACanceledOrder() {
+    service.restock(new TreeMap<>(Map.of("variant-a", 2, "variant-b", 1)));
+    verify(redisTemplate)
+        .execute(
+            HotStockServiceImpl.RESTOCK_SCRIPT,
+            List.of("{inventory}:stock:variant-a", "{inventory}:stock:variant-b"),
+            "2",
+            "1");
+  }
+}
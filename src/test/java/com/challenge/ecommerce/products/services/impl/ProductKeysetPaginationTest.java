@@ -0,0 +1,203 @@
+package com.challenge.ecommerce.products.services.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.challenge.ecommerce.categories.models.CategoryEntity;
+import com.challenge.ecommerce.configs.Benchmark;
+import com.challenge.ecommerce.configs.database.MySqlJpaTest;
+import com.challenge.ecommerce.products.models.ProductEntity;
+import com.challenge.ecommerce.products.repositories.ProductRepository;
+import com.challenge.ecommerce.utils.pagination.KeysetCursor;
+import com.challenge.ecommerce.utils.pagination.KeysetPage;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@MySqlJpaTest
+class ProductKeysetPaginationTest {
+
+  static final LocalDateTime TIE = LocalDateTime.of(2024, 5, 1, 10, 30);
+  static final int PAGE = 1000;
+  static final int PAGE_SIZE = 20;
+
+  @Autowired ProductRepository productRepository;
+  @Autowired EntityManager entityManager;
+  @Autowired DataSource dataSource;
+
+  CategoryEntity category;
+  List<ProductEntity> products;
+
+  @BeforeEach
+  void setUp() {
+    category = CategoryEntity.builder().name("Shoes").slug("shoes").build();
+    entityManager.persist(category);
+    for (int i = 0; i < 5; i++) {
+      var product =
+          ProductEntity.builder()
+              .title("Product " + i)
+              .slug("product-" + i)
+              .description("description")
+              .category(category)
+              .build();
+      entityManager.persist(product);
+    }
+    entityManager.flush();
+    // auditing stamps the clock, the ties are forced afterwards: three rows share TIE
+    entityManager
+        .createNativeQuery("UPDATE products SET created_at = ?1")
+        .setParameter(1, TIE)
+        .executeUpdate();
+    entityManager
+        .createNativeQuery("UPDATE products SET created_at = ?1 WHERE slug = 'product-3'")
+        .setParameter(1, TIE.minusDays(1))
+        .executeUpdate();
+    entityManager
+        .createNativeQuery("UPDATE products SET created_at = ?1 WHERE slug = 'product-4'")
+        .setParameter(1, TIE.plusDays(1))
+        .executeUpdate();
+    entityManager.clear();
+    products = productRepository.findAll();
+  }
+
+  @Test
+  void pagesThroughTiesOnCreatedAtInAscendingOrder() {
+    var expected =
+        products.stream()
+            .sorted(
+                Comparator.comparing(ProductEntity::getCreatedAt)
+                    .thenComparing(ProductEntity::getId))
+            .map(ProductEntity::getId)
+            .toList();
+
+    assertEquals(expected, pageThrough(true, 2));
+  }
+
+  @Test
+  void pagesThroughTiesOnCreatedAtInDescendingOrder() {
+    var expected =
+        products.stream()
+            .sorted(
+                Comparator.comparing(ProductEntity::getCreatedAt)
+                    .thenComparing(ProductEntity::getId)
+                    .reversed())
+            .map(ProductEntity::getId)
+            .toList();
+
+    assertEquals(expected, pageThrough(false, 2));
+  }
+
+  // Page 1000 of the unfiltered listing both ways. The offset mode also runs the count query behind
+  // its total, the cursor mode starts from the cursor of the last row of page 999.
+  @Benchmark
+  @Test
+  void timesPage1000ByOffsetAndByCursor() {
+    var rows = PAGE * PAGE_SIZE + PAGE_SIZE;
+    seed(rows);
+    var sort = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    Specification<ProductEntity> active =
+        (root, query, criteriaBuilder) -> criteriaBuilder.isNull(root.get("deletedAt"));
+    var last =
+        productRepository
+            .findAll(active, PageRequest.of((PAGE - 1) * PAGE_SIZE - 1, 1, sort))
+            .getContent()
+            .get(0);
+    var after = new KeysetCursor(false, last.getCreatedAt(), last.getId());
+
+    var offsetPage = PageRequest.of(PAGE - 1, PAGE_SIZE, sort);
+    Supplier<List<ProductEntity>> byOffset =
+        () -> productRepository.findAll(active, offsetPage).getContent();
+    Supplier<List<ProductEntity>> byCursor =
+        () ->
+            KeysetPage.of(
+                    productRepository.findBy(
+                        active.and(KeysetCursor.seekAfter(after)),
+                        q -> q.sortBy(sort).limit(PAGE_SIZE + 1).all()),
+                    PAGE_SIZE,
+                    product -> new KeysetCursor(false, product.getCreatedAt(), product.getId()))
+                .content();
+    assertEquals(ids(byOffset.get()), ids(byCursor.get()));
+
+    System.out.printf(
+        "page %d of %d rows: offset and count %.2f ms, cursor %.2f ms%n",
+        PAGE, rows + products.size(), medianMillis(byOffset), medianMillis(byCursor));
+  }
+
+  // created_at steps back one second every three rows, so the cursor also crosses ties
+  void seed(int rows) {
+    List<Object[]> batch = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      var createdAt = TIE.minusSeconds(i / 3);
+      batch.add(
+          new Object[] {
+            UUID.randomUUID().toString(),
+            createdAt,
+            createdAt,
+            "Seeded " + i,
+            "description",
+            "seeded-" + i,
+            category.getId()
+          });
+    }
+    new JdbcTemplate(dataSource)
+        .batchUpdate(
+            "INSERT INTO products (id, created_at, updated_at, title, description, slug, "
+                + "category_id, total_stock) VALUES (?, ?, ?, ?, ?, ?, ?, 0)",
+            batch);
+  }
+
+  double medianMillis(Supplier<List<ProductEntity>> page) {
+    var runs = new long[25];
+    for (int i = -5; i < runs.length; i++) {
+      entityManager.clear();
+      var start = System.nanoTime();
+      page.get();
+      if (i >= 0) {
+        runs[i] = System.nanoTime() - start;
+      }
+    }
+    Arrays.sort(runs);
+    return runs[runs.length / 2] / 1e6;
+  }
+
+  static List<String> ids(List<ProductEntity> products) {
+    return products.stream().map(ProductEntity::getId).toList();
+  }
+
+  // the same query shape as the product listing, one page of size at a time
+  List<String> pageThrough(boolean ascending, int size) {
+    var sort = Sort.by(ascending ? Sort.Direction.ASC : Sort.Direction.DESC, "createdAt", "id");
+    List<String> seen = new ArrayList<>();
+    String cursor = null;
+    for (int page = 0; page <= products.size(); page++) {
+      // the cursor goes through its string form, as it does between requests
+      var after = KeysetCursor.decode(cursor, ascending);
+      Specification<ProductEntity> spec =
+          after == null ? Specification.where(null) : KeysetCursor.seekAfter(after);
+      var rows = productRepository.findBy(spec, q -> q.sortBy(sort).limit(size + 1).all());
+      var result =
+          KeysetPage.of(
+              rows,
+              size,
+              product -> new KeysetCursor(ascending, product.getCreatedAt(), product.getId()));
+      result.content().forEach(product -> seen.add(product.getId()));
+      cursor = result.nextCursor();
+      if (cursor == null) {
+        return seen;
+      }
+    }
+    return fail("Paging did not terminate: " + seen);
+  }
+}
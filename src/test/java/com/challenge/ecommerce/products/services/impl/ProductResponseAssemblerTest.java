@@ -0,0 +1,182 @@
+package com.challenge.ecommerce.products.services.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+import com.challenge.ecommerce.products.mappers.*;
+import com.challenge.ecommerce.products.models.*;
+import com.challenge.ecommerce.products.repositories.ImageRepository;
+import com.challenge.ecommerce.products.repositories.ProductOptionRepository;
+import com.challenge.ecommerce.products.repositories.ProductStatsRepository;
+import com.challenge.ecommerce.products.repositories.VariantRepository;
+import com.challenge.ecommerce.products.repositories.VariantValueRepository;
+import com.challenge.ecommerce.utils.enums.TypeImage;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mapstruct.factory.Mappers;
+
+class ProductResponseAssemblerTest {
+
+  static final int VARIANTS_PER_PRODUCT = 5;
+  static final int OPTIONS_PER_PRODUCT = 3;
+
+  ImageRepository imageRepository;
+  VariantRepository variantRepository;
+  ProductOptionRepository productOptionRepository;
+  VariantValueRepository variantValueRepository;
+  ProductStatsRepository productStatsRepository;
+  ProductResponseAssembler assembler;
+
+  @BeforeEach
+  void setUp() {
+    imageRepository = mock(ImageRepository.class);
+    variantRepository = mock(VariantRepository.class);
+    productOptionRepository = mock(ProductOptionRepository.class);
+    variantValueRepository = mock(VariantValueRepository.class);
+    productStatsRepository = mock(ProductStatsRepository.class);
+    assembler =
+        new ProductResponseAssembler(
+            imageRepository,
+            variantRepository,
+            productOptionRepository,
+            variantValueRepository,
+            productStatsRepository,
+            Mappers.getMapper(IProductMapper.class),
+            Mappers.getMapper(IImageMapper.class),
+            Mappers.getMapper(IVariantMapper.class),
+            Mappers.getMapper(IOptionMapper.class),
+            Mappers.getMapper(IOptionValueMapper.class));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 10, 50})
+  void queryCountDoesNotDependOnPageSize(int pageSize) {
+    var products = givenPage(pageSize);
+
+    var responses = assembler.assemble(products);
+
+    assertEquals(pageSize, responses.size());
+    verify(imageRepository, times(1)).findByProductIdsAndDeletedAtIsNull(anyCollection());
+    verify(variantRepository, times(1)).findByProductIdsAndDeletedAtIsNull(anyCollection());
+    verify(productOptionRepository, times(1)).findByProductIdsAndDeletedAtIsNull(anyCollection());
+    verify(variantValueRepository, times(1)).findByVariantIdsAndDeletedAtIsNull(anyCollection());
+    verify(productStatsRepository, times(1)).findAllById(anyIterable());
+    verifyNoMoreInteractions(
+        imageRepository,
+        variantRepository,
+        productOptionRepository,
+        variantValueRepository,
+        productStatsRepository);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 10})
+  void stitchesImagesVariantsAndOptionsPerProduct(int pageSize) {
+    var products = givenPage(pageSize);
+
+    var responses = assembler.assemble(products);
+
+    for (int i = 0; i < pageSize; i++) {
+      var resp = responses.get(i);
+      assertEquals(products.get(i).getId(), resp.getId());
+      assertEquals(1, resp.getImages().size());
+      assertEquals(VARIANTS_PER_PRODUCT, resp.getVariants().size());
+      for (var variant : resp.getVariants()) {
+        assertEquals(OPTIONS_PER_PRODUCT, variant.getOptions().size());
+        variant.getOptions().forEach(option -> assertEquals(1, option.getOptionValues().size()));
+      }
+    }
+    assertEquals(7, responses.get(0).getTotalSold());
+    assertEquals(3, responses.get(0).getTotalFavorites());
+    assertEquals(2, responses.get(0).getTotalRates());
+    assertEquals(4.5, responses.get(0).getAverageRating());
+    assertEquals(
+        Map.of(1, 0L, 2, 0L, 3, 0L, 4, 1L, 5, 1L), responses.get(0).getRatingDistribution());
+    if (pageSize > 1) {
+      assertNull(responses.get(1).getAverageRating());
+      assertEquals(0L, responses.get(1).getRatingDistribution().get(5));
+    }
+  }
+
+  List<ProductEntity> givenPage(int pageSize) {
+    List<ProductEntity> products = new ArrayList<>();
+    List<ImageEntity> images = new ArrayList<>();
+    List<VariantEntity> variants = new ArrayList<>();
+    List<ProductOptionEntity> productOptions = new ArrayList<>();
+    List<VariantValueEntity> variantValues = new ArrayList<>();
+
+    for (int p = 0; p < pageSize; p++) {
+      var product = ProductEntity.builder().title("Product " + p).slug("product-" + p).build();
+      product.setId("product-" + p);
+      products.add(product);
+
+      var image =
+          ImageEntity.builder()
+              .images_url("https://img/" + p + ".png")
+              .type_image(TypeImage.AVATAR)
+              .product(product)
+              .build();
+      image.setId("image-" + p);
+      images.add(image);
+
+      List<OptionEntity> options = new ArrayList<>();
+      for (int o = 0; o < OPTIONS_PER_PRODUCT; o++) {
+        var option = OptionEntity.builder().option_name("Option " + o).build();
+        option.setId("option-" + p + "-" + o);
+        options.add(option);
+        var productOption = ProductOptionEntity.builder().option(option).product(product).build();
+        productOption.setId("product-option-" + p + "-" + o);
+        productOptions.add(productOption);
+      }
+
+      for (int v = 0; v < VARIANTS_PER_PRODUCT; v++) {
+        var variant =
+            VariantEntity.builder()
+                .sku_id("sku-" + p + "-" + v)
+                .price(BigDecimal.TEN)
+                .stock_quantity(1)
+                .product(product)
+                .build();
+        variant.setId("variant-" + p + "-" + v);
+        variants.add(variant);
+        for (var option : options) {
+          var value = OptionValueEntity.builder().value_name("Value").option(option).build();
+          value.setId("value-" + variant.getId() + "-" + option.getId());
+          var variantValue =
+              VariantValueEntity.builder().variant(variant).option(option).optionValue(value).build();
+          variantValue.setId("variant-value-" + value.getId());
+          variantValues.add(variantValue);
+        }
+      }
+    }
+
+    when(imageRepository.findByProductIdsAndDeletedAtIsNull(anyCollection())).thenReturn(images);
+    when(variantRepository.findByProductIdsAndDeletedAtIsNull(anyCollection()))
+        .thenReturn(variants);
+    when(productOptionRepository.findByProductIdsAndDeletedAtIsNull(anyCollection()))
+        .thenReturn(productOptions);
+    when(variantValueRepository.findByVariantIdsAndDeletedAtIsNull(anyCollection()))
+        .thenReturn(variantValues);
+    when(productStatsRepository.findAllById(anyIterable()))
+        .thenReturn(
+            List.of(
+                ProductStatsEntity.builder()
+                    .productId("product-0")
+                    .soldCount(7)
+                    .favoriteCount(3)
+                    .ratingCount(2)
+                    .ratingSum(9)
+                    .rating4(1)
+                    .rating5(1)
+                    .build()));
+    return products;
+  }
+}
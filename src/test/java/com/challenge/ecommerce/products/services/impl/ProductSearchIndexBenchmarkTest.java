@@ -0,0 +1,111 @@
+package com.challenge.ecommerce.products.services.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.challenge.ecommerce.configs.Benchmark;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Load time and query latency of the search index over a synthetic catalog, one million products
+ * by default ({@code -Dbenchmark.products=...}). The catalog comes from a fixed seed, so runs are
+ * comparable: about a dozen terms per product from a skewed vocabulary, the way a few words
+ * ("áo", "nam", colors) show up in most listings and the rest are rare.
+ */
+@Benchmark
+class ProductSearchIndexBenchmarkTest {
+
+  static final int PRODUCTS = Integer.getInteger("benchmark.products", 1_000_000);
+  static final String[] SYLLABLES = {
+    "ao", "quan", "giay", "dep", "tui", "mu", "vay", "khoac", "thun", "jean", "len", "da", "the",
+    "thao", "nam", "nu", "tre", "em", "cao", "got", "so", "mi", "polo", "hoodie", "kaki", "lua",
+    "voan", "ni", "bo", "dai", "ngan", "tay", "co", "tron", "tim", "xanh", "do", "den", "trang",
+    "vang", "hong", "xam", "nau", "be", "reu", "cam", "loang", "ke", "soc", "hoa", "van", "dang",
+    "rong", "om", "suong", "xoe", "but", "chi", "lung", "nhung", "dui", "bong", "linen"
+  };
+  static final String[] SIZES = {"S", "M", "L", "XL", "XXL", "38", "39", "40", "41", "42"};
+
+  @Test
+  void loadsAMillionProductsAndAnswersQueries() {
+    var vocabulary = vocabulary();
+    var random = new Random(42);
+    var index = new ProductSearchIndex();
+
+    var start = System.nanoTime();
+    for (int i = 0; i < PRODUCTS; i++) {
+      index.put(product(i, vocabulary, random), 1);
+    }
+    var loadMillis = (System.nanoTime() - start) / 1e6;
+    assertEquals(PRODUCTS, index.size());
+    System.out.printf("indexed %d products in %.0f ms%n", PRODUCTS, loadMillis);
+
+    // from the most common words to rare ones, the last term also matched as a prefix
+    Map<String, String> queries = new LinkedHashMap<>();
+    queries.put("two common terms", vocabulary.get(0) + " " + vocabulary.get(1));
+    queries.put("common and rare term", vocabulary.get(0) + " " + vocabulary.get(900));
+    queries.put("two rare terms", vocabulary.get(700) + " " + vocabulary.get(800));
+    queries.put("prefix", vocabulary.get(2) + " " + vocabulary.get(40).substring(0, 2));
+    queries.put("prefix with category", vocabulary.get(3) + " " + vocabulary.get(5).charAt(0));
+    queries.forEach(
+        (name, query) -> {
+          var category = name.endsWith("category") ? "category-1" : null;
+          var total = index.search(query, category, null, null, 0, 20).total();
+          System.out.printf(
+              "%-22s %-18s %8d hits, median %.2f ms%n",
+              name, '"' + query + '"', total, medianMillis(index, query, category));
+        });
+  }
+
+  // words of two syllables, shuffled so neighbouring ranks are not near-duplicates
+  static List<String> vocabulary() {
+    List<String> words = new ArrayList<>();
+    for (var first : SYLLABLES) {
+      for (var second : SYLLABLES) {
+        words.add(first + second);
+      }
+    }
+    Collections.shuffle(words, new Random(7));
+    return words;
+  }
+
+  static ProductSearchIndex.Document product(int i, List<String> vocabulary, Random random) {
+    var category = random.nextInt(50);
+    return ProductSearchIndex.Document.of(
+        "product-" + i,
+        words(4, vocabulary, random),
+        words(6, vocabulary, random),
+        "Category " + category,
+        "category-" + category,
+        BigDecimal.valueOf(10_000L * (1 + random.nextInt(500))),
+        List.of(words(1, vocabulary, random), SIZES[random.nextInt(SIZES.length)]));
+  }
+
+  // cubing the uniform draw skews it toward the first words of the vocabulary
+  static String words(int count, List<String> vocabulary, Random random) {
+    var words = new String[count];
+    for (int i = 0; i < count; i++) {
+      words[i] = vocabulary.get((int) (vocabulary.size() * Math.pow(random.nextDouble(), 3)));
+    }
+    return String.join(" ", words);
+  }
+
+  static double medianMillis(ProductSearchIndex index, String query, String category) {
+    var runs = new long[21];
+    for (int i = -10; i < runs.length; i++) {
+      var start = System.nanoTime();
+      index.search(query, category, null, null, 0, 20);
+      if (i >= 0) {
+        runs[i] = System.nanoTime() - start;
+      }
+    }
+    Arrays.sort(runs);
+    return runs[runs.length / 2] / 1e6;
+  }
+}
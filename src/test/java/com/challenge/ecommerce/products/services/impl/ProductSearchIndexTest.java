@@ -0,0 +1,71 @@
+package com.challenge.ecommerce.products.services.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ProductSearchIndexTest {
+
+  static ProductSearchIndex.Document document(
+      String id, String title, String category, long price, List<String> options) {
+    return ProductSearchIndex.Document.of(
+        id,
+        title,
+        "Hàng chính hãng",
+        category,
+        category.toLowerCase().replace(' ', '-'),
+        BigDecimal.valueOf(price),
+        options);
+  }
+
+  @Test
+  void foldsVietnameseDiacritics() {
+    assertEquals(
+        List.of("dong", "ho", "deo", "tay"), ProductSearchIndex.tokenize("Đồng hồ đeo-tay!"));
+  }
+
+  @Test
+  void ranksTitleMatchesFirstAndMatchesLastTermAsPrefix() {
+    var index = new ProductSearchIndex();
+    index.put(document("1", "Áo thun nam", "Ao", 150_000, List.of("Đỏ")), 1);
+    index.put(document("2", "Quần jean", "Quan", 400_000, List.of("Áo khoác đỏ")), 1);
+    index.put(document("3", "Áo sơ mi", "Ao", 2_000_000, List.of("Xanh")), 1);
+
+    var result = index.search("ao do", null, null, null, 0, 10);
+    assertEquals(List.of("1", "2"), result.productIds());
+
+    assertEquals(List.of("1", "3"), index.search("ao", "ao", null, null, 0, 10).productIds());
+    assertEquals(List.of("3"), index.search("so m", null, null, null, 0, 10).productIds());
+    assertTrue(index.search("khong co", null, null, null, 0, 10).productIds().isEmpty());
+  }
+
+  @Test
+  void facetsIgnoreTheirOwnFilter() {
+    var index = new ProductSearchIndex();
+    index.put(document("1", "Áo thun", "Ao", 150_000, List.of()), 1);
+    index.put(document("2", "Áo khoác", "Ao", 2_000_000, List.of()), 1);
+    index.put(document("3", "Áo len", "Len", 50_000, List.of()), 1);
+
+    var result = index.search("ao", "ao", null, BigDecimal.valueOf(200_000), 0, 10);
+    assertEquals(List.of("1"), result.productIds());
+    assertEquals(Map.of("ao", 1L, "len", 1L), result.categories());
+    assertEquals(
+        List.of("100000-500000", "1000000-5000000"), List.copyOf(result.priceRanges().keySet()));
+  }
+
+  @Test
+  void ignoresUpdatesOlderThanTheIndexedVersion() {
+    var index = new ProductSearchIndex();
+    index.put(document("1", "Áo thun", "Ao", 150_000, List.of()), 5);
+    assertFalse(index.put(document("1", "Quần", "Quan", 150_000, List.of()), 4));
+    assertEquals(List.of("1"), index.search("thun", null, null, null, 0, 10).productIds());
+
+    assertTrue(index.remove("1", 6));
+    assertFalse(index.put(document("1", "Áo thun", "Ao", 150_000, List.of()), 5));
+    assertEquals(0, index.size());
+    assertEquals(0, index.search("thun", null, null, null, 0, 10).total());
+  }
+}
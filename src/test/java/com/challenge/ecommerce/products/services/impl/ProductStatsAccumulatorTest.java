@@ -0,0 +1,61 @@
+package com.challenge.ecommerce.products.services.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+class ProductStatsAccumulatorTest {
+
+  @Test
+  void sumsDeltasPerProductAndDropsTheOnesThatCancelOut() {
+    var accumulator = new ProductStatsAccumulator(4);
+    accumulator.add("product-1", ProductStatsAccumulator.FAVORITES, 1);
+    accumulator.add("product-1", ProductStatsAccumulator.FAVORITES, 1);
+    accumulator.add("product-2", ProductStatsAccumulator.FAVORITES, 1);
+    accumulator.add("product-2", ProductStatsAccumulator.FAVORITES, -1);
+
+    var deltas = accumulator.drain();
+
+    assertEquals(1, deltas.size());
+    assertArrayEquals(new long[] {2}, deltas.get("product-1"));
+    assertEquals(Map.of(), accumulator.drain());
+  }
+
+  @Test
+  void losesNoDeltaWhileDrainingConcurrently() throws Exception {
+    var accumulator = new ProductStatsAccumulator(8);
+    var writers = 16;
+    var addsPerWriter = 10_000;
+    var start = new CountDownLatch(1);
+    var done = new CountDownLatch(writers);
+    long drained = 0;
+    try (var executor = Executors.newFixedThreadPool(writers)) {
+      for (int i = 0; i < writers; i++) {
+        executor.submit(
+            () -> {
+              start.await();
+              for (int n = 0; n < addsPerWriter; n++) {
+                accumulator.add("hot-product", ProductStatsAccumulator.FAVORITES, 1);
+              }
+              done.countDown();
+              return null;
+            });
+      }
+      start.countDown();
+      while (done.getCount() > 0) {
+        drained += favorites(accumulator.drain());
+      }
+    }
+    drained += favorites(accumulator.drain());
+
+    assertEquals((long) writers * addsPerWriter, drained);
+  }
+
+  static long favorites(Map<String, long[]> deltas) {
+    var values = deltas.get("hot-product");
+    return values == null ? 0 : values[ProductStatsAccumulator.FAVORITES];
+  }
+}
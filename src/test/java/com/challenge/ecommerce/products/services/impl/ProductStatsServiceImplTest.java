@@ -0,0 +1,44 @@
+package com.challenge.ecommerce.products.services.impl;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.challenge.ecommerce.products.repositories.ProductRepository;
+import com.challenge.ecommerce.products.repositories.ProductStatsRepository;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class ProductStatsServiceImplTest {
+
+  @Test
+  void evictsTheCachedDetailsOfTheProductsItFlushes() {
+    var productStatsRepository = mock(ProductStatsRepository.class);
+    var productRepository = mock(ProductRepository.class);
+    var productDetailCache = mock(ProductDetailCache.class);
+    var transactionTemplate = mock(TransactionTemplate.class);
+    doAnswer(
+            invocation -> {
+              invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+              return null;
+            })
+        .when(transactionTemplate)
+        .executeWithoutResult(any());
+    when(productRepository.findSlugsByIds(Set.of("product-1"))).thenReturn(List.of("sneaker"));
+    var service =
+        new ProductStatsServiceImpl(
+            productStatsRepository, productRepository, productDetailCache, transactionTemplate);
+
+    service.addFavorites("product-1", 1);
+    service.addFavorites("product-1", 1);
+    service.flush();
+
+    InOrder inOrder = inOrder(productStatsRepository, productDetailCache);
+    inOrder.verify(productStatsRepository).addFavorites("product-1", 2);
+    inOrder.verify(productDetailCache).evict("sneaker");
+  }
+}
@@ -0,0 +1,48 @@
+package com.challenge.ecommerce.products.services.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ProductSuggesterTest {
+
+  static ProductSuggester.Suggestion product(String title, long weight) {
+    return new ProductSuggester.Suggestion(title, "product", weight);
+  }
+
+  static List<String> texts(List<ProductSuggester.Suggestion> suggestions) {
+    return suggestions.stream().map(ProductSuggester.Suggestion::text).toList();
+  }
+
+  @Test
+  void suggestsHeaviestCompletionsOfTheFoldedPrefix() {
+    var suggester =
+        ProductSuggester.build(
+            List.of(
+                product("Áo thun nam", 3),
+                product("Áo thun nữ", 7),
+                product("Áo khoác", 5),
+                product("Đồng hồ", 1),
+                new ProductSuggester.Suggestion("Áo", "category", 20)));
+
+    assertEquals(
+        List.of("Áo", "Áo thun nữ", "Áo khoác", "Áo thun nam"),
+        texts(suggester.suggest("ao", 10)));
+    assertEquals(List.of("Áo thun nữ", "Áo thun nam"), texts(suggester.suggest("ÁO T", 10)));
+    assertEquals(List.of("Áo thun nữ"), texts(suggester.suggest("ao thun", 1)));
+    assertEquals(List.of("Đồng hồ"), texts(suggester.suggest("do", 10)));
+    assertTrue(suggester.suggest("quan", 10).isEmpty());
+    assertTrue(suggester.suggest("  ", 10).isEmpty());
+  }
+
+  @Test
+  void keepsTheHeaviestSuggestionPerFoldedKey() {
+    var suggester =
+        ProductSuggester.build(List.of(product("Áo len", 1), product("ao-len", 4)));
+
+    assertEquals(1, suggester.size());
+    assertEquals(List.of("ao-len"), texts(suggester.suggest("ao l", 10)));
+    assertTrue(ProductSuggester.EMPTY.suggest("ao", 10).isEmpty());
+  }
+}
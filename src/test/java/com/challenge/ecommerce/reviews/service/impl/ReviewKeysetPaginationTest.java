@@ -0,0 +1,141 @@
+package com.challenge.ecommerce.reviews.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.challenge.ecommerce.categories.models.CategoryEntity;
+import com.challenge.ecommerce.configs.database.MySqlJpaTest;
+import com.challenge.ecommerce.products.models.ProductEntity;
+import com.challenge.ecommerce.reviews.models.ReviewEntity;
+import com.challenge.ecommerce.reviews.repository.ReviewRepository;
+import com.challenge.ecommerce.users.models.UserEntity;
+import com.challenge.ecommerce.utils.enums.Role;
+import com.challenge.ecommerce.utils.pagination.KeysetCursor;
+import com.challenge.ecommerce.utils.pagination.KeysetPage;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+
+@MySqlJpaTest
+class ReviewKeysetPaginationTest {
+
+  static final LocalDateTime TIE = LocalDateTime.of(2024, 5, 1, 10, 30);
+
+  @Autowired ReviewRepository reviewRepository;
+  @Autowired EntityManager entityManager;
+
+  ProductEntity product;
+  List<ReviewEntity> reviews;
+
+  @BeforeEach
+  void setUp() {
+    var user =
+        UserEntity.builder()
+            .name("Reviewer")
+            .email("reviewer@example.com")
+            .password("secret")
+            .role(Role.USER)
+            .build();
+    entityManager.persist(user);
+    var category = CategoryEntity.builder().name("Shoes").slug("shoes").build();
+    entityManager.persist(category);
+    product =
+        ProductEntity.builder()
+            .title("Sneaker")
+            .slug("sneaker")
+            .description("description")
+            .category(category)
+            .build();
+    entityManager.persist(product);
+    var other =
+        ProductEntity.builder()
+            .title("Boot")
+            .slug("boot")
+            .description("description")
+            .category(category)
+            .build();
+    entityManager.persist(other);
+    // ratings alternate 5, 4, 5, 4, ... so the rating filter also pages through ties
+    for (int i = 0; i < 7; i++) {
+      entityManager.persist(
+          ReviewEntity.builder()
+              .content("review " + i)
+              .rating(i % 2 == 0 ? 5 : 4)
+              .user(user)
+              .product(product)
+              .build());
+    }
+    entityManager.persist(
+        ReviewEntity.builder().content("other").rating(5).user(user).product(other).build());
+    entityManager.flush();
+    // auditing stamps the clock, the ties are forced afterwards: most rows share TIE
+    entityManager
+        .createNativeQuery("UPDATE reviews SET created_at = ?1")
+        .setParameter(1, TIE)
+        .executeUpdate();
+    entityManager
+        .createNativeQuery("UPDATE reviews SET created_at = ?1 WHERE content = 'review 0'")
+        .setParameter(1, TIE.minusDays(1))
+        .executeUpdate();
+    entityManager
+        .createNativeQuery("UPDATE reviews SET created_at = ?1 WHERE content = 'review 1'")
+        .setParameter(1, TIE.plusDays(1))
+        .executeUpdate();
+    entityManager.clear();
+    reviews =
+        reviewRepository.findAll().stream()
+            .filter(review -> review.getProduct().getId().equals(product.getId()))
+            .toList();
+  }
+
+  @Test
+  void pagesThroughTiesOnCreatedAtNewestFirst() {
+    assertEquals(expected(null), pageThrough(null, 2));
+  }
+
+  @Test
+  void pagesThroughTiesOnCreatedAtWithinARating() {
+    assertEquals(expected(5), pageThrough(5, 2));
+    assertEquals(expected(4), pageThrough(4, 3));
+  }
+
+  List<String> expected(Integer rating) {
+    return reviews.stream()
+        .filter(review -> rating == null || review.getRating().equals(rating))
+        .sorted(
+            Comparator.comparing(ReviewEntity::getCreatedAt)
+                .thenComparing(ReviewEntity::getId)
+                .reversed())
+        .map(ReviewEntity::getId)
+        .toList();
+  }
+
+  // the same query as the review listing, one page of size at a time
+  List<String> pageThrough(Integer rating, int size) {
+    var sort = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    List<String> seen = new ArrayList<>();
+    String cursor = null;
+    for (int page = 0; page <= reviews.size(); page++) {
+      // the cursor goes through its string form, as it does between requests
+      var after = KeysetCursor.decode(cursor, false);
+      var rows =
+          reviewRepository.findBy(
+              ReviewService.productReviews(product.getId(), rating, after),
+              q -> q.sortBy(sort).limit(size + 1).all());
+      var result =
+          KeysetPage.of(
+              rows, size, review -> new KeysetCursor(false, review.getCreatedAt(), review.getId()));
+      result.content().forEach(review -> seen.add(review.getId()));
+      cursor = result.nextCursor();
+      if (cursor == null) {
+        return seen;
+      }
+    }
+    return fail("Paging did not terminate: " + seen);
+  }
+}
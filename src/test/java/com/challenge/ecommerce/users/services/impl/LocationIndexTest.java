@@ -0,0 +1,35 @@
+package com.challenge.ecommerce.users.services.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class LocationIndexTest {
+
+  @Test
+  void looksUpByCodeAndPreSerializesSortedLists() {
+    var index =
+        LocationIndex.build(
+            "1",
+            Map.of(79, "Ho Chi Minh", 1, "Ha Noi"),
+            Map.of(1, Map.of(5, "Cau Giay", 1, "Ba Dinh"), 79, Map.of(760, "Quan 1")),
+            Map.of(1, Map.of(4, "Phuc Xa"), 760, Map.of(26734, "Tan Dinh")),
+            new ObjectMapper());
+
+    assertEquals("Ha Noi", index.provinces().name(1));
+    assertNull(index.provinces().name(2));
+    assertEquals("Cau Giay", index.districts(1).name(5));
+    assertNull(index.districts(79).name(5));
+    assertNull(index.districts(2));
+    assertEquals("Tan Dinh", index.wards(760).name(26734));
+    assertNull(index.wards(5));
+
+    assertEquals(1, index.districts(1).locations().get(0).getCode());
+    assertEquals(
+        "{\"result\":[{\"code\":1,\"name\":\"Ha Noi\"},{\"code\":79,\"name\":\"Ho Chi Minh\"}]}",
+        new String(index.provinces().json(), StandardCharsets.UTF_8));
+  }
+}
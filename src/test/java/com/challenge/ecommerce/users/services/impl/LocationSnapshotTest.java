@@ -0,0 +1,182 @@
+package com.challenge.ecommerce.users.services.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.challenge.ecommerce.configs.Benchmark;
+import com.challenge.ecommerce.users.models.location.BaseLocation;
+import com.challenge.ecommerce.users.models.location.District;
+import com.challenge.ecommerce.users.models.location.Province;
+import com.challenge.ecommerce.users.models.location.Ward;
+import com.challenge.ecommerce.users.services.ILocationApiService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.RedisTemplate;
+
+class LocationSnapshotTest {
+
+  // about the size of the national tree: 63 provinces, ~700 districts, ~10,500 wards
+  static final int PROVINCES = 63;
+  static final int DISTRICTS_PER_PROVINCE = 11;
+  static final int WARDS_PER_DISTRICT = 15;
+
+  @TempDir Path dir;
+
+  @Test
+  void roundTripsTheLocationTree() throws IOException {
+    var province = location(new Province(), 1, "Thành phố Hà Nội");
+    var district = location(new District(), 1, "Quận Ba Đình");
+    district.getWards().add(location(new Ward(), 1, "Phường Phúc Xá"));
+    district.getWards().add(location(new Ward(), 4, "Phường Trúc Bạch"));
+    province.getDistricts().add(district);
+    province.getDistricts().add(location(new District(), 5, "Quận Cầu Giấy"));
+    var path = dir.resolve("locations.snapshot");
+
+    LocationSnapshot.write(path, List.of(province, location(new Province(), 79, "Hồ Chí Minh")));
+    var provinces = LocationSnapshot.read(path);
+
+    assertEquals(2, provinces.size());
+    assertEquals("Thành phố Hà Nội", provinces.get(0).getName());
+    assertEquals(79, provinces.get(1).getCode());
+    assertTrue(provinces.get(1).getDistricts().isEmpty());
+    var districts = provinces.get(0).getDistricts();
+    assertEquals(List.of(1, 5), districts.stream().map(District::getCode).toList());
+    assertEquals("Phường Trúc Bạch", districts.get(0).getWards().get(1).getName());
+    assertTrue(districts.get(1).getWards().isEmpty());
+  }
+
+  @Test
+  void rejectsFilesThatAreNotSnapshots() throws IOException {
+    var path = dir.resolve("garbage");
+    Files.writeString(path, "not a snapshot, but long enough to hold a header");
+
+    assertThrows(IOException.class, () -> LocationSnapshot.read(path));
+  }
+
+  // Startup from a full-size snapshot against the API crawl it replaces, each up to a built
+  // LocationIndex. Writing the Redis hashes is the same on both paths and is left out. The API is a
+  // stub that sleeps -Dbenchmark.location.api-latency-millis per call (30 ms by default).
+  @Benchmark
+  @Test
+  void timesStartupFromTheSnapshotAgainstTheCrawl() throws IOException {
+    var latency = Long.getLong("benchmark.location.api-latency-millis", 30);
+    var tree = fullSizeTree();
+    var path = dir.resolve("locations.snapshot");
+    LocationSnapshot.write(path, tree);
+    var service =
+        new WriteLocationRedisCacheService(
+            new SlowLocationApi(tree, latency),
+            mock(RedisTemplate.class),
+            mock(ApplicationEventPublisher.class),
+            16,
+            path.toString());
+
+    var start = System.nanoTime();
+    var fromSnapshot = index(service.readSnapshot());
+    var snapshotMillis = (System.nanoTime() - start) / 1e6;
+    start = System.nanoTime();
+    var fromApi = index(service.fetchAll());
+    var crawlMillis = (System.nanoTime() - start) / 1e6;
+
+    assertArrayEquals(fromApi.provinces().json(), fromSnapshot.provinces().json());
+    assertArrayEquals(fromApi.wards(6311).json(), fromSnapshot.wards(6311).json());
+    System.out.printf(
+        "%d provinces, %d districts, %d wards (%d bytes): snapshot %.1f ms, crawl at %d ms a call"
+            + " %.0f ms%n",
+        PROVINCES,
+        PROVINCES * DISTRICTS_PER_PROVINCE,
+        PROVINCES * DISTRICTS_PER_PROVINCE * WARDS_PER_DISTRICT,
+        Files.size(path),
+        snapshotMillis,
+        latency,
+        crawlMillis);
+  }
+
+  static List<Province> fullSizeTree() {
+    List<Province> provinces = new ArrayList<>();
+    for (int p = 1; p <= PROVINCES; p++) {
+      var province = location(new Province(), p, "Tỉnh số " + p);
+      for (int d = 1; d <= DISTRICTS_PER_PROVINCE; d++) {
+        var districtCode = p * 100 + d;
+        var district = location(new District(), districtCode, "Huyện số " + districtCode);
+        for (int w = 1; w <= WARDS_PER_DISTRICT; w++) {
+          var wardCode = districtCode * 100 + w;
+          district.getWards().add(location(new Ward(), wardCode, "Xã số " + wardCode));
+        }
+        province.getDistricts().add(district);
+      }
+      provinces.add(province);
+    }
+    return provinces;
+  }
+
+  static LocationIndex index(List<Province> provinces) {
+    Map<Integer, String> provinceNames = new HashMap<>();
+    Map<Integer, Map<Integer, String>> districts = new HashMap<>();
+    Map<Integer, Map<Integer, String>> wards = new HashMap<>();
+    for (var province : provinces) {
+      provinceNames.put(province.getCode(), province.getName());
+      for (var district : province.getDistricts()) {
+        districts
+            .computeIfAbsent(province.getCode(), code -> new HashMap<>())
+            .put(district.getCode(), district.getName());
+        for (var ward : district.getWards()) {
+          wards
+              .computeIfAbsent(district.getCode(), code -> new HashMap<>())
+              .put(ward.getCode(), ward.getName());
+        }
+      }
+    }
+    return LocationIndex.build("1", provinceNames, districts, wards, new ObjectMapper());
+  }
+
+  // answers from the tree, after the latency of a remote call
+  record SlowLocationApi(List<Province> tree, long latencyMillis) implements ILocationApiService {
+
+    @Override
+    public List<Province> getAllProvinces() {
+      pause();
+      return new ArrayList<>(
+          tree.stream().map(p -> location(new Province(), p.getCode(), p.getName())).toList());
+    }
+
+    @Override
+    public List<District> getDistrictsByProvince(int provinceCode) {
+      pause();
+      return new ArrayList<>(
+          tree.get(provinceCode - 1).getDistricts().stream()
+              .map(d -> location(new District(), d.getCode(), d.getName()))
+              .toList());
+    }
+
+    @Override
+    public List<Ward> getWardsByDistrict(int districtCode) {
+      pause();
+      var province = tree.get(districtCode / 100 - 1);
+      return new ArrayList<>(province.getDistricts().get(districtCode % 100 - 1).getWards());
+    }
+
+    void pause() {
+      try {
+        Thread.sleep(latencyMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  static <T extends BaseLocation> T location(T location, int code, String name) {
+    location.setCode(code);
+    location.setName(name);
+    return location;
+  }
+}
@@ -0,0 +1,83 @@
+package com.challenge.ecommerce.utils.concurrent;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.Test;
+
+class BoundedVirtualThreadExecutorTest {
+
+  @Test
+  void rejectsWhenConcurrencyAndQueueAreFull() throws Exception {
+    var meterRegistry = new SimpleMeterRegistry();
+    var release = new CountDownLatch(1);
+    var started = new CountDownLatch(1);
+    try (var executor =
+        new BoundedVirtualThreadExecutor("test", 1, 0, Duration.ofSeconds(5), meterRegistry)) {
+      var blocked =
+          CompletableFuture.supplyAsync(
+              () ->
+                  executor.call(
+                      () -> {
+                        started.countDown();
+                        release.await();
+                        return "done";
+                      }));
+      started.await();
+
+      assertThrows(RejectedExecutionException.class, () -> executor.call(() -> "rejected"));
+      release.countDown();
+      assertEquals("done", blocked.get());
+      assertEquals("ok", executor.call(() -> "ok"));
+      assertEquals(1, meterRegistry.get("test.rejections").counter().count());
+    }
+  }
+
+  @Test
+  void failsWhenTheDeadlinePasses() {
+    var meterRegistry = new SimpleMeterRegistry();
+    try (var executor =
+        new BoundedVirtualThreadExecutor("test", 1, 1, Duration.ofMillis(50), meterRegistry)) {
+      assertThrows(
+          RejectedExecutionException.class,
+          () ->
+              executor.call(
+                  () -> {
+                    Thread.sleep(1_000);
+                    return "late";
+                  }));
+    }
+  }
+
+  @Test
+  void countsATaskThatGetsNoPermitBeforeTheDeadline() throws Exception {
+    var meterRegistry = new SimpleMeterRegistry();
+    var release = new CountDownLatch(1);
+    var started = new CountDownLatch(1);
+    try (var executor =
+        new BoundedVirtualThreadExecutor("test", 1, 1, Duration.ofSeconds(5), meterRegistry)) {
+      var blocked =
+          CompletableFuture.supplyAsync(
+              () ->
+                  executor.call(
+                      () -> {
+                        started.countDown();
+                        release.await();
+                        return "done";
+                      }));
+      started.await();
+
+      var deadlineNanos = System.nanoTime() + Duration.ofMillis(50).toNanos();
+      assertThrows(
+          RejectedExecutionException.class,
+          () -> executor.runWithPermit(() -> "late", deadlineNanos));
+      assertEquals(1, meterRegistry.get("test.rejections").counter().count());
+      release.countDown();
+      assertEquals("done", blocked.get());
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package com.challenge.ecommerce.utils.concurrent;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class GroupCommitQueueTest {
+
+  @Test
+  void writesWhatQueuedUpWhileBusyAsOneBatch() throws Exception {
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+    GroupCommitQueue.BatchWriter<Integer, String> writer =
+        batch -> {
+          batches.add(batch);
+          started.countDown();
+          await(release);
+          return batch.stream()
+              .map(
+                  item ->
+                      item < 0
+                          ? GroupCommitQueue.Result.<String>failure(new IllegalStateException())
+                          : GroupCommitQueue.Result.success("#" + item))
+              .toList();
+        };
+    try (var queue = new GroupCommitQueue<>("test", 10, 10, writer, new SimpleMeterRegistry())) {
+      var first = queue.submit(0);
+      started.await();
+      List<CompletableFuture<String>> waiting = new ArrayList<>();
+      for (var item : List.of(1, -2, 3)) {
+        waiting.add(queue.submit(item));
+      }
+      release.countDown();
+
+      assertEquals("#0", first.get());
+      assertEquals("#1", waiting.get(0).get());
+      var failed = assertThrows(ExecutionException.class, () -> waiting.get(1).get());
+      assertInstanceOf(IllegalStateException.class, failed.getCause());
+      assertEquals("#3", waiting.get(2).get());
+      assertEquals(List.of(List.of(0), List.of(1, -2, 3)), batches);
+    }
+  }
+
+  @Test
+  void retriesAFailedBatchOneByOne() throws Exception {
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    GroupCommitQueue.BatchWriter<Integer, Integer> writer =
+        batch -> {
+          started.countDown();
+          await(release);
+          if (batch.contains(-1)) {
+            throw new IllegalStateException("rolled back");
+          }
+          return batch.stream().map(GroupCommitQueue.Result::success).toList();
+        };
+    try (var queue = new GroupCommitQueue<>("test", 10, 10, writer, new SimpleMeterRegistry())) {
+      queue.submit(0);
+      started.await();
+      var good = queue.submit(1);
+      var bad = queue.submit(-1);
+      release.countDown();
+
+      assertEquals(1, good.get());
+      assertThrows(ExecutionException.class, bad::get);
+    }
+  }
+
+  @Test
+  void rejectsWhenTheQueueIsFull() throws Exception {
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var meterRegistry = new SimpleMeterRegistry();
+    GroupCommitQueue.BatchWriter<Integer, Integer> writer =
+        batch -> {
+          started.countDown();
+          await(release);
+          return batch.stream().map(GroupCommitQueue.Result::success).toList();
+        };
+    try (var queue = new GroupCommitQueue<>("test", 1, 10, writer, meterRegistry)) {
+      queue.submit(0);
+      started.await();
+      var queued = queue.submit(1);
+
+      assertThrows(RejectedExecutionException.class, () -> queue.submit(2));
+      release.countDown();
+      assertEquals(1, queued.get());
+      assertEquals(1, meterRegistry.get("test.rejections").counter().count());
+    }
+  }
+
+  @Test
+  void failsTheBatchAndKeepsWritingWhenTheWriterThrowsAnError() throws Exception {
+    GroupCommitQueue.BatchWriter<Integer, Integer> writer =
+        batch -> {
+          if (batch.contains(-1)) {
+            throw new AssertionError("writer broke");
+          }
+          return batch.stream().map(GroupCommitQueue.Result::success).toList();
+        };
+    try (var queue = new GroupCommitQueue<>("test", 10, 10, writer, new SimpleMeterRegistry())) {
+      var failed = assertThrows(ExecutionException.class, () -> queue.submit(-1).get());
+      assertInstanceOf(AssertionError.class, failed.getCause());
+
+      assertEquals(1, queue.submit(1).get(1, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  void skipsItemsWhoseCallerStoppedWaiting() throws Exception {
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+    GroupCommitQueue.BatchWriter<Integer, Integer> writer =
+        batch -> {
+          batches.add(batch);
+          started.countDown();
+          await(release);
+          return batch.stream().map(GroupCommitQueue.Result::success).toList();
+        };
+    try (var queue = new GroupCommitQueue<>("test", 10, 10, writer, new SimpleMeterRegistry())) {
+      queue.submit(0);
+      started.await();
+      queue.submit(1).cancel(false);
+      var kept = queue.submit(2);
+      release.countDown();
+
+      assertEquals(2, kept.get());
+      assertEquals(List.of(List.of(0), List.of(2)), batches);
+    }
+  }
+
+  static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package com.challenge.ecommerce.utils.pagination;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.challenge.ecommerce.exceptionHandlers.CustomRuntimeException;
+import com.challenge.ecommerce.exceptionHandlers.ErrorCode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+
+class KeysetCursorTest {
+
+  static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 10, 30, 15, 123456000);
+
+  static String encode(String raw) {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  static void assertInvalid(String cursor, boolean ascending) {
+    var e =
+        assertThrows(CustomRuntimeException.class, () -> KeysetCursor.decode(cursor, ascending));
+    assertEquals(ErrorCode.INVALID_CURSOR, e.getErrorCode());
+  }
+
+  @Test
+  void decodesWhatItEncodes() {
+    for (var ascending : new boolean[] {true, false}) {
+      var cursor = new KeysetCursor(ascending, CREATED_AT, "c0ffee|with-a-separator");
+
+      assertEquals(cursor, KeysetCursor.decode(cursor.encode(), ascending));
+    }
+  }
+
+  @Test
+  void aBlankCursorIsTheFirstPage() {
+    assertNull(KeysetCursor.decode(null, true));
+    assertNull(KeysetCursor.decode("  ", false));
+  }
+
+  @Test
+  void rejectsMalformedAndTamperedCursors() {
+    assertInvalid("not base64!", true);
+    assertInvalid(encode("garbage"), true);
+    assertInvalid(encode("A|" + CREATED_AT), true);
+    assertInvalid(encode("A|" + CREATED_AT + "|"), true);
+    assertInvalid(encode("A|yesterday|p1"), true);
+    assertInvalid(encode("X|" + CREATED_AT + "|p1"), true);
+  }
+
+  @Test
+  void rejectsACursorOfTheOppositeDirection() {
+    var ascending = new KeysetCursor(true, CREATED_AT, "p1").encode();
+    var descending = new KeysetCursor(false, CREATED_AT, "p1").encode();
+
+    assertInvalid(ascending, false);
+    assertInvalid(descending, true);
+  }
+}
@@ -0,0 +1,31 @@
+package com.challenge.ecommerce.utils.pagination;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class KeysetPageTest {
+
+  static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 10, 30);
+
+  static KeysetCursor cursorOf(String id) {
+    return new KeysetCursor(true, CREATED_AT, id);
+  }
+
+  @Test
+  void splitsOffTheExtraRowAndPointsAtTheLastRowKept() {
+    var page = KeysetPage.of(List.of("a", "b", "c"), 2, KeysetPageTest::cursorOf);
+
+    assertEquals(List.of("a", "b"), page.content());
+    assertEquals(cursorOf("b"), KeysetCursor.decode(page.nextCursor(), true));
+  }
+
+  @Test
+  void hasNoNextCursorWithoutTheExtraRow() {
+    assertNull(KeysetPage.of(List.of("a", "b"), 2, KeysetPageTest::cursorOf).nextCursor());
+    assertEquals(
+        List.of(), KeysetPage.of(List.<String>of(), 2, KeysetPageTest::cursorOf).content());
+  }
+}